@@ -0,0 +1,338 @@
+package com.ecommerce.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.ecommerce.dto.OrderItemDTO;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.service.ListingCache.CachedPage;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Compact binary encoding of the values this application caches: product and
+ * order DTOs, listing pages of them, generation tokens and the load timings
+ * kept for refresh-ahead. Fields are written
+ * in declaration order behind a presence bitmask, numbers as varints and
+ * BigDecimals as scale plus unscaled value, so no field or class names are
+ * stored. Values of any other type are delegated to the fallback serializer.
+ *
+ * Every value starts with a format version byte and a flags byte. Payloads of
+ * at least {@code compressionThreshold} bytes are LZ4-compressed when that
+ * makes them smaller. A value with an unknown version, or one that fails to
+ * decode, is read as a cache miss rather than an error, so nodes running
+ * different releases during a rolling deploy only miss each other's entries.
+ * Entries written as JSON by earlier releases are still read.
+ *
+ * Changing the layout of a cached record requires a new format version.
+ */
+public class BinaryCacheCodec implements RedisSerializer<Object> {
+
+	private static final Logger log = LoggerFactory.getLogger(BinaryCacheCodec.class);
+
+	static final int FORMAT_VERSION = 1;
+
+	private static final int FLAG_LZ4 = 1;
+
+	private static final int HEADER_SIZE = 2;
+
+	private static final int TYPE_PRODUCT = 1;
+
+	private static final int TYPE_ORDER = 2;
+
+	private static final int TYPE_PAGE = 3;
+
+	private static final int TYPE_LONG = 4;
+
+	private static final int TYPE_LIST = 5;
+
+	private static final int TYPE_REFRESHABLE = 6;
+
+	private static final int TYPE_FALLBACK = 127;
+
+	private final RedisSerializer<Object> fallback;
+
+	private final int compressionThreshold;
+
+	private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+
+	private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+	public BinaryCacheCodec(RedisSerializer<Object> fallback, int compressionThreshold) {
+		this.fallback = fallback;
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	@Override
+	public byte[] serialize(Object value) throws SerializationException {
+		if (value == null) {
+			return null;
+		}
+		BinaryWriter out = new BinaryWriter(256);
+		out.writeByte(FORMAT_VERSION);
+		out.writeByte(0);
+		writeValue(out, value);
+
+		int payloadLength = out.position() - HEADER_SIZE;
+		if (payloadLength >= compressionThreshold) {
+			byte[] compressed = compress(out.buffer(), payloadLength);
+			if (compressed.length < out.position()) {
+				return compressed;
+			}
+		}
+		return out.toByteArray();
+	}
+
+	@Override
+	public Object deserialize(byte[] bytes) throws SerializationException {
+		if (bytes == null || bytes.length == 0) {
+			return null;
+		}
+		try {
+			if (bytes[0] >= ' ') {
+				// Versions are control bytes, so this is JSON written before the codec
+				return fallback.deserialize(bytes);
+			}
+			if (bytes[0] != FORMAT_VERSION || bytes.length < HEADER_SIZE) {
+				log.debug("Ignoring cache value with format version {}", bytes[0]);
+				return null;
+			}
+			BinaryReader in;
+			if ((bytes[1] & FLAG_LZ4) != 0) {
+				BinaryReader header = new BinaryReader(bytes, HEADER_SIZE, bytes.length);
+				int payloadLength = header.readVarInt();
+				byte[] payload = new byte[payloadLength];
+				decompressor.decompress(bytes, header.position(), payload, 0, payloadLength);
+				in = new BinaryReader(payload, 0, payloadLength);
+			} else {
+				in = new BinaryReader(bytes, HEADER_SIZE, bytes.length);
+			}
+			return readValue(in);
+		} catch (RuntimeException ex) {
+			log.warn("Ignoring undecodable cache value: {}", ex.getMessage());
+			return null;
+		}
+	}
+
+	private byte[] compress(byte[] buffer, int payloadLength) {
+		BinaryWriter out = new BinaryWriter(HEADER_SIZE + 5 + compressor.maxCompressedLength(payloadLength));
+		out.writeByte(FORMAT_VERSION);
+		out.writeByte(FLAG_LZ4);
+		out.writeVarLong(payloadLength);
+		int offset = out.position();
+		int compressedLength = compressor.compress(buffer, HEADER_SIZE, payloadLength, out.buffer(), offset,
+				out.buffer().length - offset);
+		return Arrays.copyOf(out.buffer(), offset + compressedLength);
+	}
+
+	private void writeValue(BinaryWriter out, Object value) {
+		if (value instanceof ProductDTO product) {
+			out.writeByte(TYPE_PRODUCT);
+			writeProduct(out, product);
+		} else if (value instanceof OrderResponse order) {
+			out.writeByte(TYPE_ORDER);
+			writeOrder(out, order);
+		} else if (value instanceof CachedPage<?> page) {
+			out.writeByte(TYPE_PAGE);
+			out.writeVarLong(page.totalElements());
+			writeElements(out, page.content());
+		} else if (value instanceof Long number) {
+			out.writeByte(TYPE_LONG);
+			out.writeSignedVarLong(number);
+		} else if (value instanceof RefreshableValue refreshable) {
+			out.writeByte(TYPE_REFRESHABLE);
+			out.writeVarLong(refreshable.loadedAtMillis());
+			out.writeVarLong(refreshable.loadMillis());
+			writeValue(out, refreshable.value());
+		} else if (value instanceof List<?> list) {
+			out.writeByte(TYPE_LIST);
+			writeElements(out, list);
+		} else {
+			byte[] bytes = fallback.serialize(value);
+			out.writeByte(TYPE_FALLBACK);
+			out.writeVarLong(bytes.length);
+			out.writeBytes(bytes, 0, bytes.length);
+		}
+	}
+
+	private Object readValue(BinaryReader in) {
+		int type = in.readByte();
+		return switch (type) {
+		case TYPE_PRODUCT -> readProduct(in);
+		case TYPE_ORDER -> readOrder(in);
+		case TYPE_PAGE -> {
+			long totalElements = in.readVarLong();
+			yield new CachedPage<>(readElements(in), totalElements);
+		}
+		case TYPE_LONG -> in.readSignedVarLong();
+		case TYPE_LIST -> readElements(in);
+		case TYPE_REFRESHABLE -> {
+			long loadedAtMillis = in.readVarLong();
+			long loadMillis = in.readVarLong();
+			yield new RefreshableValue(readValue(in), loadedAtMillis, loadMillis);
+		}
+		case TYPE_FALLBACK -> fallback.deserialize(in.readBytes(in.readVarInt()));
+		default -> throw new IllegalArgumentException("Unknown cache value type " + type);
+		};
+	}
+
+	private void writeElements(BinaryWriter out, List<?> elements) {
+		out.writeVarLong(elements.size());
+		for (Object element : elements) {
+			writeValue(out, element);
+		}
+	}
+
+	private List<Object> readElements(BinaryReader in) {
+		int size = in.readVarInt();
+		List<Object> elements = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			elements.add(readValue(in));
+		}
+		return elements;
+	}
+
+	private static void writeProduct(BinaryWriter out, ProductDTO product) {
+		int mask = presence(product.id(), product.name(), product.description(), product.price(), product.quantity(),
+				product.deleted());
+		if (Boolean.TRUE.equals(product.deleted())) {
+			mask |= 1 << 6;
+		}
+		out.writeByte(mask);
+		if (product.id() != null) {
+			out.writeSignedVarLong(product.id());
+		}
+		if (product.name() != null) {
+			out.writeString(product.name());
+		}
+		if (product.description() != null) {
+			out.writeString(product.description());
+		}
+		if (product.price() != null) {
+			out.writeBigDecimal(product.price());
+		}
+		if (product.quantity() != null) {
+			out.writeSignedVarLong(product.quantity());
+		}
+	}
+
+	private static ProductDTO readProduct(BinaryReader in) {
+		int mask = in.readByte();
+		return new ProductDTO(has(mask, 0) ? in.readSignedVarLong() : null, has(mask, 1) ? in.readString() : null,
+				has(mask, 2) ? in.readString() : null, has(mask, 3) ? in.readBigDecimal() : null,
+				has(mask, 4) ? Math.toIntExact(in.readSignedVarLong()) : null, has(mask, 5) ? has(mask, 6) : null);
+	}
+
+	private static void writeOrder(BinaryWriter out, OrderResponse order) {
+		out.writeVarLong(presence(order.id(), order.userId(), order.username(), order.items(), order.orderTotal(),
+				order.discountApplied(), order.status(), order.createdAt(), order.updatedAt()));
+		if (order.id() != null) {
+			out.writeSignedVarLong(order.id());
+		}
+		if (order.userId() != null) {
+			out.writeSignedVarLong(order.userId());
+		}
+		if (order.username() != null) {
+			out.writeString(order.username());
+		}
+		if (order.items() != null) {
+			out.writeVarLong(order.items().size());
+			for (OrderItemDTO item : order.items()) {
+				writeOrderItem(out, item);
+			}
+		}
+		if (order.orderTotal() != null) {
+			out.writeBigDecimal(order.orderTotal());
+		}
+		if (order.discountApplied() != null) {
+			out.writeBigDecimal(order.discountApplied());
+		}
+		if (order.status() != null) {
+			// By name, so reordering the enum cannot silently change cached statuses
+			out.writeString(order.status().name());
+		}
+		if (order.createdAt() != null) {
+			out.writeDateTime(order.createdAt());
+		}
+		if (order.updatedAt() != null) {
+			out.writeDateTime(order.updatedAt());
+		}
+	}
+
+	private static OrderResponse readOrder(BinaryReader in) {
+		int mask = in.readVarInt();
+		Long id = has(mask, 0) ? in.readSignedVarLong() : null;
+		Long userId = has(mask, 1) ? in.readSignedVarLong() : null;
+		String username = has(mask, 2) ? in.readString() : null;
+		List<OrderItemDTO> items = null;
+		if (has(mask, 3)) {
+			int size = in.readVarInt();
+			items = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				items.add(readOrderItem(in));
+			}
+		}
+		return new OrderResponse(id, userId, username, items, has(mask, 4) ? in.readBigDecimal() : null,
+				has(mask, 5) ? in.readBigDecimal() : null, has(mask, 6) ? OrderStatus.valueOf(in.readString()) : null,
+				has(mask, 7) ? in.readDateTime() : null, has(mask, 8) ? in.readDateTime() : null);
+	}
+
+	private static void writeOrderItem(BinaryWriter out, OrderItemDTO item) {
+		out.writeByte(presence(item.id(), item.productId(), item.productName(), item.quantity(), item.unitPrice(),
+				item.discountApplied(), item.totalPrice()));
+		if (item.id() != null) {
+			out.writeSignedVarLong(item.id());
+		}
+		if (item.productId() != null) {
+			out.writeSignedVarLong(item.productId());
+		}
+		if (item.productName() != null) {
+			out.writeString(item.productName());
+		}
+		if (item.quantity() != null) {
+			out.writeSignedVarLong(item.quantity());
+		}
+		if (item.unitPrice() != null) {
+			out.writeBigDecimal(item.unitPrice());
+		}
+		if (item.discountApplied() != null) {
+			out.writeBigDecimal(item.discountApplied());
+		}
+		if (item.totalPrice() != null) {
+			out.writeBigDecimal(item.totalPrice());
+		}
+	}
+
+	private static OrderItemDTO readOrderItem(BinaryReader in) {
+		int mask = in.readByte();
+		return new OrderItemDTO(has(mask, 0) ? in.readSignedVarLong() : null,
+				has(mask, 1) ? in.readSignedVarLong() : null, has(mask, 2) ? in.readString() : null,
+				has(mask, 3) ? Math.toIntExact(in.readSignedVarLong()) : null, has(mask, 4) ? in.readBigDecimal() : null,
+				has(mask, 5) ? in.readBigDecimal() : null, has(mask, 6) ? in.readBigDecimal() : null);
+	}
+
+	// Bit i is set when the i-th field is non-null
+	private static int presence(Object... fields) {
+		int mask = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i] != null) {
+				mask |= 1 << i;
+			}
+		}
+		return mask;
+	}
+
+	private static boolean has(int mask, int bit) {
+		return (mask & (1 << bit)) != 0;
+	}
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Reads what {@link BinaryWriter} wrote. Reading past the end throws
+ * {@link IllegalArgumentException}.
+ */
+final class BinaryReader {
+
+	private final byte[] buffer;
+
+	private final int limit;
+
+	private int position;
+
+	BinaryReader(byte[] buffer, int offset, int limit) {
+		this.buffer = buffer;
+		this.position = offset;
+		this.limit = limit;
+	}
+
+	int readByte() {
+		require(1);
+		return buffer[position++] & 0xFF;
+	}
+
+	long readVarLong() {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed varint");
+	}
+
+	int readVarInt() {
+		return Math.toIntExact(readVarLong());
+	}
+
+	long readSignedVarLong() {
+		long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	String readString() {
+		int length = readVarInt();
+		require(length);
+		String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	BigDecimal readBigDecimal() {
+		int scale = Math.toIntExact(readSignedVarLong());
+		if (readByte() == 0) {
+			return BigDecimal.valueOf(readSignedVarLong(), scale);
+		}
+		return new BigDecimal(new BigInteger(readBytes(readVarInt())), scale);
+	}
+
+	LocalDateTime readDateTime() {
+		long epochSecond = readSignedVarLong();
+		return LocalDateTime.ofEpochSecond(epochSecond, readVarInt(), ZoneOffset.UTC);
+	}
+
+	byte[] readBytes(int length) {
+		require(length);
+		byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+		position += length;
+		return bytes;
+	}
+
+	int position() {
+		return position;
+	}
+
+	boolean hasRemaining() {
+		return position < limit;
+	}
+
+	private void require(int length) {
+		if (length < 0 || position + length > limit) {
+			throw new IllegalArgumentException("Truncated cache value");
+		}
+	}
+}
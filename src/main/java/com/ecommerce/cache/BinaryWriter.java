@@ -0,0 +1,94 @@
+package com.ecommerce.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings of {@link BinaryCacheCodec}:
+ * unsigned LEB128 varints, zig-zag for signed values, and length-prefixed UTF-8.
+ */
+final class BinaryWriter {
+
+	private byte[] buffer;
+
+	private int position;
+
+	BinaryWriter(int initialCapacity) {
+		this.buffer = new byte[initialCapacity];
+	}
+
+	void writeByte(int value) {
+		ensureCapacity(1);
+		buffer[position++] = (byte) value;
+	}
+
+	void writeBytes(byte[] bytes, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, buffer, position, length);
+		position += length;
+	}
+
+	void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	void writeSignedVarLong(long value) {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+	void writeString(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length);
+		writeBytes(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Scale, then the unscaled value as a varint when it fits in a long (the
+	 * usual case for prices) or as two's-complement bytes otherwise.
+	 */
+	void writeBigDecimal(BigDecimal value) {
+		writeSignedVarLong(value.scale());
+		BigInteger unscaled = value.unscaledValue();
+		if (unscaled.bitLength() < 64) {
+			writeByte(0);
+			writeSignedVarLong(unscaled.longValue());
+		} else {
+			byte[] bytes = unscaled.toByteArray();
+			writeByte(1);
+			writeVarLong(bytes.length);
+			writeBytes(bytes, 0, bytes.length);
+		}
+	}
+
+	void writeDateTime(LocalDateTime value) {
+		writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+		writeVarLong(value.getNano());
+	}
+
+	int position() {
+		return position;
+	}
+
+	byte[] buffer() {
+		return buffer;
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(buffer, position);
+	}
+
+	private void ensureCapacity(int extra) {
+		if (position + extra > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.cache;
+
+/**
+ * Tells other nodes to drop an entry, or with a null key every entry, from
+ * their near cache. {@code origin} identifies the sending node so that it can
+ * ignore its own messages.
+ */
+public record CacheInvalidation(String origin, String cacheName, String key) {
+
+	private static final char SEPARATOR = '\n';
+
+	public static CacheInvalidation clear(String origin, String cacheName) {
+		return new CacheInvalidation(origin, cacheName, null);
+	}
+
+	public boolean isClear() {
+		return key == null;
+	}
+
+	/**
+	 * Newline-separated wire form; a message without a key line is a clear.
+	 */
+	public String encode() {
+		return key == null ? origin + SEPARATOR + cacheName : origin + SEPARATOR + cacheName + SEPARATOR + key;
+	}
+
+	public static CacheInvalidation decode(String message) {
+		int first = message.indexOf(SEPARATOR);
+		int second = message.indexOf(SEPARATOR, first + 1);
+		if (first < 0) {
+			throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+		}
+		String origin = message.substring(0, first);
+		if (second < 0) {
+			return clear(origin, message.substring(first + 1));
+		}
+		return new CacheInvalidation(origin, message.substring(first + 1, second), message.substring(second + 1));
+	}
+}
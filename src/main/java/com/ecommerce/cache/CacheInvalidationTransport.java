@@ -0,0 +1,15 @@
+package com.ecommerce.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries near-cache invalidations between nodes. Implementations deliver every
+ * published message to the listeners of every node, including the publisher's;
+ * delivery is best effort, which is why near-cache entries also expire.
+ */
+public interface CacheInvalidationTransport {
+
+	void publish(CacheInvalidation invalidation);
+
+	void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A minimal circuit breaker for calls to a shared dependency such as Redis.
+ *
+ * CLOSED lets every call through and counts consecutive failures; reaching
+ * {@code failureThreshold} opens the circuit. OPEN rejects calls until
+ * {@code openDuration} has passed, then HALF_OPEN lets a single probe call
+ * through: success closes the circuit, failure opens it again. A probe that
+ * never reports back is replaced by another after {@code openDuration}.
+ *
+ * Callers ask {@link #tryAcquire()} before each call and report the outcome
+ * with {@link #onSuccess()} or {@link #onFailure()}.
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureThreshold;
+
+	private final long openNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+
+	private volatile State state = State.CLOSED;
+
+	private volatile int consecutiveFailures;
+
+	// When OPEN: when it opened. When HALF_OPEN: when the probe was let through
+	private long since;
+
+	public CircuitBreaker(int failureThreshold, Duration openDuration) {
+		this(failureThreshold, openDuration, System::nanoTime);
+	}
+
+	CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openDuration.toNanos();
+		this.nanoClock = nanoClock;
+	}
+
+	public State state() {
+		return state;
+	}
+
+	/**
+	 * Registers a listener that is told about every state change, outside the
+	 * breaker's lock.
+	 */
+	public void addListener(Consumer<State> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Whether a call may go ahead now.
+	 */
+	public boolean tryAcquire() {
+		if (state == State.CLOSED) {
+			return true;
+		}
+		State changed;
+		synchronized (this) {
+			long now = nanoClock.getAsLong();
+			if (state == State.CLOSED) {
+				return true;
+			}
+			if (now - since < openNanos) {
+				return false;
+			}
+			// Open long enough, or the last probe never reported: let one probe through
+			since = now;
+			changed = state == State.OPEN ? State.HALF_OPEN : null;
+			state = State.HALF_OPEN;
+		}
+		notifyListeners(changed);
+		return true;
+	}
+
+	public void onSuccess() {
+		if (state == State.CLOSED && consecutiveFailures == 0) {
+			return;
+		}
+		State changed;
+		synchronized (this) {
+			consecutiveFailures = 0;
+			changed = state == State.CLOSED ? null : State.CLOSED;
+			state = State.CLOSED;
+		}
+		notifyListeners(changed);
+	}
+
+	public void onFailure() {
+		State changed = null;
+		synchronized (this) {
+			consecutiveFailures++;
+			if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+				changed = State.OPEN;
+				state = State.OPEN;
+				since = nanoClock.getAsLong();
+			}
+		}
+		notifyListeners(changed);
+	}
+
+	private void notifyListeners(State changed) {
+		if (changed != null) {
+			listeners.forEach(listener -> listener.accept(changed));
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package com.ecommerce.cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * A shared (Redis) cache behind a {@link CircuitBreaker}. While the circuit is
+ * closed every operation goes to the shared cache. When an operation fails, or
+ * the circuit is open and calls are rejected without waiting for Redis, the
+ * operation is applied to a bounded in-process fallback cache instead; a miss
+ * there sends the caller to the database.
+ *
+ * Evictions and writes that could not reach the shared cache are remembered and
+ * replayed as evictions once the circuit closes, so entries changed during the
+ * outage are not served stale from Redis afterwards. If too many keys pile up
+ * the whole cache is cleared instead. A replay that fails, or a failure that
+ * did not open the circuit, is retried after the next successful call.
+ */
+public class CircuitBreakingCache implements Cache {
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreakingCache.class);
+
+	private final Cache shared;
+
+	private final com.github.benmanes.caffeine.cache.Cache<Object, Object> fallback;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final int maxPendingEvictions;
+
+	private final Set<Object> pendingEvictions = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean pendingClear;
+
+	private final AtomicBoolean replaying = new AtomicBoolean();
+
+	public CircuitBreakingCache(Cache shared, com.github.benmanes.caffeine.cache.Cache<Object, Object> fallback,
+			CircuitBreaker circuitBreaker, int maxPendingEvictions) {
+		this.shared = shared;
+		this.fallback = fallback;
+		this.circuitBreaker = circuitBreaker;
+		this.maxPendingEvictions = maxPendingEvictions;
+	}
+
+	@Override
+	public String getName() {
+		return shared.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return shared.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		boolean stale = isStale(key);
+		return call(() -> {
+			ValueWrapper wrapper = shared.get(key);
+			return stale ? null : wrapper;
+		}, () -> {
+			Object value = fallback.getIfPresent(key);
+			return value == null ? null : new SimpleValueWrapper(value);
+		});
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = wrapper == null ? null : wrapper.get();
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	/**
+	 * Looks up and stores through this cache rather than the shared cache's own
+	 * synchronized load, so the loader never runs while Redis is being waited on.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		T value;
+		try {
+			value = valueLoader.call();
+		} catch (Exception ex) {
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+		put(key, value);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		call(() -> {
+			shared.put(key, value);
+			return null;
+		}, () -> {
+			if (value == null) {
+				fallback.invalidate(key);
+			} else {
+				fallback.put(key, value);
+			}
+			remember(key);
+			return null;
+		});
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		boolean stale = isStale(key);
+		return call(() -> {
+			if (stale) {
+				shared.put(key, value);
+				return null;
+			}
+			return shared.putIfAbsent(key, value);
+		}, () -> {
+			Object existing = fallback.asMap().putIfAbsent(key, value);
+			remember(key);
+			return existing == null ? null : new SimpleValueWrapper(existing);
+		});
+	}
+
+	@Override
+	public void evict(Object key) {
+		call(() -> {
+			shared.evict(key);
+			return null;
+		}, () -> {
+			fallback.invalidate(key);
+			remember(key);
+			return null;
+		});
+	}
+
+	@Override
+	public void clear() {
+		call(() -> {
+			shared.clear();
+			return null;
+		}, () -> {
+			fallback.invalidateAll();
+			pendingClear = true;
+			pendingEvictions.clear();
+			return null;
+		});
+	}
+
+	/**
+	 * Applies the evictions missed during an outage to the shared cache and drops
+	 * the fallback entries. Called when the circuit closes again, and after
+	 * successful calls while evictions are still pending.
+	 */
+	void replayPendingEvictions() {
+		if (!replaying.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			if (pendingClear) {
+				shared.clear();
+				pendingClear = false;
+			}
+			for (Object key : pendingEvictions) {
+				shared.evict(key);
+				pendingEvictions.remove(key);
+			}
+			fallback.invalidateAll();
+		} catch (DataAccessException ex) {
+			log.warn("Cannot replay evictions for cache {} yet: {}", getName(), ex.getMessage());
+			circuitBreaker.onFailure();
+		} finally {
+			replaying.set(false);
+		}
+	}
+
+	// The shared value missed an invalidation and must not be used until it is replayed
+	private boolean isStale(Object key) {
+		return pendingClear || pendingEvictions.contains(key);
+	}
+
+	private void remember(Object key) {
+		if (pendingClear) {
+			return;
+		}
+		pendingEvictions.add(key);
+		if (pendingEvictions.size() > maxPendingEvictions) {
+			pendingClear = true;
+			pendingEvictions.clear();
+		}
+	}
+
+	private <T> T call(Supplier<T> sharedCall, Supplier<T> fallbackCall) {
+		if (!circuitBreaker.tryAcquire()) {
+			return fallbackCall.get();
+		}
+		T result;
+		try {
+			result = sharedCall.get();
+		} catch (DataAccessException ex) {
+			circuitBreaker.onFailure();
+			log.debug("Cache {} unavailable, using local fallback: {}", getName(), ex.getMessage());
+			return fallbackCall.get();
+		}
+		circuitBreaker.onSuccess();
+		if ((pendingClear || !pendingEvictions.isEmpty()) && circuitBreaker.state() == CircuitBreaker.State.CLOSED) {
+			replayPendingEvictions();
+		}
+		return result;
+	}
+}
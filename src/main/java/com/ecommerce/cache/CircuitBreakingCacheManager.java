@@ -0,0 +1,99 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps every cache of the shared cache manager in a {@link CircuitBreakingCache}.
+ * All caches share one circuit breaker, since they share one Redis. Each gets
+ * its own fallback cache, bounded by entry count and expiring entries after a
+ * short while.
+ *
+ * The breaker state is published as cache.circuit.state, one gauge per state
+ * that reads 1 for the current state, and state changes are counted in
+ * cache.circuit.transitions.
+ */
+public class CircuitBreakingCacheManager implements CacheManager {
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreakingCacheManager.class);
+
+	private final CacheManager sharedCacheManager;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final long fallbackMaximumSize;
+
+	private final Duration fallbackExpireAfterWrite;
+
+	private final int maxPendingEvictions;
+
+	private final ConcurrentMap<String, CircuitBreakingCache> caches = new ConcurrentHashMap<>();
+
+	public CircuitBreakingCacheManager(CacheManager sharedCacheManager, CircuitBreaker circuitBreaker,
+			long fallbackMaximumSize, Duration fallbackExpireAfterWrite, int maxPendingEvictions,
+			MeterRegistry meterRegistry) {
+		this.sharedCacheManager = sharedCacheManager;
+		this.circuitBreaker = circuitBreaker;
+		this.fallbackMaximumSize = fallbackMaximumSize;
+		this.fallbackExpireAfterWrite = fallbackExpireAfterWrite;
+		this.maxPendingEvictions = maxPendingEvictions;
+		for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+			Gauge.builder("cache.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+					.description("Whether the Redis cache circuit is in this state").tag("state", tagValue(state))
+					.register(meterRegistry);
+		}
+		circuitBreaker.addListener(state -> {
+			meterRegistry.counter("cache.circuit.transitions", "state", tagValue(state)).increment();
+			onStateChange(state);
+		});
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		CircuitBreakingCache cache = caches.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Cache shared = sharedCacheManager.getCache(name);
+		if (shared == null) {
+			return null;
+		}
+		return caches.computeIfAbsent(name, cacheName -> new CircuitBreakingCache(shared,
+				Caffeine.newBuilder().maximumSize(fallbackMaximumSize).expireAfterWrite(fallbackExpireAfterWrite)
+						.build(),
+				circuitBreaker, maxPendingEvictions));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return sharedCacheManager.getCacheNames();
+	}
+
+	private void onStateChange(CircuitBreaker.State state) {
+		switch (state) {
+		case OPEN -> log.warn("Redis cache circuit opened, serving from local fallback caches");
+		case HALF_OPEN -> log.info("Redis cache circuit half-open, probing Redis");
+		case CLOSED -> {
+			log.info("Redis cache circuit closed, replaying evictions missed during the outage");
+			caches.values().forEach(CircuitBreakingCache::replayPendingEvictions);
+		}
+		}
+	}
+
+	private static String tagValue(CircuitBreaker.State state) {
+		return state.name().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously to the listeners in this JVM. Stands in
+ * for Redis in tests, where several cache managers sharing one transport play
+ * the part of several nodes, and serves single-node deployments.
+ */
+public class InMemoryCacheInvalidationTransport implements CacheInvalidationTransport {
+
+	private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		listeners.forEach(listener -> listener.accept(invalidation));
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidation> listener) {
+		listeners.add(listener);
+	}
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Publishes invalidations on a Redis pub/sub channel that every node
+ * subscribes to. Pub/sub does not queue messages for disconnected subscribers,
+ * so a node that misses one relies on its near-cache TTL.
+ *
+ * The subscription is made from a scheduled task and retried until it
+ * succeeds, so the application starts and serves requests while Redis is down.
+ * Publishing goes through the cache circuit breaker and is skipped while the
+ * circuit is open.
+ */
+public class RedisCacheInvalidationTransport implements CacheInvalidationTransport, DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationTransport.class);
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final RedisMessageListenerContainer listenerContainer;
+
+	private final ChannelTopic topic;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private volatile boolean subscribeFailed;
+
+	public RedisCacheInvalidationTransport(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory,
+			String channel, CircuitBreaker circuitBreaker) {
+		this.redisTemplate = redisTemplate;
+		this.topic = new ChannelTopic(channel);
+		this.circuitBreaker = circuitBreaker;
+		this.listenerContainer = new RedisMessageListenerContainer();
+		this.listenerContainer.setConnectionFactory(connectionFactory);
+		this.listenerContainer.afterPropertiesSet();
+	}
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		// Either way other nodes fall back to their near-cache TTL
+		if (!circuitBreaker.tryAcquire()) {
+			return;
+		}
+		try {
+			redisTemplate.convertAndSend(topic.getTopic(), invalidation.encode());
+			circuitBreaker.onSuccess();
+		} catch (RuntimeException ex) {
+			circuitBreaker.onFailure();
+			log.warn("Failed to publish invalidation for cache {}: {}", invalidation.cacheName(), ex.getMessage());
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidation> listener) {
+		listenerContainer.addMessageListener((message, pattern) -> {
+			try {
+				listener.accept(CacheInvalidation.decode(new String(message.getBody(), StandardCharsets.UTF_8)));
+			} catch (IllegalArgumentException ex) {
+				log.warn("Ignoring malformed cache invalidation on {}", topic.getTopic(), ex);
+			}
+		}, topic);
+	}
+
+	@Scheduled(fixedDelayString = "${app.cache.near.resubscribe-interval-ms:10000}")
+	public void ensureSubscribed() {
+		if (listenerContainer.isListening()) {
+			return;
+		}
+		try {
+			// A container whose subscription failed stays running without listening until stopped
+			listenerContainer.stop();
+			listenerContainer.start();
+			subscribeFailed = false;
+			log.info("Subscribed to cache invalidations on {}", topic.getTopic());
+		} catch (RuntimeException ex) {
+			if (!subscribeFailed) {
+				log.warn("Cannot subscribe to cache invalidations on {}, will retry: {}", topic.getTopic(),
+						ex.getMessage());
+			}
+			subscribeFailed = true;
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		listenerContainer.destroy();
+	}
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.cache;
+
+/**
+ * A cached value with the epoch millisecond it was loaded at and how many
+ * milliseconds loading it took, which {@link SingleFlightCacheLoader} uses to
+ * refresh it before it expires.
+ */
+public record RefreshableValue(Object value, long loadedAtMillis, long loadMillis) {
+}
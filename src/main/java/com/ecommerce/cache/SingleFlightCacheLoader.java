@@ -0,0 +1,172 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loads cache misses once per key however many callers miss it at the same
+ * time, and reloads hot entries shortly before they expire.
+ *
+ * Concurrent misses on a key are coalesced: the first caller runs the loader
+ * and the others wait for its result, or its exception, instead of querying the
+ * database themselves. Coalescing is per instance; each instance loads a key at
+ * most once at a time.
+ *
+ * Entries are stored as {@link RefreshableValue}s that record when they were
+ * loaded and how long loading took. Each hit reloads the entry early with a
+ * probability that rises as the entry nears its TTL, faster for entries that
+ * are slow to load (probabilistic early expiration, "XFetch"). A hot key is
+ * then reloaded by one caller before it expires while the others keep reading
+ * the current value, so it never expires under load.
+ */
+@Component
+public class SingleFlightCacheLoader {
+
+	private final CacheManager cacheManager;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Duration defaultTtl;
+
+	private final double beta;
+
+	private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	public SingleFlightCacheLoader(CacheManager cacheManager, MeterRegistry meterRegistry,
+			@Value("${spring.cache.redis.time-to-live:10m}") Duration defaultTtl,
+			@Value("${app.cache.refresh-ahead.beta:1.0}") double beta) {
+		this.cacheManager = cacheManager;
+		this.meterRegistry = meterRegistry;
+		this.defaultTtl = defaultTtl;
+		this.beta = beta;
+	}
+
+	/**
+	 * Returns the value cached under {@code key}, loading it on a miss, for caches
+	 * with the default TTL.
+	 */
+	public <T> T get(String cacheName, Object key, Supplier<T> loader) {
+		return get(cacheName, key, defaultTtl, loader);
+	}
+
+	/**
+	 * Returns the value cached under {@code key}, loading it on a miss. {@code ttl}
+	 * must be the TTL the cache stores entries with.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String cacheName, Object key, Duration ttl, Supplier<T> loader) {
+		Cache cache = cacheManager.getCache(cacheName);
+		if (cache == null) {
+			return loader.get();
+		}
+		Cache.ValueWrapper wrapper = cache.get(key);
+		Object cached = wrapper == null ? null : wrapper.get();
+		if (cached instanceof RefreshableValue entry) {
+			if (shouldRefresh(System.currentTimeMillis(), entry, ttl.toMillis(), beta,
+					ThreadLocalRandom.current().nextDouble())) {
+				return load(cache, key, loader, (T) entry.value());
+			}
+			return (T) entry.value();
+		}
+		if (cached != null) {
+			// Stored without load timings, e.g. by an earlier release; it simply expires
+			return (T) cached;
+		}
+		return load(cache, key, loader, null);
+	}
+
+	/**
+	 * Stores a value that was just computed, such as a product after an update.
+	 */
+	public void put(String cacheName, Object key, Object value) {
+		Cache cache = cacheManager.getCache(cacheName);
+		if (cache != null) {
+			cache.put(key, new RefreshableValue(value, System.currentTimeMillis(), 0L));
+		}
+	}
+
+	/**
+	 * XFetch: refresh when {@code now - loadMillis * beta * ln(random)} reaches
+	 * the expiry time, with {@code random} uniform in [0, 1).
+	 */
+	static boolean shouldRefresh(long nowMillis, RefreshableValue entry, long ttlMillis, double beta,
+			double random) {
+		double gap = -entry.loadMillis() * beta * Math.log(1.0 - random);
+		return nowMillis + gap >= entry.loadedAtMillis() + ttlMillis;
+	}
+
+	/**
+	 * Runs the loader unless another caller already is. On a miss ({@code current}
+	 * null) the other callers wait for that load; on an early refresh they return
+	 * the current value.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T load(Cache cache, Object key, Supplier<T> loader, T current) {
+		String flightKey = cache.getName() + ':' + key;
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+		if (leader != null) {
+			if (current != null) {
+				return current;
+			}
+			count(cache, "coalesced");
+			return (T) await(leader);
+		}
+
+		count(cache, current == null ? "miss" : "refresh");
+		try {
+			long start = System.nanoTime();
+			T value = loader.get();
+			long loadMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+			if (value != null) {
+				fill(cache, key, new RefreshableValue(value, System.currentTimeMillis(), loadMillis));
+			}
+			flight.complete(value);
+			return value;
+		} catch (RuntimeException | Error ex) {
+			flight.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(flightKey, flight);
+		}
+	}
+
+	// A load is not a change, so near caches on other nodes are not told about it
+	private static void fill(Cache cache, Object key, RefreshableValue entry) {
+		if (cache instanceof TwoLevelCache nearCache) {
+			nearCache.fill(key, entry);
+		} else {
+			cache.put(key, entry);
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> leader) {
+		try {
+			return leader.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private void count(Cache cache, String result) {
+		meterRegistry.counter("cache.loads", "cache", cache.getName(), "result", result).increment();
+	}
+}
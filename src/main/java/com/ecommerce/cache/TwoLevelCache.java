@@ -0,0 +1,128 @@
+package com.ecommerce.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * An in-heap Caffeine cache (L1) in front of a shared cache (L2, Redis). Reads
+ * are served from L1 when possible and fill it from L2 on a miss. Writes go to
+ * L2 and L1 and are announced to the other nodes, which drop the entry from
+ * their L1 and read the new value from L2 next time. Values loaded from the
+ * database are stored without an announcement, see {@link #fill}.
+ *
+ * A node can still read an old L2 value just before another node's write and
+ * put it in L1 after that write's invalidation arrived, so L1 entries expire
+ * after a short time as well.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+	private final String name;
+
+	private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+
+	private final Cache shared;
+
+	private final CacheInvalidationTransport transport;
+
+	private final String origin;
+
+	public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache shared,
+			CacheInvalidationTransport transport, String origin) {
+		super(false);
+		this.name = name;
+		this.local = local;
+		this.shared = shared;
+		this.transport = transport;
+		this.origin = origin;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return shared.getNativeCache();
+	}
+
+	@Override
+	protected Object lookup(Object key) {
+		String localKey = localKey(key);
+		Object value = local.getIfPresent(localKey);
+		if (value != null) {
+			return value;
+		}
+		ValueWrapper wrapper = shared.get(key);
+		value = wrapper == null ? null : wrapper.get();
+		if (value != null) {
+			local.put(localKey, value);
+		}
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object value = lookup(key);
+		if (value != null) {
+			return (T) value;
+		}
+		T loaded = shared.get(key, valueLoader);
+		if (loaded != null) {
+			local.put(localKey(key), loaded);
+		}
+		return loaded;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		shared.put(key, value);
+		String localKey = localKey(key);
+		local.put(localKey, value);
+		transport.publish(new CacheInvalidation(origin, name, localKey));
+	}
+
+	/**
+	 * Stores a value loaded after a miss or reloaded ahead of expiry. Unlike
+	 * {@link #put(Object, Object)} it is not announced: the value did not change,
+	 * so the other nodes' L1 entries stay valid.
+	 */
+	void fill(Object key, Object value) {
+		shared.put(key, value);
+		local.put(localKey(key), value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		shared.evict(key);
+		String localKey = localKey(key);
+		local.invalidate(localKey);
+		transport.publish(new CacheInvalidation(origin, name, localKey));
+	}
+
+	@Override
+	public void clear() {
+		shared.clear();
+		local.invalidateAll();
+		transport.publish(CacheInvalidation.clear(origin, name));
+	}
+
+	/**
+	 * Applies another node's invalidation to this node's L1 only.
+	 */
+	void invalidateLocal(CacheInvalidation invalidation) {
+		if (invalidation.isClear()) {
+			local.invalidateAll();
+		} else {
+			local.invalidate(invalidation.key());
+		}
+	}
+
+	// Keys travel between nodes as strings, the same form the Redis cache keys use
+	private static String localKey(Object key) {
+		return String.valueOf(key);
+	}
+}
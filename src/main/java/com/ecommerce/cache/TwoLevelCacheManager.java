@@ -0,0 +1,79 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Wraps the shared cache manager and puts an in-heap near cache in front of the
+ * caches named in {@code nearCacheNames}; every other cache is returned as is.
+ * Near caches are bounded by entry count with Caffeine's W-TinyLFU eviction and
+ * expire entries a short while after they were written.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+	private final CacheManager sharedCacheManager;
+
+	private final Set<String> nearCacheNames;
+
+	private final CacheInvalidationTransport transport;
+
+	private final long maximumSize;
+
+	private final Duration expireAfterWrite;
+
+	private final String origin = UUID.randomUUID().toString();
+
+	private final ConcurrentMap<String, TwoLevelCache> nearCaches = new ConcurrentHashMap<>();
+
+	public TwoLevelCacheManager(CacheManager sharedCacheManager, Set<String> nearCacheNames,
+			CacheInvalidationTransport transport, long maximumSize, Duration expireAfterWrite) {
+		this.sharedCacheManager = sharedCacheManager;
+		this.nearCacheNames = Set.copyOf(nearCacheNames);
+		this.transport = transport;
+		this.maximumSize = maximumSize;
+		this.expireAfterWrite = expireAfterWrite;
+		transport.subscribe(this::onInvalidation);
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		if (!nearCacheNames.contains(name)) {
+			return sharedCacheManager.getCache(name);
+		}
+		TwoLevelCache cache = nearCaches.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Cache shared = sharedCacheManager.getCache(name);
+		if (shared == null) {
+			return null;
+		}
+		return nearCaches.computeIfAbsent(name, cacheName -> new TwoLevelCache(cacheName,
+				Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).build(), shared,
+				transport, origin));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return sharedCacheManager.getCacheNames();
+	}
+
+	private void onInvalidation(CacheInvalidation invalidation) {
+		if (origin.equals(invalidation.origin())) {
+			return;
+		}
+		TwoLevelCache cache = nearCaches.get(invalidation.cacheName());
+		if (cache != null) {
+			cache.invalidateLocal(invalidation);
+		}
+	}
+}
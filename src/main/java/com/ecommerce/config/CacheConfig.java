@@ -1,27 +1,168 @@
 package com.ecommerce.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
+import com.ecommerce.cache.BinaryCacheCodec;
+import com.ecommerce.cache.CacheInvalidationTransport;
+import com.ecommerce.cache.CircuitBreaker;
+import com.ecommerce.cache.CircuitBreakingCacheManager;
+import com.ecommerce.cache.InMemoryCacheInvalidationTransport;
+import com.ecommerce.cache.RedisCacheInvalidationTransport;
+import com.ecommerce.cache.TwoLevelCacheManager;
+import com.ecommerce.service.ListingCache;
+import com.ecommerce.service.OrderCache;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.ProductTombstones;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 @ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true")
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
     
+    /**
+     * Values are stored with the binary codec; JSON remains the fallback for
+     * other value types and for entries written before the codec.
+     */
     @Bean
-    public RedisCacheConfiguration redisCacheConfiguration() {
+    public RedisCacheConfiguration redisCacheConfiguration(
+            @Value("${spring.cache.redis.time-to-live:10m}") Duration timeToLive,
+            @Value("${app.cache.codec.compression-threshold:1024}") int compressionThreshold) {
         return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
+                .entryTtl(timeToLive)
                 .disableCachingNullValues()
                 .serializeValuesWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
-                                new GenericJackson2JsonRedisSerializer()
-                        )
+                                new BinaryCacheCodec(redisValueSerializer(), compressionThreshold))
                 );
     }
+
+    /**
+     * The Redis cache manager Spring Boot would build, behind a circuit breaker
+     * with local fallback caches, and wrapped so that the caches in
+     * app.cache.near.caches get an in-heap near cache in front of Redis.
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration redisCacheConfiguration,
+            ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+            CacheInvalidationTransport cacheInvalidationTransport,
+            CircuitBreaker redisCircuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.near.caches:products}") Set<String> nearCacheNames,
+            @Value("${app.cache.near.maximum-size:10000}") long nearCacheMaximumSize,
+            @Value("${app.cache.near.expire-after-write-seconds:30}") long nearCacheExpireAfterWriteSeconds,
+            @Value("${app.cache.circuit.fallback-maximum-size:10000}") long fallbackMaximumSize,
+            @Value("${app.cache.circuit.fallback-expire-after-write-seconds:60}") long fallbackExpireAfterWriteSeconds,
+            @Value("${app.cache.circuit.max-pending-evictions:1000}") int maxPendingEvictions) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.initializeCaches();
+        CacheManager circuitBreakingCacheManager = new CircuitBreakingCacheManager(redisCacheManager,
+                redisCircuitBreaker, fallbackMaximumSize, Duration.ofSeconds(fallbackExpireAfterWriteSeconds),
+                maxPendingEvictions, meterRegistry);
+        return new TwoLevelCacheManager(circuitBreakingCacheManager, nearCacheNames, cacheInvalidationTransport,
+                nearCacheMaximumSize, Duration.ofSeconds(nearCacheExpireAfterWriteSeconds));
+    }
+
+    /**
+     * Shared by the Redis caches and the invalidation channel. Together with a
+     * short spring.data.redis.timeout it bounds how long a request can wait on
+     * an unavailable Redis.
+     */
+    @Bean
+    public CircuitBreaker redisCircuitBreaker(
+            @Value("${app.cache.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${app.cache.circuit.open-seconds:10}") long openSeconds) {
+        return new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds));
+    }
+
+    /**
+     * Cache errors that still reach the caching annotations are logged instead of
+     * failing the request.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.near.transport", havingValue = "redis", matchIfMissing = true)
+    public CacheInvalidationTransport redisCacheInvalidationTransport(StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            @Value("${app.cache.near.channel:cache-invalidation}") String channel,
+            CircuitBreaker redisCircuitBreaker) {
+        return new RedisCacheInvalidationTransport(redisTemplate, connectionFactory, channel, redisCircuitBreaker);
+    }
+
+    /**
+     * Single node, or tests without Redis: invalidations stay in this JVM.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.near.transport", havingValue = "in-memory")
+    public CacheInvalidationTransport inMemoryCacheInvalidationTransport() {
+        return new InMemoryCacheInvalidationTransport();
+    }
+
+    /**
+     * Listing pages get a TTL of their own: that is how pages of replaced
+     * generations go away. Generations outlive the pages cached under them.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer listingCacheTtls(RedisCacheConfiguration redisCacheConfiguration,
+            @Value("${app.cache.listings.ttl-minutes:5}") long listingTtlMinutes) {
+        RedisCacheConfiguration listingPages = redisCacheConfiguration.entryTtl(Duration.ofMinutes(listingTtlMinutes));
+        return builder -> builder
+                .withCacheConfiguration(ProductService.PRODUCT_PAGES, listingPages)
+                .withCacheConfiguration(OrderCache.ORDER_PAGES, listingPages)
+                .withCacheConfiguration(OrderCache.USER_ORDER_PAGES, listingPages)
+                .withCacheConfiguration(ListingCache.GENERATIONS, redisCacheConfiguration.entryTtl(Duration.ofDays(1)));
+    }
+
+    /**
+     * Tombstones for missing and deleted products only live briefly, which bounds
+     * how long a product created or restored on another node can read as missing.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer tombstoneTtl(RedisCacheConfiguration redisCacheConfiguration,
+            @Value("${app.cache.tombstones.ttl-seconds:60}") long tombstoneTtlSeconds) {
+        return builder -> builder.withCacheConfiguration(ProductTombstones.TOMBSTONES,
+                redisCacheConfiguration.entryTtl(Duration.ofSeconds(tombstoneTtlSeconds)));
+    }
+
+    /**
+     * JSON with type hints, like the default GenericJackson2JsonRedisSerializer,
+     * plus the java.time module that the cached order responses need.
+     */
+    public static GenericJackson2JsonRedisSerializer redisValueSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(objectMapper, null);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
 }
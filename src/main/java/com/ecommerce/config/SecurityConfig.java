@@ -95,7 +95,7 @@ public class SecurityConfig {
 	    }
 
 	    config.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
-	    config.setAllowedHeaders(List.of("Authorization","Content-Type"));
+	    config.setAllowedHeaders(List.of("Authorization","Content-Type","Idempotency-Key"));
 
 	    UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 	    source.registerCorsConfiguration("/**", config);
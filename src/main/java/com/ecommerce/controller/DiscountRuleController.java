@@ -0,0 +1,63 @@
+package com.ecommerce.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecommerce.dto.DiscountRuleDTO;
+import com.ecommerce.service.DiscountRuleService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/discount-rules")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+@Tag(name = "Discount Rules", description = "Discount rule management endpoints (Admin only)")
+public class DiscountRuleController {
+
+	private final DiscountRuleService discountRuleService;
+
+	@GetMapping
+	@Operation(summary = "Get all discount rules")
+	public ResponseEntity<List<DiscountRuleDTO>> getAllRules() {
+		return ResponseEntity.ok(discountRuleService.getAllRules());
+	}
+
+	@PostMapping
+	@Operation(summary = "Create a discount rule")
+	public ResponseEntity<DiscountRuleDTO> createRule(@Valid @RequestBody DiscountRuleDTO ruleDTO) {
+		DiscountRuleDTO createdRule = discountRuleService.createRule(ruleDTO);
+		return new ResponseEntity<>(createdRule, HttpStatus.CREATED);
+	}
+
+	@PutMapping("/{id}")
+	@Operation(summary = "Update a discount rule")
+	public ResponseEntity<DiscountRuleDTO> updateRule(@PathVariable Long id,
+			@Valid @RequestBody DiscountRuleDTO ruleDTO) {
+		DiscountRuleDTO updatedRule = discountRuleService.updateRule(id, ruleDTO);
+		return ResponseEntity.ok(updatedRule);
+	}
+
+	@DeleteMapping("/{id}")
+	@Operation(summary = "Delete a discount rule")
+	public ResponseEntity<String> deleteRule(@PathVariable Long id) {
+		String msg = discountRuleService.deleteRule(id);
+		return ResponseEntity.ok(msg);
+	}
+}
@@ -12,11 +12,20 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.ecommerce.dto.BatchOrderRequest;
+import com.ecommerce.dto.BatchOrderResponse;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.dto.OrderRequest;
 import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.OrderTicketResponse;
+import com.ecommerce.service.AsyncOrderService;
+import com.ecommerce.service.IdempotencyService;
 import com.ecommerce.service.OrderService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,13 +44,43 @@ public class OrderController {
 	@Autowired
 	private final OrderService orderService;
 
+	private final AsyncOrderService asyncOrderService;
+
+	private final IdempotencyService idempotencyService;
+
 	@PostMapping
 	@Operation(summary = "Place a new order")
-	public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
-		OrderResponse order = orderService.placeOrder(request);
+	public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+		// A retried request with the same key gets the first response back
+		OrderResponse order = idempotencyKey == null ? orderService.placeOrder(request)
+				: idempotencyService.placeOnce(idempotencyKey, request,
+						recordResponse -> orderService.placeOrder(request, recordResponse));
 		return new ResponseEntity<>(order, HttpStatus.CREATED);
 	}
 
+	@PostMapping("/batch")
+	@Operation(summary = "Place several orders at once")
+	public ResponseEntity<BatchOrderResponse> createOrders(@Valid @RequestBody BatchOrderRequest request) {
+		BatchOrderResponse response = orderService.placeOrders(request);
+		return ResponseEntity.ok(response);
+	}
+
+	@PostMapping("/async")
+	@Operation(summary = "Queue a new order and return a ticket to poll")
+	public ResponseEntity<OrderTicketResponse> createOrderAsync(@Valid @RequestBody OrderRequest request) {
+		OrderTicketResponse ticket = asyncOrderService.submit(request);
+		return ResponseEntity.accepted().location(ServletUriComponentsBuilder.fromCurrentContextPath()
+				.path("/api/orders/tickets/{id}").buildAndExpand(ticket.ticketId()).toUri()).body(ticket);
+	}
+
+	@GetMapping("/tickets/{id}")
+	@Operation(summary = "Get the status of a queued order")
+	public ResponseEntity<OrderTicketResponse> getOrderTicket(@PathVariable String id) {
+		OrderTicketResponse ticket = asyncOrderService.getTicket(id);
+		return ResponseEntity.ok(ticket);
+	}
+
 	@GetMapping("/{id}")
 	@Operation(summary = "Get order by ID")
 	public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
@@ -57,6 +96,15 @@ public class OrderController {
 		return ResponseEntity.ok(orders);
 	}
 
+	@GetMapping("/my-orders/cursor")
+	@Operation(summary = "Get current user's orders by cursor, newest first",
+			description = "Pass the nextCursor of a page as 'after' to get the next one. No total count is returned.")
+	public ResponseEntity<CursorPage<OrderResponse>> getMyOrdersByCursor(
+			@RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int size) {
+		CursorPage<OrderResponse> orders = orderService.getMyOrders(after, size);
+		return ResponseEntity.ok(orders);
+	}
+
 	@GetMapping("/all-orders")
 	@PreAuthorize("hasRole('ADMIN')")
 	@Operation(summary = "Get all orders (Admin only)")
@@ -19,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedSearchResponse;
 import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.service.ProductService;
 
@@ -45,6 +47,16 @@ public class ProductController {
 		return ResponseEntity.ok(products);
 	}
 
+	@GetMapping("/cursor")
+	@Operation(summary = "Get products by cursor, sorted by createdAt, price or name",
+			description = "Pass the nextCursor of a page as 'after' to get the next one. No total count is returned.")
+	public ResponseEntity<CursorPage<ProductDTO>> getProductsByCursor(
+			@RequestParam(defaultValue = "createdAt") String sort, @RequestParam(defaultValue = "desc") String direction,
+			@RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int size) {
+		CursorPage<ProductDTO> products = productService.getProducts(sort, direction, after, size);
+		return ResponseEntity.ok(products);
+	}
+
 	@GetMapping("/{id}")
 	@Operation(summary = "Get product by ID")
 	public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
@@ -62,6 +74,18 @@ public class ProductController {
 		return ResponseEntity.ok(products);
 	}
 
+	@GetMapping("/search/faceted")
+	@Operation(summary = "Search products with price bucket and stock counts",
+			description = "Price buckets ignore the price filter and stock counts ignore the availability filter.")
+	public ResponseEntity<FacetedSearchResponse> searchProductsWithFacets(@RequestParam(required = false) String name,
+			@RequestParam(required = false) BigDecimal minPrice, @RequestParam(required = false) BigDecimal maxPrice,
+			@RequestParam(required = false) Boolean available,
+			@PageableDefault(size = 10, sort = "name") Pageable pageable) {
+		FacetedSearchResponse response = productService.searchProductsWithFacets(name, minPrice, maxPrice, available,
+				pageable);
+		return ResponseEntity.ok(response);
+	}
+
 	@PostMapping
 	@PreAuthorize("hasRole('ADMIN')")
 	@Operation(summary = "Create a new product (Admin only)")
@@ -78,6 +102,14 @@ public class ProductController {
 		return ResponseEntity.ok(updatedProduct);
 	}
 
+	@PutMapping("/{id}/restore")
+	@PreAuthorize("hasRole('ADMIN')")
+	@Operation(summary = "Restore a soft-deleted product (Admin only)")
+	public ResponseEntity<ProductDTO> restoreProduct(@PathVariable Long id) {
+		ProductDTO restoredProduct = productService.restoreProduct(id);
+		return ResponseEntity.ok(restoredProduct);
+	}
+
 	@DeleteMapping("/{id}")
 	@PreAuthorize("hasRole('ADMIN')")
 	@Operation(summary = "Delete a product (Admin only)")
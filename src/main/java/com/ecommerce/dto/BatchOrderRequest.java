@@ -0,0 +1,15 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record BatchOrderRequest(
+        @NotEmpty(message = "Batch must contain at least one order")
+        @Size(max = 500, message = "Batch must not contain more than 500 orders")
+        @Valid
+        List<OrderRequest> orders
+) {
+}
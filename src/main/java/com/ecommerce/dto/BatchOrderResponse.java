@@ -0,0 +1,10 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+public record BatchOrderResponse(
+        int succeeded,
+        int failed,
+        List<BatchOrderResult> results
+) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.dto;
+
+public record BatchOrderResult(
+        int index,
+        boolean success,
+        OrderResponse order,
+        String error
+) {
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing. Pass {@code nextCursor} back as the
+ * {@code after} parameter to get the following page; it is null on the last
+ * page.
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+import com.ecommerce.entity.Role;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record DiscountRuleDTO(Long id,
+
+		@NotBlank(message = "Rule name is required") @Size(max = 100, message = "Rule name must not exceed 100 characters") String name,
+
+		Role role,
+
+		@NotNull(message = "Minimum order total is required") @DecimalMin(value = "0.00", message = "Minimum order total cannot be negative") @Digits(integer = 8, fraction = 2, message = "Minimum order total format is invalid") BigDecimal minOrderTotal,
+
+		@NotNull(message = "Rate is required") @DecimalMin(value = "0.0000", message = "Rate cannot be negative") @DecimalMax(value = "1.0000", message = "Rate cannot exceed 1") @Digits(integer = 1, fraction = 4, message = "Rate must have at most 4 decimals") BigDecimal rate,
+
+		Boolean active) {
+}
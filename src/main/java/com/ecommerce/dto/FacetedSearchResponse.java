@@ -0,0 +1,6 @@
+package com.ecommerce.dto;
+
+import org.springframework.data.domain.Page;
+
+public record FacetedSearchResponse(Page<ProductDTO> products, ProductFacets facets) {
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+public record OrderTicketResponse(
+		String ticketId,
+		Status status,
+		OrderResponse order,
+		String error,
+		LocalDateTime submittedAt,
+		LocalDateTime completedAt)
+{
+	public enum Status {
+		QUEUED, PROCESSING, COMPLETED, FAILED
+	}
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facet counts for a product search. Price buckets count the matches of every
+ * filter except the price range, and the stock counts every filter except
+ * availability, so a sidebar can show what each other choice would return.
+ */
+public record ProductFacets(List<PriceBucket> priceBuckets, long inStock, long outOfStock) {
+
+	/**
+	 * Products priced from {@code from} (inclusive) to {@code to} (exclusive);
+	 * {@code to} is null for the last bucket.
+	 */
+	public record PriceBucket(BigDecimal from, BigDecimal to, long count) {
+	}
+}
@@ -0,0 +1,4 @@
+package com.ecommerce.dto;
+
+public record StockLevel(Long productId, Integer quantity) {
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "coupons")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class Coupon {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false, unique = true, length = 20)
+	private String code;
+
+	// Exactly one of rate and amountOff is set
+	@Column(precision = 5, scale = 4)
+	private BigDecimal rate;
+
+	@Column(name = "amount_off")
+	private BigDecimal amountOff;
+
+	@Column(name = "min_order_total", nullable = false)
+	private BigDecimal minOrderTotal;
+
+	// Null means unlimited
+	@Column(name = "max_redemptions")
+	private Integer maxRedemptions;
+
+	@Column(nullable = false)
+	private Integer redemptions;
+
+	@Column(name = "valid_from")
+	private LocalDateTime validFrom;
+
+	@Column(name = "valid_until")
+	private LocalDateTime validUntil;
+
+	@Column(nullable = false)
+	private Boolean active;
+
+	@CreatedDate
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	@LastModifiedDate
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.exception;
+
+import java.util.Set;
+
+/**
+ * Messages that are safe to hand to clients outside an HTTP error response,
+ * e.g. in order tickets and batch results. The application's own business
+ * exceptions carry messages written for clients, as GlobalExceptionHandler
+ * returns them; anything else may carry SQL or internal detail and is reported
+ * generically.
+ */
+public final class ClientErrorMessages {
+
+	public static final String UNEXPECTED = "An unexpected error occurred";
+
+	private static final Set<Class<? extends RuntimeException>> CLIENT_SAFE = Set.of(InsufficientStockException.class,
+			ResourceNotFoundException.class, InvalidCouponException.class, IdempotencyKeyConflictException.class,
+			OrderQueueFullException.class, OrderTimeoutException.class);
+
+	private ClientErrorMessages() {
+	}
+
+	public static String of(Throwable failure) {
+		return failure != null && CLIENT_SAFE.contains(failure.getClass()) ? failure.getMessage() : UNEXPECTED;
+	}
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -45,6 +46,28 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
 	}
 
+	@ExceptionHandler(OrderQueueFullException.class)
+	public ResponseEntity<ErrorResponse> handleOrderQueueFullException(OrderQueueFullException ex,
+			WebRequest request) {
+		log.warn("Order queue full: {}", ex.getMessage());
+
+		ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), HttpStatus.TOO_MANY_REQUESTS.value(),
+				"Too Many Requests", ex.getMessage(), request.getDescription(false).replace("uri=", ""));
+
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())).body(errorResponse);
+	}
+
+	@ExceptionHandler(OrderTimeoutException.class)
+	public ResponseEntity<ErrorResponse> handleOrderTimeoutException(OrderTimeoutException ex, WebRequest request) {
+		log.warn("Order timed out: {}", ex.getMessage());
+
+		ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+				"Service Unavailable", ex.getMessage(), request.getDescription(false).replace("uri=", ""));
+
+		return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
 	@ExceptionHandler(UserAlreadyExistsException.class)
 	public ResponseEntity<ErrorResponse> handleUserAlreadyExistsException(UserAlreadyExistsException ex,
 			WebRequest request) {
@@ -56,6 +79,48 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
 	}
 
+	@ExceptionHandler(IdempotencyKeyConflictException.class)
+	public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex,
+			WebRequest request) {
+		log.error("Idempotency key conflict: {}", ex.getMessage());
+
+		ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), HttpStatus.CONFLICT.value(), "Conflict",
+				ex.getMessage(), request.getDescription(false).replace("uri=", ""));
+
+		return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+	}
+
+	@ExceptionHandler(InvalidIdempotencyKeyException.class)
+	public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex,
+			WebRequest request) {
+		log.error("Invalid idempotency key: {}", ex.getMessage());
+
+		ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(),
+				"Bad Request", ex.getMessage(), request.getDescription(false).replace("uri=", ""));
+
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex, WebRequest request) {
+		log.error("Invalid cursor: {}", ex.getMessage());
+
+		ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(),
+				"Bad Request", ex.getMessage(), request.getDescription(false).replace("uri=", ""));
+
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(InvalidCouponException.class)
+	public ResponseEntity<ErrorResponse> handleInvalidCouponException(InvalidCouponException ex, WebRequest request) {
+		log.error("Invalid coupon: {}", ex.getMessage());
+
+		ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(),
+				"Bad Request", ex.getMessage(), request.getDescription(false).replace("uri=", ""));
+
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+
 	@ExceptionHandler(BadCredentialsException.class)
 	public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex, WebRequest request) {
 		log.error("Bad credentials: {}", ex.getMessage());
@@ -0,0 +1,9 @@
+package com.ecommerce.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public IdempotencyKeyConflictException(String message) {
+		super(message);
+	}
+}
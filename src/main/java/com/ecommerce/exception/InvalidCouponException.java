@@ -0,0 +1,9 @@
+package com.ecommerce.exception;
+
+public class InvalidCouponException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidCouponException(String message) {
+		super(message);
+	}
+}
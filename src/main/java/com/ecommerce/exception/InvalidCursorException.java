@@ -0,0 +1,9 @@
+package com.ecommerce.exception;
+
+public class InvalidCursorException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidCursorException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final long retryAfterSeconds;
+
+	public OrderQueueFullException(long retryAfterSeconds) {
+		super("Order queue is full, retry in " + retryAfterSeconds + " seconds");
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
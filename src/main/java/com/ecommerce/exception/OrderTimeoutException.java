@@ -0,0 +1,13 @@
+package com.ecommerce.exception;
+
+/**
+ * The order was not confirmed in time. It may still be written, so clients
+ * should check their orders or retry with the same Idempotency-Key.
+ */
+public class OrderTimeoutException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public OrderTimeoutException() {
+		super("Order could not be confirmed in time; check your orders before placing it again");
+	}
+}
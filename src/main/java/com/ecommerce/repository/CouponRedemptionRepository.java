@@ -0,0 +1,11 @@
+package com.ecommerce.repository;
+
+import java.util.Map;
+
+public interface CouponRedemptionRepository {
+
+	/**
+	 * Adds the given redemption counts to their coupons in one JDBC batch.
+	 */
+	void addRedemptions(Map<Long, Integer> redemptions);
+}
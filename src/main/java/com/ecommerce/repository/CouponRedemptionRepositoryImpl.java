@@ -0,0 +1,30 @@
+package com.ecommerce.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CouponRedemptionRepositoryImpl implements CouponRedemptionRepository {
+
+	private static final String ADD_REDEMPTIONS_SQL = "UPDATE coupons SET redemptions = redemptions + ?, updated_at = CURRENT_TIMESTAMP "
+			+ "WHERE id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void addRedemptions(Map<Long, Integer> redemptions) {
+		if (redemptions.isEmpty()) {
+			return;
+		}
+		// Update rows in id order so concurrent flushes from several instances cannot deadlock
+		List<Object[]> args = new ArrayList<>(redemptions.size());
+		new TreeMap<>(redemptions).forEach((couponId, count) -> args.add(new Object[] { count, couponId }));
+		jdbcTemplate.batchUpdate(ADD_REDEMPTIONS_SQL, args);
+	}
+}
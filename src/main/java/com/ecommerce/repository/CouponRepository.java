@@ -0,0 +1,12 @@
+package com.ecommerce.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecommerce.entity.Coupon;
+
+public interface CouponRepository extends JpaRepository<Coupon, Long>, CouponRedemptionRepository {
+
+	List<Coupon> findByActiveTrue();
+}
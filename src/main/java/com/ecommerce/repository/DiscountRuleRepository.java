@@ -0,0 +1,12 @@
+package com.ecommerce.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecommerce.entity.DiscountRule;
+
+public interface DiscountRuleRepository extends JpaRepository<DiscountRule, Long> {
+
+	List<DiscountRule> findByActiveTrue();
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.entity.IdempotencyKey;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+	Optional<IdempotencyKey> findByUsernameAndKey(String username, String key);
+
+	/**
+	 * Stores the response of a claimed key. Joins the transaction that places
+	 * the order, so the response is committed if and only if the order is.
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE IdempotencyKey k SET k.responseBody = :responseBody WHERE k.id = :id")
+	int storeResponse(@Param("id") Long id, @Param("responseBody") String responseBody);
+
+	/**
+	 * Deletes a claim that has no response, which means its order was never
+	 * placed. Returns 0 if the order has been placed meanwhile.
+	 */
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.responseBody IS NULL")
+	int deleteUnanswered(@Param("id") Long id);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+	int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
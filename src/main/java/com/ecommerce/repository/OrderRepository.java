@@ -1,8 +1,17 @@
 package com.ecommerce.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
@@ -11,4 +20,40 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 	Page<Order> findByUser(User user, Pageable pageable);
 
 	Page<Order> findByUserId(Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+	/*
+	 * Paged reads run in two phases: a page of ids, sorted and limited in SQL,
+	 * then findWithItemsByIdIn loads those orders with their user, items and
+	 * products in one statement. Fetching the collection in the paged query
+	 * itself would make Hibernate paginate in memory.
+	 */
+
+	@Query("SELECT o.id FROM Order o WHERE o.user.id = :userId")
+	Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+	@Query("SELECT o.id FROM Order o")
+	Page<Long> findAllIds(Pageable pageable);
+
+	/**
+	 * Ids of the user's newest orders, newest first. Pass an unsorted
+	 * {@code Pageable} of the wanted size; no count query is run.
+	 */
+	@Query("SELECT o.id FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC, o.id DESC")
+	Slice<Long> findNewestIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+	/**
+	 * Ids of the user's orders placed before the order at
+	 * {@code (createdAt, id)}, newest first. Seeks on idx_orders_user_created
+	 * instead of skipping rows, so every page costs the same however deep it is.
+	 */
+	@Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.createdAt <= :createdAt "
+			+ "AND (o.createdAt < :createdAt OR o.id < :id) ORDER BY o.createdAt DESC, o.id DESC")
+	Slice<Long> findIdsByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+			@Param("id") Long id, Pageable pageable);
+
+	@EntityGraph(attributePaths = { "user", "items", "items.product" })
+	List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+	@EntityGraph(attributePaths = { "user", "items", "items.product" })
+	Optional<Order> findWithItemsById(Long id);
+}
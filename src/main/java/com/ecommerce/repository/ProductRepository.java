@@ -1,26 +1,85 @@
 package com.ecommerce.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.entity.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository {
 
 	Page<Product> findByDeletedFalse(Pageable pageable);
 
+	/**
+	 * Builds {@link ProductDTO}s straight from the result set, so read paths skip
+	 * managed entities, the audit columns and persistence-context snapshots.
+	 */
+	String SELECT_PRODUCT_DTO = "SELECT new com.ecommerce.dto.ProductDTO(p.id, p.name, p.description, p.price, "
+			+ "p.quantity, p.deleted) FROM Product p ";
+
+	@Query(value = SELECT_PRODUCT_DTO + "WHERE p.deleted = false",
+			countQuery = "SELECT COUNT(p) FROM Product p WHERE p.deleted = false")
+	@Transactional(readOnly = true)
+	Page<ProductDTO> findListedProducts(Pageable pageable);
+
+	/**
+	 * Seeks to {@code position} on the {@code (deleted, sort column, id)} index
+	 * instead of skipping rows, and runs no count query.
+	 */
+	Window<Product> findByDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+
 	Optional<Product> findByIdAndDeletedFalse(Long id);
 
-	@Query("SELECT p FROM Product p WHERE p.deleted = false AND "
-			+ "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND "
-			+ "(:minPrice IS NULL OR p.price >= :minPrice) AND " + "(:maxPrice IS NULL OR p.price <= :maxPrice) AND "
-			+ "(:available IS NULL OR (:available = true AND p.quantity > 0) OR (:available = false))")
-	Page<Product> searchProducts(@Param("name") String name, @Param("minPrice") BigDecimal minPrice,
+	@Query("SELECT p.id FROM Product p WHERE p.deleted = true")
+	List<Long> findDeletedIds();
+
+	/**
+	 * {@code [id, name]} rows of the live products, for building the name index.
+	 */
+	@Query("SELECT p.id, p.name FROM Product p WHERE p.deleted = false")
+	List<Object[]> findActiveNames();
+
+	/**
+	 * Ids of the products with the most units ordered since {@code since}, best
+	 * sellers first.
+	 */
+	@Query("SELECT i.product.id FROM OrderItem i WHERE i.order.createdAt >= :since AND i.product.deleted = false "
+			+ "GROUP BY i.product.id ORDER BY SUM(i.quantity) DESC")
+	List<Long> findTopSellingProductIds(@Param("since") LocalDateTime since, Pageable pageable);
+
+	String PRICE_AND_STOCK_FILTER = "(:minPrice IS NULL OR p.price >= :minPrice) AND "
+			+ "(:maxPrice IS NULL OR p.price <= :maxPrice) AND "
+			+ "(:available IS NULL OR (:available = true AND p.quantity > 0) OR (:available = false))";
+
+	String SEARCH_FILTER = "WHERE p.deleted = false AND "
+			+ "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " + PRICE_AND_STOCK_FILTER;
+
+	@Query(value = SELECT_PRODUCT_DTO + SEARCH_FILTER, countQuery = "SELECT COUNT(p) FROM Product p " + SEARCH_FILTER)
+	Page<ProductDTO> searchProducts(@Param("name") String name, @Param("minPrice") BigDecimal minPrice,
+			@Param("maxPrice") BigDecimal maxPrice, @Param("available") Boolean available, Pageable pageable);
+
+	String ID_SEARCH_FILTER = "WHERE p.id IN :ids AND p.deleted = false AND " + PRICE_AND_STOCK_FILTER;
+
+	/**
+	 * Applies the price and stock filters to products already matched by name,
+	 * looking them up by primary key.
+	 */
+	@Query(value = SELECT_PRODUCT_DTO + ID_SEARCH_FILTER,
+			countQuery = "SELECT COUNT(p) FROM Product p " + ID_SEARCH_FILTER)
+	Page<ProductDTO> searchProductsByIds(@Param("ids") Collection<Long> ids, @Param("minPrice") BigDecimal minPrice,
 			@Param("maxPrice") BigDecimal maxPrice, @Param("available") Boolean available, Pageable pageable);
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ecommerce.dto.StockLevel;
+
+public interface ProductStockRepository {
+
+	List<StockLevel> findStockLevels();
+
+	/**
+	 * Stock of one live product straight from the table, bypassing the
+	 * persistence context; 0 if it is missing or deleted.
+	 */
+	int findStockLevel(Long productId);
+
+	/**
+	 * Decrements stock for every product in one JDBC batch, guarded by
+	 * {@code quantity >= requested AND deleted = false}. Returns the ids whose
+	 * guard did not match; the caller is expected to roll back in that case.
+	 */
+	List<Long> decrementStock(Map<Long, Integer> quantities);
+
+	/**
+	 * Gives back stock taken by {@link #decrementStock(Map)} for an order that
+	 * failed after part of its batch was applied.
+	 */
+	void restoreStock(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecommerce.dto.StockLevel;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+	private static final String DECREMENT_STOCK_SQL = "UPDATE products SET quantity = quantity - ?, updated_at = CURRENT_TIMESTAMP "
+			+ "WHERE id = ? AND quantity >= ? AND deleted = FALSE";
+
+	private static final String RESTORE_STOCK_SQL = "UPDATE products SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP "
+			+ "WHERE id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public List<StockLevel> findStockLevels() {
+		return jdbcTemplate.query("SELECT id, quantity FROM products WHERE deleted = FALSE",
+				(rs, rowNum) -> new StockLevel(rs.getLong("id"), rs.getInt("quantity")));
+	}
+
+	@Override
+	public int findStockLevel(Long productId) {
+		List<Integer> quantities = jdbcTemplate.queryForList(
+				"SELECT quantity FROM products WHERE id = ? AND deleted = FALSE", Integer.class, productId);
+		return quantities.isEmpty() ? 0 : quantities.get(0);
+	}
+
+	@Override
+	public List<Long> decrementStock(Map<Long, Integer> quantities) {
+		if (quantities.isEmpty()) {
+			return List.of();
+		}
+		// Lock rows in id order so concurrent orders over the same products cannot deadlock
+		List<Long> productIds = new ArrayList<>(new TreeMap<>(quantities).keySet());
+		List<Object[]> args = new ArrayList<>(productIds.size());
+		for (Long productId : productIds) {
+			Integer quantity = quantities.get(productId);
+			args.add(new Object[] { quantity, productId, quantity });
+		}
+
+		int[] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, args);
+
+		List<Long> rejected = new ArrayList<>();
+		for (int i = 0; i < updateCounts.length; i++) {
+			if (updateCounts[i] == 0 || updateCounts[i] == Statement.EXECUTE_FAILED) {
+				rejected.add(productIds.get(i));
+			}
+		}
+		return rejected;
+	}
+
+	@Override
+	public void restoreStock(Map<Long, Integer> quantities) {
+		if (quantities.isEmpty()) {
+			return;
+		}
+		List<Object[]> args = new ArrayList<>(quantities.size());
+		new TreeMap<>(quantities).forEach((productId, quantity) -> args.add(new Object[] { quantity, productId }));
+		jdbcTemplate.batchUpdate(RESTORE_STOCK_SQL, args);
+	}
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.search;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Portable search used with H2 and by default. Name matches come from the
+ * in-memory {@link ProductSearchIndex} when it can answer, and the database
+ * only filters those ids by price and stock. Otherwise the name is matched with
+ * LIKE in the database. Results follow the requested sort.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "jpql", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpqlProductSearch implements ProductSearch {
+
+	private final ProductRepository productRepository;
+
+	private final ProductSearchIndex productSearchIndex;
+
+	private final ProductFacetQuery productFacetQuery;
+
+	@Override
+	public Page<ProductDTO> search(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available,
+			Pageable pageable) {
+		List<Long> ids = name == null || name.isBlank() ? null : productSearchIndex.search(name);
+		if (ids == null) {
+			return productRepository.searchProducts(name, minPrice, maxPrice, available, pageable);
+		}
+		if (ids.isEmpty()) {
+			return Page.empty(pageable);
+		}
+		return productRepository.searchProductsByIds(ids, minPrice, maxPrice, available, pageable);
+	}
+
+	@Override
+	public ProductFacets facets(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available) {
+		List<Long> ids = name == null || name.isBlank() ? null : productSearchIndex.search(name);
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder match = new StringBuilder("FROM products p WHERE p.deleted = FALSE");
+		if (ids != null) {
+			if (ids.isEmpty()) {
+				return productFacetQuery.empty();
+			}
+			match.append(" AND p.id IN (:ids)");
+			params.addValue("ids", ids);
+		} else if (name != null) {
+			match.append(" AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+			params.addValue("name", name);
+		}
+		return productFacetQuery.count(match.toString(), params, minPrice, maxPrice, available);
+	}
+}
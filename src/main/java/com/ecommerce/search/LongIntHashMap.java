@@ -0,0 +1,124 @@
+package com.ecommerce.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to int values without boxing. Uses linear
+ * probing and backward-shift deletion, so removals leave no tombstones behind.
+ * {@link Long#MIN_VALUE} marks empty slots and cannot be used as a key. Not
+ * thread-safe.
+ */
+final class LongIntHashMap {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private long[] keys;
+
+	private int[] values;
+
+	private int mask;
+
+	private int size;
+
+	LongIntHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+		allocate(capacity);
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * The value for {@code key}, or {@code missing} if there is none.
+	 */
+	int get(long key, int missing) {
+		for (int slot = slot(key);; slot = (slot + 1) & mask) {
+			long existing = keys[slot];
+			if (existing == key) {
+				return values[slot];
+			}
+			if (existing == EMPTY) {
+				return missing;
+			}
+		}
+	}
+
+	void put(long key, int value) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Key not supported: " + key);
+		}
+		for (int slot = slot(key);; slot = (slot + 1) & mask) {
+			long existing = keys[slot];
+			if (existing == key) {
+				values[slot] = value;
+				return;
+			}
+			if (existing == EMPTY) {
+				keys[slot] = key;
+				values[slot] = value;
+				if (++size > (mask + 1) * 3 / 4) {
+					rehash(keys.length * 2);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes {@code key} and returns its value, or {@code missing} if there was
+	 * none.
+	 */
+	int remove(long key, int missing) {
+		int slot = slot(key);
+		while (keys[slot] != key) {
+			if (keys[slot] == EMPTY) {
+				return missing;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int value = values[slot];
+		// Shift later entries of the probe run back so lookups never stop early
+		int gap = slot;
+		for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+			int home = slot(keys[next]);
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = EMPTY;
+		size--;
+		return value;
+	}
+
+	private int slot(long key) {
+		// MurmurHash3 finalizer; ids are sequential and would cluster otherwise
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+}
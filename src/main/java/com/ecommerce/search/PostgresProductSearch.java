@@ -0,0 +1,110 @@
+package com.ecommerce.search;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * PostgreSQL search over the {@code search_vector} and trigram indexes from
+ * db/vendor/postgresql. A product matches when its name or description matches
+ * the words of {@code name} (web search syntax, English stemming), when its
+ * name contains {@code name}, or when a word of its name is close to it, so
+ * small typos still match. Results are ranked by text rank plus name
+ * similarity; the requested sort only breaks ties. Without a name the
+ * portable filter query is used and the requested sort applies.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresProductSearch implements ProductSearch {
+
+	private static final String MATCH = "FROM products p, websearch_to_tsquery('english', :name) q "
+			+ "WHERE p.deleted = FALSE AND (p.search_vector @@ q OR LOWER(p.name) LIKE :pattern "
+			+ "OR LOWER(:name) <% LOWER(p.name))";
+
+	private static final String SELECT = "SELECT p.id, p.name, p.description, p.price, p.quantity, p.deleted, "
+			+ "ts_rank_cd(p.search_vector, q) + word_similarity(LOWER(:name), LOWER(p.name)) AS relevance ";
+
+	// Sortable properties of the listing; others are ignored rather than spliced into SQL
+	private static final Map<String, String> SORT_COLUMNS = Map.of("id", "p.id", "name", "p.name", "price",
+			"p.price", "quantity", "p.quantity", "createdAt", "p.created_at");
+
+	private static final RowMapper<ProductDTO> PRODUCT_ROW = (rs, rowNum) -> new ProductDTO(rs.getLong("id"),
+			rs.getString("name"), rs.getString("description"), rs.getBigDecimal("price"), rs.getInt("quantity"),
+			rs.getBoolean("deleted"));
+
+	private final ProductRepository productRepository;
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	private final ProductFacetQuery productFacetQuery;
+
+	@Override
+	public Page<ProductDTO> search(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available,
+			Pageable pageable) {
+		if (name == null || name.isBlank()) {
+			return productRepository.searchProducts(null, minPrice, maxPrice, available, pageable);
+		}
+		MapSqlParameterSource params = matchParams(name);
+		StringBuilder where = new StringBuilder(MATCH);
+		if (minPrice != null) {
+			where.append(" AND p.price >= :minPrice");
+			params.addValue("minPrice", minPrice);
+		}
+		if (maxPrice != null) {
+			where.append(" AND p.price <= :maxPrice");
+			params.addValue("maxPrice", maxPrice);
+		}
+		if (Boolean.TRUE.equals(available)) {
+			where.append(" AND p.quantity > 0");
+		}
+
+		StringBuilder query = new StringBuilder(SELECT).append(where).append(" ORDER BY relevance DESC");
+		for (Sort.Order order : pageable.getSort()) {
+			String column = SORT_COLUMNS.get(order.getProperty());
+			if (column != null) {
+				query.append(", ").append(column).append(order.isAscending() ? " ASC" : " DESC");
+			}
+		}
+		query.append(", p.id");
+		if (pageable.isPaged()) {
+			query.append(" LIMIT :limit OFFSET :offset");
+			params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+		}
+
+		List<ProductDTO> content = jdbcTemplate.query(query.toString(), params, PRODUCT_ROW);
+		return PageableExecutionUtils.getPage(content, pageable,
+				() -> jdbcTemplate.queryForObject("SELECT COUNT(*) " + where, params, Long.class));
+	}
+
+	@Override
+	public ProductFacets facets(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available) {
+		if (name == null || name.isBlank()) {
+			return productFacetQuery.count("FROM products p WHERE p.deleted = FALSE", new MapSqlParameterSource(),
+					minPrice, maxPrice, available);
+		}
+		return productFacetQuery.count(MATCH, matchParams(name), minPrice, maxPrice, available);
+	}
+
+	private static MapSqlParameterSource matchParams(String name) {
+		return new MapSqlParameterSource("name", name.trim()).addValue("pattern",
+				"%" + name.trim().toLowerCase(Locale.ROOT) + "%");
+	}
+}
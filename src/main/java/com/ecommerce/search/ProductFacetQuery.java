@@ -0,0 +1,108 @@
+package com.ecommerce.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.dto.ProductFacets.PriceBucket;
+
+/**
+ * Counts every facet of a search in one aggregate query over the matching
+ * products: one conditional SUM per price bucket plus the in-stock and
+ * out-of-stock counts. Each {@link ProductSearch} supplies its own name match
+ * as the FROM and WHERE clauses, aliasing products as {@code p}. The SQL is
+ * plain enough for both H2 and PostgreSQL.
+ */
+@Component
+public class ProductFacetQuery {
+
+	private static final String IN_STOCK = "p.quantity > 0";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	// Lower bounds of the price buckets after the first one, which starts at zero
+	private final List<BigDecimal> priceBounds;
+
+	public ProductFacetQuery(NamedParameterJdbcTemplate jdbcTemplate,
+			@Value("${app.search.facets.price-bounds:25,50,100,250,500}") List<BigDecimal> priceBounds) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.priceBounds = priceBounds.stream().sorted().distinct().toList();
+	}
+
+	/**
+	 * @param match  FROM and WHERE clauses selecting the live products matched by
+	 *               name; must not bind minPrice, maxPrice or boundN
+	 * @param params the parameters of {@code match}; the price parameters are
+	 *               added to it
+	 */
+	public ProductFacets count(String match, MapSqlParameterSource params, BigDecimal minPrice, BigDecimal maxPrice,
+			Boolean available) {
+		List<String> priceRange = new ArrayList<>();
+		if (minPrice != null) {
+			priceRange.add("p.price >= :minPrice");
+			params.addValue("minPrice", minPrice);
+		}
+		if (maxPrice != null) {
+			priceRange.add("p.price <= :maxPrice");
+			params.addValue("maxPrice", maxPrice);
+		}
+
+		StringBuilder query = new StringBuilder("SELECT ");
+		for (int bucket = 0; bucket <= priceBounds.size(); bucket++) {
+			List<String> conditions = new ArrayList<>();
+			if (bucket > 0) {
+				conditions.add("p.price >= :bound" + (bucket - 1));
+			}
+			if (bucket < priceBounds.size()) {
+				conditions.add("p.price < :bound" + bucket);
+				params.addValue("bound" + bucket, priceBounds.get(bucket));
+			}
+			if (Boolean.TRUE.equals(available)) {
+				conditions.add(IN_STOCK);
+			}
+			query.append(countWhere(conditions)).append(" AS bucket").append(bucket).append(", ");
+		}
+		List<String> inStock = new ArrayList<>(priceRange);
+		inStock.add(IN_STOCK);
+		List<String> outOfStock = new ArrayList<>(priceRange);
+		outOfStock.add("p.quantity = 0");
+		query.append(countWhere(inStock)).append(" AS in_stock, ").append(countWhere(outOfStock))
+				.append(" AS out_of_stock ").append(match);
+
+		return jdbcTemplate.queryForObject(query.toString(), params, (rs, rowNum) -> {
+			long[] counts = new long[priceBounds.size() + 1];
+			for (int bucket = 0; bucket < counts.length; bucket++) {
+				// SUM over no rows is NULL, which getLong reads as 0
+				counts[bucket] = rs.getLong("bucket" + bucket);
+			}
+			return new ProductFacets(buckets(counts), rs.getLong("in_stock"), rs.getLong("out_of_stock"));
+		});
+	}
+
+	/**
+	 * Facets of a search known to match nothing.
+	 */
+	public ProductFacets empty() {
+		return new ProductFacets(buckets(new long[priceBounds.size() + 1]), 0, 0);
+	}
+
+	private List<PriceBucket> buckets(long[] counts) {
+		List<PriceBucket> buckets = new ArrayList<>(counts.length);
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+			buckets.add(new PriceBucket(bucket == 0 ? BigDecimal.ZERO : priceBounds.get(bucket - 1),
+					bucket < priceBounds.size() ? priceBounds.get(bucket) : null, counts[bucket]));
+		}
+		return buckets;
+	}
+
+	private static String countWhere(List<String> conditions) {
+		return conditions.isEmpty() ? "COUNT(*)"
+				: "SUM(CASE WHEN " + String.join(" AND ", conditions) + " THEN 1 ELSE 0 END)";
+	}
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.search;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+
+/**
+ * Product search behind {@code ProductService.searchProducts}: live products
+ * matching {@code name}, filtered by price range and, when {@code available} is
+ * true, by stock. Null filters are ignored. The implementation is picked with
+ * {@code app.search.mode}.
+ */
+public interface ProductSearch {
+
+	Page<ProductDTO> search(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available,
+			Pageable pageable);
+
+	/**
+	 * Facet counts over the products {@link #search} matches for the same
+	 * arguments, from one aggregate query.
+	 */
+	ProductFacets facets(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available);
+}
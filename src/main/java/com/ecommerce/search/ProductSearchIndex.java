@@ -0,0 +1,160 @@
+package com.ecommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.repository.ProductRepository;
+
+/**
+ * In-process {@link TrigramIndex} over the names of live products, so name
+ * searches do not need a LIKE scan of the products table.
+ *
+ * The index is built when the application is ready and kept current from
+ * product writes on this instance once they commit. It is rebuilt from the
+ * table at a fixed interval to pick up writes made on other instances; writes
+ * made here while a rebuild runs are replayed onto the new index.
+ *
+ * {@link #search(String)} returns null while the index is not built yet or
+ * when a name matches too many products, and callers then search the database
+ * directly.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private final ProductRepository productRepository;
+
+	private final boolean enabled;
+
+	private final int maxCandidates;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private TrigramIndex index;
+
+	// Writes seen while a rebuild runs, replayed onto the rebuilt index
+	private List<Consumer<TrigramIndex>> missedWrites;
+
+	public ProductSearchIndex(ProductRepository productRepository,
+			@Value("${app.search.index.enabled:true}") boolean enabled,
+			@Value("${app.search.index.max-candidates:2000}") int maxCandidates) {
+		this.productRepository = productRepository;
+		this.enabled = enabled;
+		this.maxCandidates = maxCandidates;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${app.search.index.rebuild-minutes:10}",
+			fixedDelayString = "${app.search.index.rebuild-minutes:10}", timeUnit = TimeUnit.MINUTES)
+	public synchronized void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		long start = System.nanoTime();
+		write(() -> missedWrites = new ArrayList<>());
+		try {
+			List<Object[]> names = productRepository.findActiveNames();
+			TrigramIndex rebuilt = new TrigramIndex(names.size());
+			for (Object[] name : names) {
+				rebuilt.put((Long) name[0], (String) name[1]);
+			}
+			write(() -> {
+				missedWrites.forEach(missed -> missed.accept(rebuilt));
+				index = rebuilt;
+			});
+			log.info("Indexed {} product names in {} ms", names.size(), (System.nanoTime() - start) / 1_000_000);
+		} finally {
+			write(() -> missedWrites = null);
+		}
+	}
+
+	/**
+	 * Ids of the live products whose name contains {@code name}, ignoring case,
+	 * or null if the database has to be searched instead.
+	 */
+	public List<Long> search(String name) {
+		long[] ids;
+		lock.readLock().lock();
+		try {
+			if (index == null) {
+				return null;
+			}
+			ids = index.search(name, maxCandidates);
+		} finally {
+			lock.readLock().unlock();
+		}
+		if (ids == null) {
+			return null;
+		}
+		List<Long> matches = new ArrayList<>(ids.length);
+		for (long id : ids) {
+			matches.add(id);
+		}
+		return matches;
+	}
+
+	/**
+	 * Indexes a created, renamed or restored product once the current
+	 * transaction commits.
+	 */
+	public void indexed(Long id, String name) {
+		afterCommit(indexToUpdate -> indexToUpdate.put(id, name));
+	}
+
+	/**
+	 * Drops a deleted product once the current transaction commits.
+	 */
+	public void removed(Long id) {
+		afterCommit(indexToUpdate -> indexToUpdate.remove(id));
+	}
+
+	private void apply(Consumer<TrigramIndex> update) {
+		write(() -> {
+			if (index != null) {
+				update.accept(index);
+			}
+			if (missedWrites != null) {
+				missedWrites.add(update);
+			}
+		});
+	}
+
+	private void write(Runnable action) {
+		lock.writeLock().lock();
+		try {
+			action.run();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void afterCommit(Consumer<TrigramIndex> update) {
+		if (!enabled) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(update);
+				}
+			});
+		} else {
+			apply(update);
+		}
+	}
+}
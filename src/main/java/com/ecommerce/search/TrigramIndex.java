@@ -0,0 +1,262 @@
+package com.ecommerce.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted trigram index answering case-insensitive substring queries over
+ * short texts such as product names.
+ *
+ * Every indexed text gets an int ordinal; each trigram of the lower-cased text
+ * maps to a posting list of the ordinals containing it. Ordinals are handed out
+ * in increasing order, so posting lists stay sorted by appending. A query of
+ * three or more characters intersects the posting lists of its trigrams,
+ * smallest first, leaping over ordinals missing from any list, and confirms
+ * each candidate against the stored text, since sharing all trigrams does not
+ * guarantee a substring match. Shorter queries scan the stored texts.
+ *
+ * Replacing or removing a text only marks its ordinal dead; posting lists are
+ * compacted once dead ordinals outnumber live ones. Not thread-safe.
+ */
+public class TrigramIndex {
+
+	private static final int[] NO_POSTINGS = new int[0];
+
+	private static final int MIN_COMPACTION = 1024;
+
+	private final Map<Long, Postings> postings = new HashMap<>();
+
+	private final LongIntHashMap ordinalsById;
+
+	private long[] ids;
+
+	// Lower-cased texts by ordinal; null for dead ordinals
+	private String[] texts;
+
+	private int ordinals;
+
+	private int dead;
+
+	public TrigramIndex() {
+		this(1024);
+	}
+
+	public TrigramIndex(int expectedSize) {
+		ordinalsById = new LongIntHashMap(expectedSize);
+		ids = new long[Math.max(16, expectedSize)];
+		texts = new String[ids.length];
+	}
+
+	public int size() {
+		return ordinalsById.size();
+	}
+
+	/**
+	 * Indexes {@code text} under {@code id}, replacing any text indexed for it
+	 * before.
+	 */
+	public void put(long id, String text) {
+		String normalized = normalize(text);
+		int existing = ordinalsById.get(id, -1);
+		if (existing >= 0) {
+			if (texts[existing].equals(normalized)) {
+				return;
+			}
+			kill(existing);
+		}
+		int ordinal = ordinals++;
+		if (ordinal == ids.length) {
+			ids = Arrays.copyOf(ids, ids.length * 2);
+			texts = Arrays.copyOf(texts, ids.length);
+		}
+		ids[ordinal] = id;
+		texts[ordinal] = normalized;
+		ordinalsById.put(id, ordinal);
+		for (int i = 0; i + 3 <= normalized.length(); i++) {
+			postings.computeIfAbsent(trigram(normalized, i), key -> new Postings()).add(ordinal);
+		}
+		compactIfSparse();
+	}
+
+	public void remove(long id) {
+		int ordinal = ordinalsById.remove(id, -1);
+		if (ordinal >= 0) {
+			kill(ordinal);
+			compactIfSparse();
+		}
+	}
+
+	/**
+	 * Ids of the texts containing {@code query}, ignoring case, in the order
+	 * they were indexed. Returns null when more than {@code maxResults} texts
+	 * match, so callers can fall back to another way of searching instead of
+	 * handling huge result sets.
+	 */
+	public long[] search(String query, int maxResults) {
+		String normalized = normalize(query);
+		Matches matches = new Matches(maxResults);
+		if (normalized.length() < 3) {
+			for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+				if (texts[ordinal] != null && texts[ordinal].contains(normalized) && !matches.add(ids[ordinal])) {
+					return null;
+				}
+			}
+			return matches.toArray();
+		}
+
+		Postings[] lists = postingLists(normalized);
+		if (lists.length == 0) {
+			return matches.toArray();
+		}
+		Postings smallest = lists[0];
+		int[] positions = new int[lists.length];
+		int i = 0;
+		candidates: while (i < smallest.size) {
+			int ordinal = smallest.ordinals[i];
+			for (int list = 1; list < lists.length; list++) {
+				positions[list] = lists[list].seek(positions[list], ordinal);
+				if (positions[list] == lists[list].size) {
+					break candidates;
+				}
+				int next = lists[list].ordinals[positions[list]];
+				if (next != ordinal) {
+					// Leap to the first candidate that can still be in this list
+					i = smallest.seek(i + 1, next);
+					continue candidates;
+				}
+			}
+			String text = texts[ordinal];
+			if (text != null && text.contains(normalized) && !matches.add(ids[ordinal])) {
+				return null;
+			}
+			i++;
+		}
+		return matches.toArray();
+	}
+
+	// Posting lists of the query's distinct trigrams, smallest first; empty if one is missing
+	private Postings[] postingLists(String query) {
+		Set<Long> trigrams = new LinkedHashSet<>();
+		for (int i = 0; i + 3 <= query.length(); i++) {
+			trigrams.add(trigram(query, i));
+		}
+		Postings[] lists = new Postings[trigrams.size()];
+		int next = 0;
+		for (Long trigram : trigrams) {
+			Postings list = postings.get(trigram);
+			if (list == null) {
+				return new Postings[0];
+			}
+			lists[next++] = list;
+		}
+		Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+		return lists;
+	}
+
+	private void kill(int ordinal) {
+		texts[ordinal] = null;
+		dead++;
+	}
+
+	private void compactIfSparse() {
+		if (dead < MIN_COMPACTION || dead < ordinals - dead) {
+			return;
+		}
+		long[] liveIds = new long[ordinals - dead];
+		String[] liveTexts = new String[liveIds.length];
+		int live = 0;
+		for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+			if (texts[ordinal] != null) {
+				liveIds[live] = ids[ordinal];
+				liveTexts[live++] = texts[ordinal];
+			}
+		}
+		postings.clear();
+		Arrays.fill(texts, 0, ordinals, null);
+		ordinals = 0;
+		dead = 0;
+		for (int i = 0; i < live; i++) {
+			ordinalsById.remove(liveIds[i], -1);
+			put(liveIds[i], liveTexts[i]);
+		}
+	}
+
+	private static String normalize(String text) {
+		return text == null ? "" : text.toLowerCase(Locale.ROOT);
+	}
+
+	private static long trigram(String text, int start) {
+		return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+	}
+
+	private static final class Matches {
+
+		private final int max;
+
+		private long[] ids = new long[16];
+
+		private int size;
+
+		Matches(int max) {
+			this.max = max;
+		}
+
+		// False once there are more than max matches
+		boolean add(long id) {
+			if (size == max) {
+				return false;
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+			return true;
+		}
+
+		long[] toArray() {
+			return Arrays.copyOf(ids, size);
+		}
+	}
+
+	private static final class Postings {
+
+		private int[] ordinals = NO_POSTINGS;
+
+		private int size;
+
+		/**
+		 * Position of the first ordinal >= {@code ordinal} at or after
+		 * {@code from}, or {@code size} if there is none. Gallops forward, then
+		 * binary searches.
+		 */
+		int seek(int from, int ordinal) {
+			int low = from;
+			int high = from;
+			for (int step = 1; high < size && ordinals[high] < ordinal; step <<= 1) {
+				low = high + 1;
+				high += step;
+			}
+			if (low >= size) {
+				return size;
+			}
+			int position = Arrays.binarySearch(ordinals, low, Math.min(high, size - 1) + 1, ordinal);
+			return position >= 0 ? position : -position - 1;
+		}
+
+		void add(int ordinal) {
+			// A text repeating a trigram adds its ordinal once
+			if (size > 0 && ordinals[size - 1] == ordinal) {
+				return;
+			}
+			if (size == ordinals.length) {
+				ordinals = Arrays.copyOf(ordinals, Math.max(4, size * 2));
+			}
+			ordinals[size++] = ordinal;
+		}
+	}
+}
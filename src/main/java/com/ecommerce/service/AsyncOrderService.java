@@ -0,0 +1,176 @@
+package com.ecommerce.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.OrderTicketResponse;
+import com.ecommerce.dto.OrderTicketResponse.Status;
+import com.ecommerce.exception.ClientErrorMessages;
+import com.ecommerce.exception.OrderQueueFullException;
+import com.ecommerce.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Accepts orders into a bounded in-process queue and places them on a small
+ * worker pool, so a burst waits in memory instead of holding request threads
+ * while they queue for a database connection. A full queue is rejected
+ * immediately and the caller is told when to retry.
+ *
+ * Each submission gets a ticket that its owner polls for the outcome. Finished
+ * tickets are kept for {@code ticket-ttl-minutes} and then dropped.
+ */
+@Service
+public class AsyncOrderService {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncOrderService.class);
+
+	private final OrderService orderService;
+
+	private final ThreadPoolExecutor workers;
+
+	private final long retryAfterSeconds;
+
+	private final Duration ticketTtl;
+
+	private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+	private final Counter rejected;
+
+	public AsyncOrderService(OrderService orderService, MeterRegistry meterRegistry,
+			@Value("${app.orders.async.worker-threads:4}") int workerThreads,
+			@Value("${app.orders.async.queue-capacity:500}") int queueCapacity,
+			@Value("${app.orders.async.retry-after-seconds:5}") long retryAfterSeconds,
+			@Value("${app.orders.async.ticket-ttl-minutes:15}") long ticketTtlMinutes) {
+		this.orderService = orderService;
+		this.retryAfterSeconds = retryAfterSeconds;
+		this.ticketTtl = Duration.ofMinutes(ticketTtlMinutes);
+
+		AtomicInteger threadCount = new AtomicInteger();
+		this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "order-async-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+
+		Gauge.builder("orders.async.queue.size", workers, executor -> executor.getQueue().size())
+				.description("Orders waiting for an async worker").register(meterRegistry);
+		this.rejected = Counter.builder("orders.async.rejected").description("Async orders rejected by a full queue")
+				.register(meterRegistry);
+	}
+
+	public OrderTicketResponse submit(OrderRequest request) {
+		String owner = SecurityContextHolder.getContext().getAuthentication().getName();
+		Ticket ticket = new Ticket(UUID.randomUUID().toString(), owner);
+		tickets.put(ticket.id, ticket);
+
+		try {
+			// The worker places the order as the submitting user
+			workers.execute(new DelegatingSecurityContextRunnable(() -> process(ticket, request)));
+		} catch (RejectedExecutionException ex) {
+			tickets.remove(ticket.id);
+			rejected.increment();
+			throw new OrderQueueFullException(retryAfterSeconds);
+		}
+		log.info("Order queued with ticket: {}", ticket.id);
+		return ticket.toResponse();
+	}
+
+	public OrderTicketResponse getTicket(String ticketId) {
+		Ticket ticket = tickets.get(ticketId);
+
+		// Tickets of other users are reported as missing, as orders are
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (ticket == null || (!ticket.owner.equals(authentication.getName())
+				&& authentication.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("ROLE_ADMIN")))) {
+			throw new ResourceNotFoundException("Order ticket not found: " + ticketId);
+		}
+		return ticket.toResponse();
+	}
+
+	@Scheduled(fixedDelayString = "${app.orders.async.cleanup-interval-ms:60000}")
+	public void evictExpiredTickets() {
+		LocalDateTime cutoff = LocalDateTime.now().minus(ticketTtl);
+		tickets.values().removeIf(ticket -> ticket.completedAt != null && !ticket.completedAt.isAfter(cutoff));
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		workers.shutdown();
+		if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+			log.warn("{} queued orders were not placed before shutdown", workers.getQueue().size());
+		}
+	}
+
+	private void process(Ticket ticket, OrderRequest request) {
+		ticket.status = Status.PROCESSING;
+		Status outcome;
+		try {
+			ticket.order = orderService.placeOrder(request);
+			outcome = Status.COMPLETED;
+		} catch (Throwable ex) {
+			// Any failure, an Error included, must end the ticket; clients only see a safe message
+			String error = ClientErrorMessages.of(ex);
+			if (ClientErrorMessages.UNEXPECTED.equals(error)) {
+				log.error("Queued order {} failed", ticket.id, ex);
+			} else {
+				log.warn("Queued order {} failed: {}", ticket.id, error);
+			}
+			ticket.error = error;
+			outcome = Status.FAILED;
+		}
+		ticket.completedAt = LocalDateTime.now();
+		ticket.status = outcome;
+	}
+
+	private static final class Ticket {
+
+		private final String id;
+
+		private final String owner;
+
+		private final LocalDateTime submittedAt = LocalDateTime.now();
+
+		private volatile Status status = Status.QUEUED;
+
+		private volatile OrderResponse order;
+
+		private volatile String error;
+
+		private volatile LocalDateTime completedAt;
+
+		private Ticket(String id, String owner) {
+			this.id = id;
+			this.owner = owner;
+		}
+
+		private OrderTicketResponse toResponse() {
+			// Status is written last, so the outcome fields are visible once it reports one
+			Status current = status;
+			return new OrderTicketResponse(id, current, order, error, submittedAt, completedAt);
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package com.ecommerce.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Warms the product caches and the JIT after a deploy. Spring Boot only marks
+ * the application ready to accept traffic once every ApplicationRunner has
+ * returned, so the readiness probe reports UP after warm-up has finished.
+ *
+ * Warm-up loads the products with the most units ordered recently and the
+ * first pages of the default product listing into the cache, then calls the
+ * product reads and serializes their responses repeatedly so the hot paths are
+ * compiled before real requests arrive. A failing step is logged and skipped,
+ * and the whole warm-up stops at its time limit; it never fails startup.
+ *
+ * Progress is published as warmup.progress (the fraction of steps done) and
+ * each step's duration as warmup.duration.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class CatalogWarmup implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+	private static final int STEPS = 3;
+
+	// The listing ProductController serves by default
+	private static final int PAGE_SIZE = 10;
+
+	private static final Sort LISTING_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+	private final ProductService productService;
+
+	private final ProductRepository productRepository;
+
+	private final ObjectMapper objectMapper;
+
+	private final MeterRegistry meterRegistry;
+
+	private final int topProducts;
+
+	private final int orderWindowDays;
+
+	private final int listingPages;
+
+	private final int iterations;
+
+	private final Duration maxDuration;
+
+	private final AtomicInteger stepsDone = new AtomicInteger();
+
+	public CatalogWarmup(ProductService productService, ProductRepository productRepository, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry, @Value("${app.warmup.top-products:100}") int topProducts,
+			@Value("${app.warmup.order-window-days:7}") int orderWindowDays,
+			@Value("${app.warmup.listing-pages:3}") int listingPages,
+			@Value("${app.warmup.iterations:2000}") int iterations,
+			@Value("${app.warmup.max-duration-seconds:60}") long maxDurationSeconds) {
+		this.productService = productService;
+		this.productRepository = productRepository;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.topProducts = topProducts;
+		this.orderWindowDays = orderWindowDays;
+		this.listingPages = listingPages;
+		this.iterations = iterations;
+		this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+		Gauge.builder("warmup.progress", stepsDone, done -> (double) done.get() / STEPS)
+				.description("Fraction of the startup warm-up steps completed").register(meterRegistry);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long start = System.nanoTime();
+		long deadline = start + maxDuration.toNanos();
+
+		List<Long> productIds = step("products", () -> preloadProducts(deadline), List.of());
+		int pages = step("listings", () -> preloadListings(deadline), 0);
+		int calls = step("jit", () -> exercise(productIds, deadline), 0);
+
+		long elapsed = System.nanoTime() - start;
+		meterRegistry.timer("warmup.duration", "step", "total").record(elapsed, TimeUnit.NANOSECONDS);
+		log.info("Warm-up loaded {} products and {} listing pages and made {} calls in {} ms", productIds.size(), pages,
+				calls, TimeUnit.NANOSECONDS.toMillis(elapsed));
+	}
+
+	private List<Long> preloadProducts(long deadline) {
+		LocalDateTime since = LocalDateTime.now().minusDays(orderWindowDays);
+		List<Long> loaded = new ArrayList<>();
+		for (Long id : productRepository.findTopSellingProductIds(since, PageRequest.of(0, topProducts))) {
+			if (System.nanoTime() > deadline) {
+				break;
+			}
+			try {
+				productService.getProductById(id);
+				loaded.add(id);
+			} catch (ResourceNotFoundException | InsufficientStockException ex) {
+				// Deleted since the query ran
+			}
+		}
+		return loaded;
+	}
+
+	private int preloadListings(long deadline) {
+		int loaded = 0;
+		while (loaded < listingPages && System.nanoTime() <= deadline) {
+			Page<ProductDTO> page = productService.getAllProducts(listingPage(loaded));
+			loaded++;
+			if (!page.hasNext()) {
+				break;
+			}
+		}
+		return loaded;
+	}
+
+	private int exercise(List<Long> productIds, long deadline) {
+		int calls = 0;
+		for (int i = 0; i < iterations && System.nanoTime() <= deadline; i++) {
+			if (!productIds.isEmpty()) {
+				serialize(productService.getProductById(productIds.get(i % productIds.size())));
+				calls++;
+			}
+			serialize(productService.getAllProducts(listingPage(i % Math.max(1, listingPages))));
+			calls++;
+		}
+		return calls;
+	}
+
+	private <T> T step(String name, Supplier<T> work, T fallback) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		try {
+			return work.get();
+		} catch (RuntimeException ex) {
+			log.warn("Warm-up step {} failed, skipping it", name, ex);
+			return fallback;
+		} finally {
+			sample.stop(meterRegistry.timer("warmup.duration", "step", name));
+			stepsDone.incrementAndGet();
+		}
+	}
+
+	private static Pageable listingPage(int page) {
+		return PageRequest.of(page, PAGE_SIZE, LISTING_SORT);
+	}
+
+	private void serialize(Object response) {
+		try {
+			objectMapper.writeValueAsBytes(response);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize " + response.getClass().getSimpleName(), ex);
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package com.ecommerce.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.entity.Coupon;
+import com.ecommerce.exception.InvalidCouponException;
+import com.ecommerce.repository.CouponRepository;
+import com.ecommerce.util.BloomFilter;
+import com.ecommerce.util.Money;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory index of the active coupons, so that validating and pricing a
+ * coupon never queries the database. Unknown codes are usually rejected by a
+ * Bloom filter before the map lookup. The index is rebuilt from the coupons
+ * table periodically and replaced atomically.
+ *
+ * Redemption limits are enforced with a per-coupon counter of remaining
+ * redemptions that is decremented with a CAS. Redemptions are counted in memory
+ * once their order commits and added to coupons.redemptions in one batch per
+ * flush interval. Limits are
+ * exact on a single instance; with several instances each one only sees the
+ * others' redemptions after they are flushed and the index is reloaded, so a
+ * coupon can be over-redeemed by what the other instances redeem in between.
+ */
+@Service
+@RequiredArgsConstructor
+public class CouponService {
+
+	private static final Logger log = LoggerFactory.getLogger(CouponService.class);
+
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private final CouponRepository couponRepository;
+
+	private final AtomicReference<CouponIndex> index = new AtomicReference<>(CouponIndex.EMPTY);
+
+	// Committed redemptions not yet added to the coupons table, keyed by coupon id
+	private final Map<Long, AtomicInteger> unflushed = new ConcurrentHashMap<>();
+
+	// Redemptions whose transaction has not completed yet, keyed by coupon id
+	private final Map<Long, AtomicInteger> uncommitted = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	@Scheduled(initialDelayString = "${app.coupons.refresh-interval-ms:60000}",
+			fixedDelayString = "${app.coupons.refresh-interval-ms:60000}")
+	public synchronized void reload() {
+		// Flush first so the reloaded counts include this instance's redemptions
+		flush();
+		List<Coupon> coupons = couponRepository.findByActiveTrue();
+		BloomFilter filter = BloomFilter.create(coupons.size(), FALSE_POSITIVE_RATE);
+		Map<String, ActiveCoupon> byCode = new HashMap<>();
+		for (Coupon coupon : coupons) {
+			ActiveCoupon active = new ActiveCoupon(coupon,
+					count(unflushed, coupon.getId()) + count(uncommitted, coupon.getId()));
+			filter.put(active.getCode());
+			byCode.put(active.getCode(), active);
+		}
+		index.set(new CouponIndex(filter, byCode));
+		log.debug("Coupon index loaded with {} active coupons", byCode.size());
+	}
+
+	/**
+	 * Looks up an active coupon without touching the database. Returns null for
+	 * unknown codes; codes are matched ignoring case and surrounding whitespace.
+	 */
+	public ActiveCoupon find(String code) {
+		if (code == null) {
+			return null;
+		}
+		String normalized = normalize(code);
+		CouponIndex current = index.get();
+		if (!current.filter().mightContain(normalized)) {
+			return null;
+		}
+		return current.byCode().get(normalized);
+	}
+
+	/**
+	 * Returns the coupon an order may use, or null when the order has no coupon.
+	 *
+	 * @throws InvalidCouponException if the code is unknown or outside its
+	 *                                validity window
+	 */
+	public ActiveCoupon validate(String code) {
+		if (code == null || code.isBlank()) {
+			return null;
+		}
+		ActiveCoupon coupon = find(code);
+		if (coupon == null) {
+			throw new InvalidCouponException("Unknown coupon code: " + code.trim());
+		}
+		if (!coupon.isValidAt(System.currentTimeMillis())) {
+			throw new InvalidCouponException("Coupon " + coupon.getCode() + " is not valid at this time");
+		}
+		return coupon;
+	}
+
+	/**
+	 * Takes one redemption of the coupon. When called inside a transaction the
+	 * redemption is only counted for the coupons table once that transaction
+	 * commits, and given back if it rolls back.
+	 *
+	 * @throws InvalidCouponException if the coupon has no redemptions left
+	 */
+	public CouponRedemption redeem(ActiveCoupon coupon) {
+		if (coupon.remaining != null && !tryTake(coupon.remaining)) {
+			throw new InvalidCouponException("Coupon " + coupon.getCode() + " has reached its redemption limit");
+		}
+		boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+		CouponRedemption redemption = new CouponRedemption(coupon, inTransaction);
+		if (inTransaction) {
+			adjust(uncommitted, coupon.getId(), 1);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						redemption.count();
+					} else {
+						redemption.release();
+					}
+				}
+			});
+		} else {
+			redemption.count();
+		}
+		return redemption;
+	}
+
+	/**
+	 * Adds the redemptions counted since the last flush to the coupons table in
+	 * one batch. Counts that fail to flush are kept for the next attempt, and so
+	 * are negative counts, which are netted against later redemptions instead.
+	 */
+	@PreDestroy
+	@Scheduled(initialDelayString = "${app.coupons.flush-interval-ms:5000}",
+			fixedDelayString = "${app.coupons.flush-interval-ms:5000}")
+	public synchronized void flush() {
+		Map<Long, Integer> counts = new HashMap<>();
+		unflushed.forEach((couponId, counter) -> {
+			int count = counter.getAndSet(0);
+			if (count > 0) {
+				counts.put(couponId, count);
+			} else if (count < 0) {
+				counter.addAndGet(count);
+			}
+		});
+		if (counts.isEmpty()) {
+			return;
+		}
+		try {
+			couponRepository.addRedemptions(counts);
+			log.debug("Flushed redemptions for {} coupons", counts.size());
+		} catch (RuntimeException ex) {
+			counts.forEach((couponId, count) -> unflushed.get(couponId).addAndGet(count));
+			log.warn("Failed to flush redemptions for {} coupons, will retry", counts.size(), ex);
+		}
+	}
+
+	private static int count(Map<Long, AtomicInteger> counters, Long couponId) {
+		AtomicInteger counter = counters.get(couponId);
+		return counter == null ? 0 : counter.get();
+	}
+
+	private static void adjust(Map<Long, AtomicInteger> counters, Long couponId, int delta) {
+		counters.computeIfAbsent(couponId, id -> new AtomicInteger()).addAndGet(delta);
+	}
+
+	private static boolean tryTake(AtomicInteger remaining) {
+		int current;
+		do {
+			current = remaining.get();
+			if (current <= 0) {
+				return false;
+			}
+		} while (!remaining.compareAndSet(current, current - 1));
+		return true;
+	}
+
+	private static String normalize(String code) {
+		return code.trim().toUpperCase(Locale.ROOT);
+	}
+
+	private record CouponIndex(BloomFilter filter, Map<String, ActiveCoupon> byCode) {
+
+		static final CouponIndex EMPTY = new CouponIndex(BloomFilter.create(0, FALSE_POSITIVE_RATE), Map.of());
+	}
+
+	/**
+	 * Snapshot of one active coupon with its amounts in cents and its validity
+	 * window in epoch milliseconds, so pricing an order with it needs neither
+	 * BigDecimal nor the database.
+	 */
+	public static final class ActiveCoupon {
+
+		private final Long id;
+
+		private final String code;
+
+		private final int rateBasisPoints;
+
+		private final long amountOffCents;
+
+		private final long minOrderTotalCents;
+
+		private final long validFromMillis;
+
+		private final long validUntilMillis;
+
+		// Null for coupons without a redemption limit
+		private final AtomicInteger remaining;
+
+		ActiveCoupon(Coupon coupon, int unflushedRedemptions) {
+			this.id = coupon.getId();
+			this.code = normalize(coupon.getCode());
+			this.rateBasisPoints = coupon.getRate() == null ? 0 : coupon.getRate().movePointRight(4).intValueExact();
+			this.amountOffCents = coupon.getAmountOff() == null ? 0L : Money.toCents(coupon.getAmountOff());
+			this.minOrderTotalCents = coupon.getMinOrderTotal() == null ? 0L : Money.toCents(coupon.getMinOrderTotal());
+			this.validFromMillis = toEpochMillis(coupon.getValidFrom(), Long.MIN_VALUE);
+			this.validUntilMillis = toEpochMillis(coupon.getValidUntil(), Long.MAX_VALUE);
+			this.remaining = coupon.getMaxRedemptions() == null ? null
+					: new AtomicInteger(coupon.getMaxRedemptions() - coupon.getRedemptions() - unflushedRedemptions);
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public long getMinOrderTotalCents() {
+			return minOrderTotalCents;
+		}
+
+		public boolean isValidAt(long epochMillis) {
+			return epochMillis >= validFromMillis && epochMillis < validUntilMillis;
+		}
+
+		/**
+		 * Discount for an order totalling {@code orderTotalCents}: the rate, or the
+		 * fixed amount capped at the order total, and 0 below the minimum total.
+		 */
+		public long discountCents(long orderTotalCents) {
+			if (orderTotalCents < minOrderTotalCents) {
+				return 0L;
+			}
+			if (rateBasisPoints > 0) {
+				return Money.percentOf(orderTotalCents, rateBasisPoints);
+			}
+			return Math.min(amountOffCents, orderTotalCents);
+		}
+
+		private static long toEpochMillis(LocalDateTime dateTime, long unbounded) {
+			return dateTime == null ? unbounded : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		}
+	}
+
+	/**
+	 * Handle for one redemption; releasing it more than once is a no-op, so an
+	 * explicit release and a rollback callback can both fire safely. A
+	 * redemption released before its transaction commits is never counted.
+	 */
+	public final class CouponRedemption {
+
+		private static final int PENDING = 0;
+
+		private static final int COUNTED = 1;
+
+		private static final int RELEASED = 2;
+
+		private final ActiveCoupon coupon;
+
+		// Taken inside a transaction, so counted in uncommitted until it completes
+		private final boolean inTransaction;
+
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+
+		private CouponRedemption(ActiveCoupon coupon, boolean inTransaction) {
+			this.coupon = coupon;
+			this.inTransaction = inTransaction;
+		}
+
+		public void release() {
+			int previous = state.getAndSet(RELEASED);
+			if (previous == RELEASED) {
+				return;
+			}
+			if (coupon.remaining != null) {
+				coupon.remaining.incrementAndGet();
+			}
+			// Only a redemption taken outside a transaction is counted before it can be released
+			adjust(previous == COUNTED ? unflushed : uncommitted, coupon.getId(), -1);
+		}
+
+		private void count() {
+			if (state.compareAndSet(PENDING, COUNTED)) {
+				if (inTransaction) {
+					adjust(uncommitted, coupon.getId(), -1);
+				}
+				adjust(unflushed, coupon.getId(), 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.dto.DiscountRuleDTO;
+import com.ecommerce.entity.DiscountRule;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.DiscountRuleRepository;
+import com.ecommerce.strategy.RuleTableDiscount;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class DiscountRuleService {
+
+	private static final Logger log = LoggerFactory.getLogger(DiscountRuleService.class);
+
+	private final DiscountRuleRepository discountRuleRepository;
+
+	private final RuleTableDiscount ruleTableDiscount;
+
+	@Transactional(readOnly = true)
+	public List<DiscountRuleDTO> getAllRules() {
+		return discountRuleRepository.findAll().stream().map(this::buildRuleResponse).toList();
+	}
+
+	@Transactional
+	public DiscountRuleDTO createRule(DiscountRuleDTO ruleDTO) {
+		log.info("Creating discount rule: {}", ruleDTO.name());
+		DiscountRule rule = DiscountRule.builder().name(ruleDTO.name()).role(ruleDTO.role())
+				.minOrderTotal(ruleDTO.minOrderTotal()).rate(ruleDTO.rate())
+				.active(ruleDTO.active() == null || ruleDTO.active()).build();
+
+		DiscountRule savedRule = discountRuleRepository.save(rule);
+		reloadAfterCommit();
+		return buildRuleResponse(savedRule);
+	}
+
+	@Transactional
+	public DiscountRuleDTO updateRule(Long id, DiscountRuleDTO ruleDTO) {
+		log.info("Updating discount rule with id: {}", id);
+		DiscountRule rule = discountRuleRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Discount rule not found with id: " + id));
+
+		rule.setName(ruleDTO.name());
+		rule.setRole(ruleDTO.role());
+		rule.setMinOrderTotal(ruleDTO.minOrderTotal());
+		rule.setRate(ruleDTO.rate());
+		if (ruleDTO.active() != null) {
+			rule.setActive(ruleDTO.active());
+		}
+
+		DiscountRule savedRule = discountRuleRepository.save(rule);
+		reloadAfterCommit();
+		return buildRuleResponse(savedRule);
+	}
+
+	@Transactional
+	public String deleteRule(Long id) {
+		log.info("Deleting discount rule with id: {}", id);
+		DiscountRule rule = discountRuleRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Discount rule not found with id: " + id));
+
+		discountRuleRepository.delete(rule);
+		reloadAfterCommit();
+		return "Discount rule deleted successfully";
+	}
+
+	private void reloadAfterCommit() {
+		// Recompile from committed rows only, so a rolled back change is never applied
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			ruleTableDiscount.reload();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				ruleTableDiscount.reload();
+			}
+		});
+	}
+
+	private DiscountRuleDTO buildRuleResponse(DiscountRule rule) {
+		return new DiscountRuleDTO(rule.getId(), rule.getName(), rule.getRole(), rule.getMinOrderTotal(),
+				rule.getRate(), rule.getActive());
+	}
+}
@@ -0,0 +1,272 @@
+package com.ecommerce.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.IdempotencyKey;
+import com.ecommerce.exception.IdempotencyKeyConflictException;
+import com.ecommerce.exception.InvalidIdempotencyKeyException;
+import com.ecommerce.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Makes order placement idempotent per user and Idempotency-Key header. A
+ * repeated key returns the response stored for the first request instead of
+ * placing the order again.
+ *
+ * Lookups go through three layers: a bounded LRU of recent responses, the
+ * requests currently in flight on this instance, and the idempotency_keys
+ * table. A concurrent duplicate on the same instance waits for the first
+ * request to finish. The table row is claimed before the order is placed, so a
+ * duplicate arriving at another instance meanwhile is answered with a conflict
+ * instead of placing a second order.
+ *
+ * The response is written to the claimed row in the same transaction as the
+ * order, so a claim without a response always means no order was placed. Such
+ * a claim is released when placing fails, and taken over by a retry once it is
+ * older than the claim timeout, e.g. after the instance holding it died.
+ */
+@Service
+public class IdempotencyService {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+	static final int MAX_KEY_LENGTH = 255;
+
+	private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+	private final ObjectMapper objectMapper;
+
+	private final long retentionHours;
+
+	private final Duration claimTimeout;
+
+	private final Map<ScopedKey, StoredResponse> recent;
+
+	private final Map<ScopedKey, InFlight> inFlight = new ConcurrentHashMap<>();
+
+	public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+			@Value("${app.orders.idempotency.cache-size:10000}") int cacheSize,
+			@Value("${app.orders.idempotency.retention-hours:24}") long retentionHours,
+			@Value("${app.orders.idempotency.claim-timeout-seconds:120}") long claimTimeoutSeconds) {
+		this.idempotencyKeyRepository = idempotencyKeyRepository;
+		this.objectMapper = objectMapper;
+		this.retentionHours = retentionHours;
+		this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+		this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ScopedKey, StoredResponse> eldest) {
+				return size() > cacheSize;
+			}
+		});
+	}
+
+	/**
+	 * Places an order at most once per key. {@code placeOrder} must pass the
+	 * given callback on to {@link OrderService#placeOrder(OrderRequest, Consumer)}
+	 * so the response is stored in the order's own transaction.
+	 */
+	public OrderResponse placeOnce(String key, OrderRequest request,
+			Function<Consumer<OrderResponse>, OrderResponse> placeOrder) {
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new InvalidIdempotencyKeyException(
+					"Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+		}
+		ScopedKey scopedKey = new ScopedKey(SecurityContextHolder.getContext().getAuthentication().getName(), key);
+		String requestHash = hash(request);
+
+		StoredResponse stored = recent.get(scopedKey);
+		if (stored != null) {
+			checkSameRequest(stored.requestHash(), requestHash);
+			log.debug("Replaying order response for idempotency key {}", key);
+			return stored.response();
+		}
+
+		InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+		InFlight first = inFlight.putIfAbsent(scopedKey, mine);
+		if (first != null) {
+			checkSameRequest(first.requestHash(), requestHash);
+			return await(first.result());
+		}
+
+		try {
+			OrderResponse response = execute(scopedKey, requestHash, placeOrder);
+			mine.result().complete(response);
+			return response;
+		} catch (RuntimeException ex) {
+			mine.result().completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(scopedKey, mine);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:3600000}")
+	public void purgeExpiredKeys() {
+		int purged = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+		if (purged > 0) {
+			log.info("Purged {} expired idempotency keys", purged);
+		}
+	}
+
+	private OrderResponse execute(ScopedKey scopedKey, String requestHash,
+			Function<Consumer<OrderResponse>, OrderResponse> placeOrder) {
+		Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByUsernameAndKey(scopedKey.username(),
+				scopedKey.key());
+		if (existing.isPresent()) {
+			IdempotencyKey row = existing.get();
+			if (!isAbandoned(row)) {
+				return replay(scopedKey, row, requestHash);
+			}
+			checkSameRequest(row.getRequestHash(), requestHash);
+			// The request that claimed the key never placed its order, so take the key over
+			log.warn("Taking over abandoned idempotency key {}", scopedKey.key());
+			idempotencyKeyRepository.deleteUnanswered(row.getId());
+		}
+
+		IdempotencyKey claim;
+		try {
+			claim = idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder().username(scopedKey.username())
+					.key(scopedKey.key()).requestHash(requestHash).build());
+		} catch (DataIntegrityViolationException ex) {
+			// Claimed by another instance between our lookup and insert
+			return idempotencyKeyRepository.findByUsernameAndKey(scopedKey.username(), scopedKey.key())
+					.map(row -> replay(scopedKey, row, requestHash))
+					.orElseThrow(() -> new IdempotencyKeyConflictException(
+							"A request with this Idempotency-Key is still being processed"));
+		}
+
+		OrderResponse response;
+		try {
+			response = placeOrder.apply(placed -> storeResponse(claim.getId(), placed));
+		} catch (RuntimeException ex) {
+			return recoverFromFailure(scopedKey, claim, requestHash, ex);
+		}
+		recent.put(scopedKey, new StoredResponse(requestHash, response));
+		return response;
+	}
+
+	// Called inside the order's transaction, so the order only commits together with its response
+	private void storeResponse(Long claimId, OrderResponse response) {
+		if (idempotencyKeyRepository.storeResponse(claimId, toJson(response)) == 0) {
+			throw new IdempotencyKeyConflictException(
+					"A request with this Idempotency-Key was abandoned before the order was placed");
+		}
+	}
+
+	/**
+	 * Releases the key after a failed placement, unless the order committed
+	 * before the failure, in which case its stored response is returned. Once
+	 * the claim is gone no order can commit for it any more, since storing the
+	 * response fails.
+	 */
+	private OrderResponse recoverFromFailure(ScopedKey scopedKey, IdempotencyKey claim, String requestHash,
+			RuntimeException failure) {
+		int released;
+		try {
+			released = idempotencyKeyRepository.deleteUnanswered(claim.getId());
+		} catch (RuntimeException ex) {
+			// The claim stays until it is taken over as abandoned
+			failure.addSuppressed(ex);
+			throw failure;
+		}
+		if (released > 0) {
+			throw failure;
+		}
+		log.warn("Order for idempotency key {} was placed before the request failed", scopedKey.key(), failure);
+		return idempotencyKeyRepository.findByUsernameAndKey(scopedKey.username(), scopedKey.key())
+				.map(row -> replay(scopedKey, row, requestHash)).orElseThrow(() -> failure);
+	}
+
+	private boolean isAbandoned(IdempotencyKey row) {
+		return row.getResponseBody() == null && row.getCreatedAt() != null
+				&& row.getCreatedAt().isBefore(LocalDateTime.now().minus(claimTimeout));
+	}
+
+	private OrderResponse replay(ScopedKey scopedKey, IdempotencyKey row, String requestHash) {
+		checkSameRequest(row.getRequestHash(), requestHash);
+		if (row.getResponseBody() == null) {
+			throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed");
+		}
+		OrderResponse response = fromJson(row.getResponseBody());
+		recent.put(scopedKey, new StoredResponse(requestHash, response));
+		log.debug("Replaying stored order response for idempotency key {}", scopedKey.key());
+		return response;
+	}
+
+	private void checkSameRequest(String expectedHash, String requestHash) {
+		if (!expectedHash.equals(requestHash)) {
+			throw new IdempotencyKeyConflictException("Idempotency-Key was already used with a different request");
+		}
+	}
+
+	private OrderResponse await(CompletableFuture<OrderResponse> result) {
+		try {
+			return result.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private String hash(OrderRequest request) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+		} catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot hash order request", ex);
+		}
+	}
+
+	private String toJson(OrderResponse response) {
+		try {
+			return objectMapper.writeValueAsString(response);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize order response", ex);
+		}
+	}
+
+	private OrderResponse fromJson(String json) {
+		try {
+			return objectMapper.readValue(json, OrderResponse.class);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot deserialize stored order response", ex);
+		}
+	}
+
+	private record ScopedKey(String username, String key) {
+	}
+
+	private record StoredResponse(String requestHash, OrderResponse response) {
+	}
+
+	private record InFlight(String requestHash, CompletableFuture<OrderResponse> result) {
+	}
+}
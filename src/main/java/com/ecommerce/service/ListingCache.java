@@ -0,0 +1,145 @@
+package com.ecommerce.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.cache.SingleFlightCacheLoader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches paged listings under a generation token. A page is stored under its
+ * listing's current generation plus page number, size and sort, and a write
+ * invalidates the whole listing by replacing the generation, which is one cache
+ * put however many pages are cached. Pages of old generations are never read
+ * again and expire with the cache TTL.
+ *
+ * Only the first pages, up to a maximum page size, are cached; deeper pages are
+ * rarely requested twice and would only take up memory.
+ *
+ * A read takes the generation before it queries the database and writes replace
+ * it after they commit, so a page computed before a write is only ever stored
+ * under a generation that is no longer current.
+ *
+ * Pages are loaded through {@link SingleFlightCacheLoader}, so concurrent
+ * misses on a page run one query and hot pages are reloaded before they expire.
+ */
+@Component
+public class ListingCache {
+
+	public static final String GENERATIONS = "listingGenerations";
+
+	private final CacheManager cacheManager;
+
+	private final SingleFlightCacheLoader cacheLoader;
+
+	private final MeterRegistry meterRegistry;
+
+	private final int maxPages;
+
+	private final int maxPageSize;
+
+	private final Duration ttl;
+
+	public ListingCache(CacheManager cacheManager, SingleFlightCacheLoader cacheLoader, MeterRegistry meterRegistry,
+			@Value("${app.cache.listings.max-pages:5}") int maxPages,
+			@Value("${app.cache.listings.max-page-size:100}") int maxPageSize,
+			@Value("${app.cache.listings.ttl-minutes:5}") long ttlMinutes) {
+		this.cacheManager = cacheManager;
+		this.cacheLoader = cacheLoader;
+		this.meterRegistry = meterRegistry;
+		this.maxPages = maxPages;
+		this.maxPageSize = maxPageSize;
+		this.ttl = Duration.ofMinutes(ttlMinutes);
+	}
+
+	/**
+	 * Returns the page from {@code cacheName} under the current generation of
+	 * {@code listing}, loading and storing it on a miss.
+	 */
+	public <T> Page<T> getPage(String cacheName, String listing, Pageable pageable, Supplier<Page<T>> loader) {
+		Cache pages = cacheManager.getCache(cacheName);
+		Cache generations = cacheManager.getCache(GENERATIONS);
+		if (pages == null || generations == null || !isCacheable(pageable)) {
+			return loader.get();
+		}
+
+		String key = listing + ':' + generation(generations, listing) + ':' + pageable.getPageNumber() + ':'
+				+ pageable.getPageSize() + ':' + pageable.getSort();
+		AtomicBoolean loaded = new AtomicBoolean();
+		CachedPage<T> cached = cacheLoader.get(cacheName, key, ttl, () -> {
+			loaded.set(true);
+			Page<T> page = loader.get();
+			return new CachedPage<>(page.getContent(), page.getTotalElements());
+		});
+		count(cacheName, loaded.get() ? "miss" : "hit");
+		return new PageImpl<>(cached.content(), pageable, cached.totalElements());
+	}
+
+	/**
+	 * Invalidates every cached page of {@code listing}. Inside a transaction the
+	 * generation is replaced once the transaction commits.
+	 */
+	public void invalidate(String listing) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					replaceGeneration(listing);
+				}
+			});
+		} else {
+			replaceGeneration(listing);
+		}
+	}
+
+	boolean isCacheable(Pageable pageable) {
+		return pageable.isPaged() && pageable.getPageNumber() < maxPages && pageable.getPageSize() <= maxPageSize;
+	}
+
+	private void replaceGeneration(String listing) {
+		Cache generations = cacheManager.getCache(GENERATIONS);
+		if (generations != null) {
+			generations.put(listing, newGeneration());
+		}
+	}
+
+	private static long generation(Cache generations, String listing) {
+		Long generation = generations.get(listing, Long.class);
+		if (generation == null) {
+			// A generation that expired or was never set is replaced by a fresh one, never reused
+			long fresh = newGeneration();
+			Cache.ValueWrapper existing = generations.putIfAbsent(listing, fresh);
+			generation = existing != null && existing.get() instanceof Long current ? current : fresh;
+		}
+		return generation;
+	}
+
+	private static long newGeneration() {
+		return ThreadLocalRandom.current().nextLong();
+	}
+
+	private void count(String cacheName, String result) {
+		meterRegistry.counter("listings.cache.gets", "cache", cacheName, "result", result).increment();
+	}
+
+	/**
+	 * Page content and total as stored in the cache; PageImpl itself cannot be
+	 * deserialized.
+	 */
+	public record CachedPage<T>(List<T> content, long totalElements) {
+	}
+}
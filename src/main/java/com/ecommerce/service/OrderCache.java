@@ -0,0 +1,93 @@
+package com.ecommerce.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.OrderResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Order caches organised by user. Single orders are cached by id and never
+ * change once placed. Each user's order listing is a {@link ListingCache}
+ * listing of its own, so placing an order invalidates only that user's pages
+ * and the admin listing of all orders. Other users' entries are untouched.
+ */
+@Component
+public class OrderCache {
+
+	static final String ORDERS = "orders";
+
+	public static final String ORDER_PAGES = "orderPages";
+
+	public static final String USER_ORDER_PAGES = "userOrderPages";
+
+	private static final String ALL_ORDERS = "orders";
+
+	private final CacheManager cacheManager;
+
+	private final ListingCache listingCache;
+
+	private final Counter orderHits;
+
+	private final Counter orderMisses;
+
+	public OrderCache(CacheManager cacheManager, ListingCache listingCache, MeterRegistry meterRegistry) {
+		this.cacheManager = cacheManager;
+		this.listingCache = listingCache;
+		this.orderHits = gets(meterRegistry, ORDERS, "hit");
+		this.orderMisses = gets(meterRegistry, ORDERS, "miss");
+	}
+
+	public OrderResponse getOrder(Long id, Supplier<OrderResponse> loader) {
+		Cache cache = cache(ORDERS);
+		OrderResponse cached = cache == null ? null : cache.get(id, OrderResponse.class);
+		if (cached != null) {
+			orderHits.increment();
+			return cached;
+		}
+		orderMisses.increment();
+		OrderResponse order = loader.get();
+		if (cache != null) {
+			cache.put(id, order);
+		}
+		return order;
+	}
+
+	public Page<OrderResponse> getUserOrders(String username, Pageable pageable,
+			Supplier<Page<OrderResponse>> loader) {
+		return listingCache.getPage(USER_ORDER_PAGES, userListing(username), pageable, loader);
+	}
+
+	public Page<OrderResponse> getAllOrders(Pageable pageable, Supplier<Page<OrderResponse>> loader) {
+		return listingCache.getPage(ORDER_PAGES, ALL_ORDERS, pageable, loader);
+	}
+
+	/**
+	 * Invalidates the user's cached listings and the listing of all orders. Call
+	 * after the user's new orders have committed.
+	 */
+	public void invalidateUser(String username) {
+		listingCache.invalidate(userListing(username));
+		listingCache.invalidate(ALL_ORDERS);
+	}
+
+	private static String userListing(String username) {
+		return ALL_ORDERS + ":user:" + username;
+	}
+
+	private Cache cache(String name) {
+		return cacheManager.getCache(name);
+	}
+
+	private static Counter gets(MeterRegistry meterRegistry, String cache, String result) {
+		return Counter.builder("orders.cache.gets").description("Order cache lookups").tag("cache", cache)
+				.tag("result", result).register(meterRegistry);
+	}
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.InvalidCursorException;
+
+/**
+ * Position in a newest-first order listing: the {@code (createdAt, id)} of the
+ * last order on the previous page. Clients see it as an opaque URL-safe token.
+ */
+record OrderCursor(LocalDateTime createdAt, Long id) {
+
+	private static final char SEPARATOR = '|';
+
+	static OrderCursor of(Order order) {
+		return new OrderCursor(order.getCreatedAt(), order.getId());
+	}
+
+	String encode() {
+		String plain = createdAt.toString() + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static OrderCursor decode(String token) {
+		try {
+			String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = plain.indexOf(SEPARATOR);
+			if (separator < 0) {
+				throw new InvalidCursorException("Invalid cursor: " + token);
+			}
+			return new OrderCursor(LocalDateTime.parse(plain.substring(0, separator)),
+					Long.valueOf(plain.substring(separator + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			throw new InvalidCursorException("Invalid cursor: " + token);
+		}
+	}
+}
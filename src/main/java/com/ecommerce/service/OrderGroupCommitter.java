@@ -0,0 +1,213 @@
+package com.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.exception.OrderTimeoutException;
+import com.ecommerce.service.OrderWriter.OrderOutcome;
+import com.ecommerce.service.OrderWriter.PendingOrder;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Coalesces concurrent order placements into group commits. Orders arriving
+ * within {@code linger-ms} of the first one, up to {@code max-batch-size}, are
+ * handed to {@link OrderWriter#writeAll(List)} together so the batch shares a
+ * single transaction and commit. Each caller still gets its own outcome.
+ *
+ * When disabled, {@link #place(PendingOrder)} writes the order directly on the
+ * calling thread. Callers wait at most {@code timeout-ms} for their batch; a
+ * failed batch, including an Error thrown while writing it, fails its orders
+ * and the writer thread carries on with the next one.
+ */
+@Component
+public class OrderGroupCommitter {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+	private final OrderWriter orderWriter;
+
+	private final boolean enabled;
+
+	private final int maxBatchSize;
+
+	private final long lingerNanos;
+
+	private final int writerThreads;
+
+	private final long timeoutMillis;
+
+	private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+
+	private final DistributionSummary batchSize;
+
+	private final DistributionSummary batchFill;
+
+	private final Timer batchWrite;
+
+	private ExecutorService writers;
+
+	private volatile boolean running;
+
+	public OrderGroupCommitter(OrderWriter orderWriter, MeterRegistry meterRegistry,
+			@Value("${app.orders.group-commit.enabled:false}") boolean enabled,
+			@Value("${app.orders.group-commit.max-batch-size:32}") int maxBatchSize,
+			@Value("${app.orders.group-commit.linger-ms:5}") long lingerMs,
+			@Value("${app.orders.group-commit.writer-threads:2}") int writerThreads,
+			@Value("${app.orders.group-commit.timeout-ms:30000}") long timeoutMillis) {
+		this.orderWriter = orderWriter;
+		this.enabled = enabled;
+		this.maxBatchSize = maxBatchSize;
+		this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+		this.writerThreads = writerThreads;
+		this.timeoutMillis = timeoutMillis;
+		this.batchSize = DistributionSummary.builder("orders.group_commit.batch.size")
+				.description("Orders written per group commit").register(meterRegistry);
+		this.batchFill = DistributionSummary.builder("orders.group_commit.batch.fill")
+				.description("Batch size as a fraction of max-batch-size").register(meterRegistry);
+		this.batchWrite = Timer.builder("orders.group_commit.write").description("Time to write one group commit")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "order-group-commit");
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int i = 0; i < writerThreads; i++) {
+			writers.submit(this::drain);
+		}
+		log.info("Order group commit enabled: maxBatchSize={}, lingerMs={}, writerThreads={}", maxBatchSize,
+				TimeUnit.NANOSECONDS.toMillis(lingerNanos), writerThreads);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (writers == null) {
+			return;
+		}
+		running = false;
+		writers.shutdown();
+		writers.awaitTermination(10, TimeUnit.SECONDS);
+
+		// Anything still queued is written by the thread shutting us down
+		List<Submission> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		if (!remaining.isEmpty()) {
+			write(remaining);
+		}
+	}
+
+	public OrderResponse place(PendingOrder pendingOrder) {
+		if (!running) {
+			return orderWriter.write(pendingOrder);
+		}
+		Submission submission = new Submission(pendingOrder, new CompletableFuture<>());
+		queue.add(submission);
+		if (!running && queue.remove(submission)) {
+			// Raced with shutdown after the queue was drained
+			return orderWriter.write(pendingOrder);
+		}
+		try {
+			return submission.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException("Group commit failed", ex.getCause());
+		} catch (TimeoutException ex) {
+			if (queue.remove(submission)) {
+				log.warn("Order was not picked up by a group commit within {} ms", timeoutMillis);
+			} else {
+				log.warn("Group commit did not finish within {} ms; the order may still be written", timeoutMillis);
+			}
+			throw new OrderTimeoutException();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new OrderTimeoutException();
+		}
+	}
+
+	private void drain() {
+		List<Submission> batch = new ArrayList<>(maxBatchSize);
+		while (running) {
+			try {
+				Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + lingerNanos;
+				while (batch.size() < maxBatchSize) {
+					Submission next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				write(batch);
+			} catch (InterruptedException ex) {
+				queue.addAll(batch);
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Throwable ex) {
+				// Never let the writer thread die while callers are queued behind it
+				log.error("Group commit writer failed on a batch of {} orders", batch.size(), ex);
+				batch.forEach(submission -> submission.result().completeExceptionally(ex));
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<Submission> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		batchSize.record(batch.size());
+		batchFill.record((double) batch.size() / maxBatchSize);
+
+		List<PendingOrder> pendingOrders = batch.stream().map(Submission::order).toList();
+		try {
+			List<OrderOutcome> outcomes = batchWrite.record(() -> orderWriter.writeAll(pendingOrders));
+			for (int i = 0; i < batch.size(); i++) {
+				OrderOutcome outcome = outcomes.get(i);
+				if (outcome.succeeded()) {
+					batch.get(i).result().complete(outcome.order());
+				} else {
+					batch.get(i).result().completeExceptionally(outcome.failure());
+				}
+			}
+		} catch (Throwable ex) {
+			log.error("Group commit of {} orders failed", batch.size(), ex);
+			batch.forEach(submission -> submission.result().completeExceptionally(ex));
+		}
+	}
+
+	private record Submission(PendingOrder order, CompletableFuture<OrderResponse> result) {
+	}
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.service;
+
+import java.util.List;
+
+import com.ecommerce.dto.OrderItemDTO;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderStatus;
+
+final class OrderMapper {
+
+	private OrderMapper() {
+	}
+
+	static OrderResponse toResponse(Order order) {
+		List<OrderItemDTO> itemDTOs = order.getItems().stream()
+				.map(item -> new OrderItemDTO(item.getId(), item.getProduct().getId(), item.getProduct().getName(),
+						item.getQuantity(), item.getUnitPrice(), item.getDiscountApplied(), item.getTotalPrice()))
+				.toList();
+
+		return new OrderResponse(order.getId(), order.getUser().getId(), order.getUser().getUsername(), itemDTOs,
+				order.getOrderTotal(), order.getDiscountApplied(), OrderStatus.PENDING, order.getCreatedAt(),
+				order.getUpdatedAt());
+	}
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.strategy.DiscountCalculator;
+import com.ecommerce.util.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Prices an order in long cents. Line totals, the order discount and its
+ * per-line split are plain long arithmetic over the product index built once
+ * per batch, so pricing allocates a handful of arrays per order instead of
+ * several BigDecimals per line. Rounding matches the BigDecimal code it
+ * replaces: HALF_UP to cents at each discount and at each line's share of it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderPricer {
+
+	private final DiscountCalculator discountCalculator;
+
+	public PricedOrder price(List<OrderItemRequest> items, Map<Long, Product> products, String couponCode,
+			Role customerType) {
+		int lines = items.size();
+		long[] lineTotalCents = new long[lines];
+		long subtotalCents = 0L;
+		for (int i = 0; i < lines; i++) {
+			OrderItemRequest item = items.get(i);
+			long unitCents = Money.toCents(products.get(item.productId()).getPrice());
+			lineTotalCents[i] = Math.multiplyExact(unitCents, (long) item.quantity());
+			subtotalCents = Math.addExact(subtotalCents, lineTotalCents[i]);
+		}
+
+		long discountCents = discountCalculator.totalDiscountCents(subtotalCents, couponCode, customerType);
+		long[] lineDiscountCents = new long[lines];
+		if (discountCents > 0) {
+			for (int i = 0; i < lines; i++) {
+				lineDiscountCents[i] = Money.share(discountCents, lineTotalCents[i], subtotalCents);
+			}
+		}
+		return new PricedOrder(lineTotalCents, lineDiscountCents, subtotalCents, discountCents);
+	}
+
+	/**
+	 * Amounts in cents, with line arrays indexed like the request's items. As
+	 * before, line discounts are rounded independently and need not add up to
+	 * the order discount exactly.
+	 */
+	public record PricedOrder(long[] lineTotalCents, long[] lineDiscountCents, long subtotalCents,
+			long discountCents) {
+
+		public long totalCents() {
+			return subtotalCents - discountCents;
+		}
+	}
+}
@@ -1,38 +1,36 @@
 package com.ecommerce.service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.ecommerce.dto.DiscountRequest;
-import com.ecommerce.dto.OrderItemDTO;
-import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.BatchOrderRequest;
+import com.ecommerce.dto.BatchOrderResponse;
+import com.ecommerce.dto.BatchOrderResult;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.dto.OrderRequest;
 import com.ecommerce.dto.OrderResponse;
 import com.ecommerce.entity.Order;
-import com.ecommerce.entity.OrderItem;
-import com.ecommerce.entity.OrderStatus;
-import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
-import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.ClientErrorMessages;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.repository.OrderRepository;
-import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
-import com.ecommerce.strategy.DiscountCalculator;
+import com.ecommerce.service.OrderWriter.OrderOutcome;
+import com.ecommerce.service.OrderWriter.PendingOrder;
 
 import lombok.RequiredArgsConstructor;
 
@@ -41,16 +39,31 @@ import lombok.RequiredArgsConstructor;
 public class OrderService {
 
 	private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+	// Orders written per transaction, in line with hibernate.jdbc.batch_size
+	private static final int BATCH_CHUNK_SIZE = 50;
+
+	static final int MAX_CURSOR_PAGE_SIZE = 100;
+
 	private final OrderRepository orderRepository;
 
-	private final ProductRepository productRepository;
 	private final UserRepository userRepository;
 
-	private final DiscountCalculator discountCalculator;
+	private final OrderGroupCommitter orderGroupCommitter;
+
+	private final OrderWriter orderWriter;
+
+	private final OrderCache orderCache;
 
-	@Transactional
-	@CacheEvict(value = "orders", allEntries = true)
 	public OrderResponse placeOrder(OrderRequest request) {
+		return placeOrder(request, null);
+	}
+
+	/**
+	 * Places an order and calls {@code onPlaced} with it inside the transaction
+	 * that writes it.
+	 */
+	public OrderResponse placeOrder(OrderRequest request, Consumer<OrderResponse> onPlaced) {
 		log.info("Creating new order");
 
 		// Get current authenticated user
@@ -60,85 +73,64 @@ public class OrderService {
 		User user = userRepository.findByUsername(username)
 				.orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
-		// Validate stock availability for all items
-		// validateStock(request);
-
-		Order order = Order.builder().user(user).status(OrderStatus.PENDING).items(new ArrayList<>()).build();
-
-		BigDecimal subtotal = BigDecimal.ZERO;
-
-		List<Long> productIds = request.items().stream().map(OrderItemRequest::productId).toList();
-
-		List<Product> products = productRepository.findAllById(productIds);
-
-		checkProductAvailability(products, request.items());
-		// Process each order item
-		for (var itemRequest : request.items()) {
-
-			Product product = products.stream().filter(p -> p.getId().equals(itemRequest.productId())).findFirst()
-					.get();
-			BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.quantity()));
-			subtotal = subtotal.add(itemTotal);
-
-			OrderItem orderItem = OrderItem.builder().product(product).quantity(itemRequest.quantity())
-					.unitPrice(product.getPrice()).discountApplied(BigDecimal.ZERO).totalPrice(itemTotal).build();
-
-			order.addItem(orderItem);
-			order.setCouponCode(request.couponCode());
-
-			// Decrease product stock
-			product.setQuantity(product.getQuantity() - itemRequest.quantity());
-			productRepository.save(product);
-		}
-		log.info("Initial Order Total = " + subtotal);
-		BigDecimal totalDiscount = discountCalculator
-				.totalDiscount(new DiscountRequest(subtotal, null, null, order.getCouponCode(), user.getRole()));
-		log.info("totalDiscount = " + totalDiscount);
-		BigDecimal orderTotal = subtotal.subtract(totalDiscount);
-
-		System.out.println("orderTotal  = " + orderTotal);
+		// Written on its own or coalesced with concurrent orders into one commit
+		OrderResponse order = orderGroupCommitter.place(new PendingOrder(user, request, onPlaced));
+		orderCache.invalidateUser(username);
+		return order;
+	}
 
-		if (totalDiscount.compareTo(BigDecimal.ZERO) > 0) {
-			for (OrderItem item : order.getItems()) {
+	public BatchOrderResponse placeOrders(BatchOrderRequest request) {
+		log.info("Creating batch of {} orders", request.orders().size());
 
-				log.info("Order Product id = " + item.getProduct().getId() + " totalDiscount  = " + totalDiscount);
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		String username = authentication.getName();
 
-				BigDecimal itemDiscount = totalDiscount.multiply(item.getTotalPrice()).divide(subtotal, 2,
-						RoundingMode.HALF_UP);
+		User user = userRepository.findByUsername(username)
+				.orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
-				log.info("Item Total Amount = " + item.getTotalPrice() + "itemDiscount  = " + itemDiscount);
+		List<PendingOrder> pendingOrders = request.orders().stream().map(order -> new PendingOrder(user, order))
+				.toList();
 
-				item.setDiscountApplied(itemDiscount);
-				item.setTotalPrice(item.getTotalPrice().subtract(itemDiscount));
+		// Each chunk loads its products once and inserts its orders in JDBC batches
+		List<BatchOrderResult> results = new ArrayList<>(pendingOrders.size());
+		int succeeded = 0;
+		for (int from = 0; from < pendingOrders.size(); from += BATCH_CHUNK_SIZE) {
+			List<PendingOrder> chunk = pendingOrders.subList(from,
+					Math.min(from + BATCH_CHUNK_SIZE, pendingOrders.size()));
+			List<OrderOutcome> outcomes = orderWriter.writeAll(chunk);
+			for (int i = 0; i < outcomes.size(); i++) {
+				OrderOutcome outcome = outcomes.get(i);
+				if (outcome.succeeded()) {
+					succeeded++;
+					results.add(new BatchOrderResult(from + i, true, outcome.order(), null));
+				} else {
+					results.add(new BatchOrderResult(from + i, false, null, ClientErrorMessages.of(outcome.failure())));
+				}
 			}
 		}
-		order.setDiscountApplied(totalDiscount);
-		log.info("Final Order Total  = " + orderTotal);
-		order.setOrderTotal(orderTotal);
-
-		Order savedOrder = orderRepository.save(order);
-		log.info("Order created successfully with id: {}", savedOrder.getId());
-
-		return buildOrderResponse(savedOrder);
+		if (succeeded > 0) {
+			orderCache.invalidateUser(username);
+		}
+		log.info("Batch placed: {} succeeded, {} failed", succeeded, results.size() - succeeded);
+		return new BatchOrderResponse(succeeded, results.size() - succeeded, results);
 	}
 
 	@Transactional(readOnly = true)
-	@Cacheable(value = "orders", key = "#id")
 	public OrderResponse getOrderById(Long id) {
 		log.debug("Fetching order with id: {}", id);
-		Order order = orderRepository.findById(id)
-				.orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+		OrderResponse order = orderCache.getOrder(id, () -> orderRepository.findWithItemsById(id).map(OrderMapper::toResponse)
+				.orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id)));
 
-		// Check if user has permission to view this order
+		// Checked on every read, cached or not
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		String username = authentication.getName();
 
-		if (!order.getUser().getUsername().equals(username)
+		if (!order.username().equals(username)
 				&& !authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
 			throw new ResourceNotFoundException("Order not found with id: " + id);
 		}
 
-		return buildOrderResponse(order);
+		return order;
 	}
 
 	@Transactional(readOnly = true)
@@ -147,58 +139,61 @@ public class OrderService {
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		String username = authentication.getName();
 
+		return orderCache.getUserOrders(username, pageable, () -> {
+			User user = userRepository.findByUsername(username)
+					.orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+			return toResponses(orderRepository.findIdsByUserId(user.getId(), pageable));
+		});
+	}
+
+	/**
+	 * The current user's orders, newest first, after the position in
+	 * {@code after} (or from the newest order when it is null). Seeks on
+	 * {@code (createdAt, id)} and runs no count query, so deep pages cost the
+	 * same as the first one.
+	 */
+	@Transactional(readOnly = true)
+	public CursorPage<OrderResponse> getMyOrders(String after, int size) {
+		log.debug("Fetching orders for current user after cursor {}", after);
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		String username = authentication.getName();
+
+		OrderCursor cursor = after == null || after.isEmpty() ? null : OrderCursor.decode(after);
+		Pageable pageable = Pageable.ofSize(Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE));
 		User user = userRepository.findByUsername(username)
 				.orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+		Slice<Long> ids = cursor == null ? orderRepository.findNewestIdsByUserId(user.getId(), pageable)
+				: orderRepository.findIdsByUserIdBefore(user.getId(), cursor.createdAt(), cursor.id(), pageable);
 
-		return orderRepository.findByUser(user, pageable).map(this::buildOrderResponse);
+		List<Order> orders = loadOrders(ids.getContent());
+		String nextCursor = ids.hasNext() ? OrderCursor.of(orders.get(orders.size() - 1)).encode() : null;
+		return new CursorPage<>(orders.stream().map(OrderMapper::toResponse).toList(), pageable.getPageSize(),
+				ids.hasNext(), nextCursor);
 	}
 
 	@Transactional(readOnly = true)
-	@Cacheable(value = "orders", key = "'all'")
 	public Page<OrderResponse> getAllOrders(Pageable pageable) {
 		log.debug("Fetching all orders");
-		return orderRepository.findAll(pageable).map(this::buildOrderResponse);
+		return orderCache.getAllOrders(pageable, () -> toResponses(orderRepository.findAllIds(pageable)));
 	}
 
-	private void checkProductAvailability(List<Product> products, List<OrderItemRequest> orderItems) {
-		for (OrderItemRequest item : orderItems) {
-			Product product = products.stream().filter(p -> p.getId().equals(item.productId())).findFirst()
-					.orElseThrow(() -> new InsufficientStockException("Product not found: " + item.productId()));
-
-			if (product.getDeleted()) {
-				throw new InsufficientStockException(product.getId(), item.quantity(), product.getQuantity());
-			}
-
-			if (product.getQuantity() < item.quantity() && product.getDeleted()) {
-				throw new InsufficientStockException(product.getId(), item.quantity(), product.getQuantity());
-			}
-		}
+	private Page<OrderResponse> toResponses(Page<Long> ids) {
+		List<OrderResponse> orders = loadOrders(ids.getContent()).stream().map(OrderMapper::toResponse).toList();
+		return new PageImpl<>(orders, ids.getPageable(), ids.getTotalElements());
 	}
 
-	private void validateStock(OrderRequest request) {
-		for (var itemRequest : request.items()) {
-			Product product = productRepository.findById(itemRequest.productId()).orElseThrow(
-					() -> new InsufficientStockException("Product not found with id: " + itemRequest.productId()));
-
-			if (product.getDeleted()) {
-				throw new InsufficientStockException("Product not found with id: " + itemRequest.productId());
-			}
-
-			if (product.getQuantity() < itemRequest.quantity()) {
-				throw new InsufficientStockException("Insufficient stock for product: " + product.getName()
-						+ ". Available: " + product.getQuantity() + ", Requested: " + itemRequest.quantity());
-			}
+	/**
+	 * Loads the orders with their users, items and products in one query and
+	 * returns them in the order of {@code ids}.
+	 */
+	private List<Order> loadOrders(List<Long> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
 		}
+		Map<Long, Order> orders = new HashMap<>();
+		for (Order order : orderRepository.findWithItemsByIdIn(ids)) {
+			orders.put(order.getId(), order);
+		}
+		return ids.stream().map(orders::get).toList();
 	}
-
-	private OrderResponse buildOrderResponse(Order order) {
-		List<OrderItemDTO> itemDTOs = order.getItems().stream()
-				.map(item -> new OrderItemDTO(item.getId(), item.getProduct().getId(), item.getProduct().getName(),
-						item.getQuantity(), item.getUnitPrice(), item.getDiscountApplied(), item.getTotalPrice()))
-				.toList();
-
-		return new OrderResponse(order.getId(), order.getUser().getId(), order.getUser().getUsername(), itemDTOs,
-				order.getOrderTotal(), order.getDiscountApplied(), OrderStatus.PENDING, order.getCreatedAt(),
-				order.getUpdatedAt());
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,255 @@
+package com.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidCouponException;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CouponService.ActiveCoupon;
+import com.ecommerce.service.CouponService.CouponRedemption;
+import com.ecommerce.service.OrderPricer.PricedOrder;
+import com.ecommerce.service.StockReservationEngine.StockReservation;
+import com.ecommerce.util.Money;
+
+/**
+ * Prices and persists orders. Several orders can be written in one transaction:
+ * products are loaded with a single query, each order's stock is taken with one
+ * guarded batch, and an order that fails validation or its stock guard is
+ * compensated and reported on its own without rolling back the others.
+ */
+@Component
+public class OrderWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderWriter.class);
+
+	private final OrderRepository orderRepository;
+
+	private final ProductRepository productRepository;
+
+	private final OrderPricer orderPricer;
+
+	private final StockReservationEngine stockReservationEngine;
+
+	private final CouponService couponService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public OrderWriter(OrderRepository orderRepository, ProductRepository productRepository,
+			OrderPricer orderPricer, StockReservationEngine stockReservationEngine, CouponService couponService,
+			PlatformTransactionManager transactionManager) {
+		this.orderRepository = orderRepository;
+		this.productRepository = productRepository;
+		this.orderPricer = orderPricer;
+		this.stockReservationEngine = stockReservationEngine;
+		this.couponService = couponService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	public OrderResponse write(PendingOrder pendingOrder) {
+		return writeAll(List.of(pendingOrder)).get(0).getOrThrow();
+	}
+
+	/**
+	 * Writes all orders in a single transaction. If that transaction fails as a
+	 * whole, each order is retried in a transaction of its own so that one bad
+	 * order only fails itself.
+	 */
+	public List<OrderOutcome> writeAll(List<PendingOrder> pendingOrders) {
+		try {
+			return transactionTemplate.execute(status -> persist(pendingOrders));
+		} catch (RuntimeException ex) {
+			if (pendingOrders.size() == 1) {
+				return List.of(OrderOutcome.failed(ex));
+			}
+			log.warn("Batch of {} orders failed, retrying individually", pendingOrders.size(), ex);
+			List<OrderOutcome> outcomes = new ArrayList<>(pendingOrders.size());
+			for (PendingOrder pendingOrder : pendingOrders) {
+				outcomes.addAll(writeAll(List.of(pendingOrder)));
+			}
+			return outcomes;
+		}
+	}
+
+	private List<OrderOutcome> persist(List<PendingOrder> pendingOrders) {
+		Set<Long> productIds = new LinkedHashSet<>();
+		for (PendingOrder pendingOrder : pendingOrders) {
+			for (OrderItemRequest item : pendingOrder.request().items()) {
+				productIds.add(item.productId());
+			}
+		}
+		Map<Long, Product> products = new HashMap<>();
+		for (Product product : productRepository.findAllById(productIds)) {
+			products.put(product.getId(), product);
+		}
+
+		List<OrderOutcome> outcomes = new ArrayList<>(pendingOrders.size());
+		List<Order> orders = new ArrayList<>(pendingOrders.size());
+		for (PendingOrder pendingOrder : pendingOrders) {
+			try {
+				Order order = buildOrder(pendingOrder, products);
+				orders.add(order);
+				outcomes.add(null);
+			} catch (RuntimeException ex) {
+				outcomes.add(OrderOutcome.failed(ex));
+			}
+		}
+
+		List<Order> savedOrders = orderRepository.saveAll(orders);
+		int next = 0;
+		for (int i = 0; i < outcomes.size(); i++) {
+			if (outcomes.get(i) == null) {
+				Order savedOrder = savedOrders.get(next++);
+				log.info("Order created successfully with id: {}", savedOrder.getId());
+				OrderResponse response = OrderMapper.toResponse(savedOrder);
+				Consumer<OrderResponse> onPlaced = pendingOrders.get(i).onPlaced();
+				if (onPlaced != null) {
+					// A failure here rolls back the whole batch; writeAll then retries each order alone
+					onPlaced.accept(response);
+				}
+				outcomes.set(i, OrderOutcome.placed(response));
+			}
+		}
+		return outcomes;
+	}
+
+	private Order buildOrder(PendingOrder pendingOrder, Map<Long, Product> products) {
+		OrderRequest request = pendingOrder.request();
+		User user = pendingOrder.user();
+
+		checkProductAvailability(products, request.items());
+		ActiveCoupon coupon = couponService.validate(request.couponCode());
+		String couponCode = coupon == null ? null : coupon.getCode();
+
+		Order order = Order.builder().user(user).status(OrderStatus.PENDING).couponCode(couponCode)
+				.items(new ArrayList<>(request.items().size())).build();
+
+		PricedOrder priced = orderPricer.price(request.items(), products, couponCode, user.getRole());
+		if (coupon != null && priced.subtotalCents() < coupon.getMinOrderTotalCents()) {
+			throw new InvalidCouponException("Coupon " + couponCode + " requires an order total of at least "
+					+ Money.fromCents(coupon.getMinOrderTotalCents()));
+		}
+		for (int i = 0; i < request.items().size(); i++) {
+			OrderItemRequest itemRequest = request.items().get(i);
+			Product product = products.get(itemRequest.productId());
+			long lineDiscountCents = priced.lineDiscountCents()[i];
+
+			OrderItem orderItem = OrderItem.builder().product(product).quantity(itemRequest.quantity())
+					.unitPrice(product.getPrice())
+					.discountApplied(lineDiscountCents == 0 ? BigDecimal.ZERO : Money.fromCents(lineDiscountCents))
+					.totalPrice(Money.fromCents(priced.lineTotalCents()[i] - lineDiscountCents)).build();
+			order.addItem(orderItem);
+		}
+		order.setDiscountApplied(Money.fromCents(priced.discountCents()));
+		order.setOrderTotal(Money.fromCents(priced.totalCents()));
+		log.debug("Final Order Total = {}, discount = {}", order.getOrderTotal(), order.getDiscountApplied());
+
+		// Last steps, so nothing can fail for this order once its coupon and stock are taken
+		CouponRedemption redemption = coupon == null ? null : couponService.redeem(coupon);
+		try {
+			takeStock(requestedQuantities(request.items()));
+		} catch (RuntimeException ex) {
+			if (redemption != null) {
+				redemption.release();
+			}
+			throw ex;
+		}
+		return order;
+	}
+
+	private void takeStock(Map<Long, Integer> quantities) {
+		// Reject unsatisfiable orders in memory, then decrement all rows in one guarded batch
+		StockReservation reservation = stockReservationEngine.reserve(quantities);
+		List<Long> rejectedProductIds = productRepository.decrementStock(quantities);
+		if (!rejectedProductIds.isEmpty()) {
+			Map<Long, Integer> applied = new HashMap<>(quantities);
+			rejectedProductIds.forEach(applied::remove);
+			productRepository.restoreStock(applied);
+			reservation.release();
+			throw new InsufficientStockException("Insufficient stock for products: " + rejectedProductIds);
+		}
+	}
+
+	private void checkProductAvailability(Map<Long, Product> products, List<OrderItemRequest> orderItems) {
+		for (OrderItemRequest item : orderItems) {
+			Product product = products.get(item.productId());
+			if (product == null) {
+				throw new InsufficientStockException("Product not found: " + item.productId());
+			}
+
+			if (product.getDeleted()) {
+				throw new InsufficientStockException(product.getId(), item.quantity(), product.getQuantity());
+			}
+
+			if (product.getQuantity() < item.quantity()) {
+				throw new InsufficientStockException(product.getId(), item.quantity(), product.getQuantity());
+			}
+		}
+	}
+
+	private Map<Long, Integer> requestedQuantities(List<OrderItemRequest> orderItems) {
+		Map<Long, Integer> quantities = new LinkedHashMap<>();
+		for (OrderItemRequest item : orderItems) {
+			quantities.merge(item.productId(), item.quantity(), Integer::sum);
+		}
+		return quantities;
+	}
+
+	/**
+	 * An order waiting to be written. {@code onPlaced}, if set, is called with
+	 * the placed order inside the transaction that writes it. If the callback
+	 * throws, that transaction and every order in it roll back, and each order
+	 * is retried on its own, so a callback may run again and must only take
+	 * effect through that transaction.
+	 */
+	public record PendingOrder(User user, OrderRequest request, Consumer<OrderResponse> onPlaced) {
+
+		public PendingOrder(User user, OrderRequest request) {
+			this(user, request, null);
+		}
+	}
+
+	public record OrderOutcome(OrderResponse order, RuntimeException failure) {
+
+		static OrderOutcome placed(OrderResponse order) {
+			return new OrderOutcome(order, null);
+		}
+
+		static OrderOutcome failed(RuntimeException failure) {
+			return new OrderOutcome(null, failure);
+		}
+
+		public boolean succeeded() {
+			return failure == null;
+		}
+
+		public OrderResponse getOrThrow() {
+			if (failure != null) {
+				throw failure;
+			}
+			return order;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.InvalidCursorException;
+
+/**
+ * Position in a catalog listing sorted by one {@link SortKey}: the sort value
+ * and id of the last product on the previous page. The sort and direction are
+ * part of the token, so a cursor only continues the listing it came from.
+ */
+record ProductCursor(SortKey key, Sort.Direction direction, Object value, Long id) {
+
+	private static final String SEPARATOR = "|";
+
+	enum SortKey {
+		CREATED_AT("createdAt", LocalDateTime::parse, Product::getCreatedAt),
+		PRICE("price", BigDecimal::new, Product::getPrice),
+		NAME("name", value -> value, Product::getName);
+
+		private final String property;
+
+		private final Function<String, Object> parser;
+
+		private final Function<Product, Object> getter;
+
+		SortKey(String property, Function<String, Object> parser, Function<Product, Object> getter) {
+			this.property = property;
+			this.parser = parser;
+			this.getter = getter;
+		}
+
+		String property() {
+			return property;
+		}
+
+		static SortKey of(String property) {
+			for (SortKey key : values()) {
+				if (key.property.equals(property)) {
+					return key;
+				}
+			}
+			throw new InvalidCursorException("Cannot page the catalog by " + property);
+		}
+	}
+
+	static ProductCursor of(SortKey key, Sort.Direction direction, Product product) {
+		return new ProductCursor(key, direction, key.getter.apply(product), product.getId());
+	}
+
+	/**
+	 * Sort for the listing, with the id as tie-breaker so every row has a unique
+	 * position.
+	 */
+	static Sort sort(SortKey key, Sort.Direction direction) {
+		return Sort.by(direction, key.property, "id");
+	}
+
+	ScrollPosition position() {
+		return ScrollPosition.forward(Map.of(key.property, value, "id", id));
+	}
+
+	String encode() {
+		String valueText = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+		String plain = key.property + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + valueText;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor for the listing sorted by {@code key} in
+	 * {@code direction}.
+	 */
+	static ProductCursor decode(String token, SortKey key, Sort.Direction direction) {
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+					.split("\\" + SEPARATOR, 4);
+			if (parts.length != 4 || !parts[0].equals(key.property) || !parts[1].equals(direction.name())) {
+				throw new InvalidCursorException("Invalid cursor for this sort: " + token);
+			}
+			return new ProductCursor(key, direction, key.parser.apply(parts[3]), Long.valueOf(parts[2]));
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			throw new InvalidCursorException("Invalid cursor: " + token);
+		}
+	}
+}
@@ -1,22 +1,32 @@
 package com.ecommerce.service;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ecommerce.cache.SingleFlightCacheLoader;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedSearchResponse;
 import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.entity.Product;
 import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidCursorException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearch;
+import com.ecommerce.search.ProductSearchIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,23 +36,92 @@ public class ProductService {
 
 	private static final Logger log = LoggerFactory.getLogger(ProductService.class);
 
+	public static final String PRODUCT_PAGES = "productPages";
+
+	static final String PRODUCT_CACHE = "products";
+
+	private static final String PRODUCTS = "products";
+
+	static final int MAX_CURSOR_PAGE_SIZE = 100;
+
 	private final ProductRepository productRepository;
 
-	@Transactional(readOnly = true)
-	@Cacheable(value = "products", key = "'all'")
+	private final StockReservationEngine stockReservationEngine;
+
+	private final ListingCache listingCache;
+
+	private final SingleFlightCacheLoader cacheLoader;
+
+	private final ProductTombstones productTombstones;
+
+	private final ProductSearchIndex productSearchIndex;
+
+	private final ProductSearch productSearch;
+
+	/**
+	 * Cached per page until a product is created, updated or deleted. Stock taken
+	 * by orders does not invalidate the listing, so quantities shown here can lag
+	 * by up to the cache TTL. Not transactional, so hits and callers waiting on a
+	 * concurrent load hold no connection; only the loading query opens one.
+	 */
 	public Page<ProductDTO> getAllProducts(Pageable pageable) {
 		log.debug("Fetching all products with pagination");
-		return productRepository.findByDeletedFalse(pageable).map(this::buildProductResponse);
+		return listingCache.getPage(PRODUCT_PAGES, PRODUCTS, pageable,
+				() -> productRepository.findListedProducts(pageable));
 	}
 
+	/**
+	 * The catalog sorted by createdAt, price or name, after the position in
+	 * {@code after} (or from the start when it is null). Seeks on
+	 * {@code (sort value, id)} and runs no count query, so deep pages cost the
+	 * same as the first one.
+	 */
 	@Transactional(readOnly = true)
-	@Cacheable(value = "products", key = "#id")
+	public CursorPage<ProductDTO> getProducts(String sort, String direction, String after, int size) {
+		log.debug("Fetching products by {} {} after cursor {}", sort, direction, after);
+		ProductCursor.SortKey key = ProductCursor.SortKey.of(sort);
+		Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+				.orElseThrow(() -> new InvalidCursorException("Invalid sort direction: " + direction));
+		ScrollPosition position = after == null || after.isEmpty() ? ScrollPosition.keyset()
+				: ProductCursor.decode(after, key, sortDirection).position();
+		int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+
+		Window<Product> products = productRepository.findByDeletedFalse(position,
+				ProductCursor.sort(key, sortDirection), Limit.of(pageSize));
+
+		List<Product> content = products.getContent();
+		String nextCursor = products.hasNext()
+				? ProductCursor.of(key, sortDirection, content.get(content.size() - 1)).encode()
+				: null;
+		return new CursorPage<>(content.stream().map(this::buildProductResponse).toList(), pageSize,
+				products.hasNext(), nextCursor);
+	}
+
+	/**
+	 * Concurrent misses on a product are loaded with one query, and hot products
+	 * are reloaded shortly before their cache entry expires. Missing and deleted
+	 * ids are remembered as tombstones, so repeated lookups of them skip the
+	 * database too. Not transactional for the same reason as getAllProducts; the
+	 * loader reads through a single repository call.
+	 */
 	public ProductDTO getProductById(Long id) {
+		if (productTombstones.isKnownDeleted(id)) {
+			throw new InsufficientStockException("Product not found with id: " + id);
+		}
+		return cacheLoader.get(PRODUCT_CACHE, id, () -> loadProduct(id));
+	}
+
+	private ProductDTO loadProduct(Long id) {
+		// Only misses pay for the shared tombstone lookup; hits stay in the near cache
+		if (productTombstones.isAbsent(id)) {
+			throw new InsufficientStockException("Product not found with id: " + id);
+		}
 		log.debug("Fetching product with id: {}", id);
-		Product product = productRepository.findById(id)
-				.orElseThrow(() -> new InsufficientStockException("Product not found with id: " + id));
+		long generation = productTombstones.generation(id);
+		Product product = productRepository.findById(id).orElse(null);
 
-		if (product.getDeleted()) {
+		if (product == null || product.getDeleted()) {
+			productTombstones.markAbsent(id, generation);
 			throw new InsufficientStockException("Product not found with id: " + id);
 		}
 
@@ -50,20 +129,21 @@ public class ProductService {
 	}
 
 	@Transactional
-	@CacheEvict(value = "products", allEntries = true)
 	public ProductDTO createProduct(ProductDTO productDTO) {
 		log.info("Creating new product: {}", productDTO.name());
 		Product product = Product.builder().name(productDTO.name()).description(productDTO.description())
 				.price(productDTO.price()).quantity(productDTO.quantity()).deleted(false).build();
 
 		Product savedProduct = productRepository.save(product);
+		stockReservationEngine.track(savedProduct.getId(), savedProduct.getQuantity());
+		listingCache.invalidate(PRODUCTS);
+		productTombstones.markPresent(savedProduct.getId());
+		productSearchIndex.indexed(savedProduct.getId(), savedProduct.getName());
 		log.info("Product created successfully with id: {}", savedProduct.getId());
 		return buildProductResponse(savedProduct);
 	}
 
 	@Transactional
-	@CachePut(value = "products", key = "#id")
-	@CacheEvict(value = "products", key = "'all'")
 	public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
 		log.info("Updating product with id: {}", id);
 		Product product = productRepository.findById(id)
@@ -79,12 +159,17 @@ public class ProductService {
 		product.setQuantity(productDTO.quantity());
 
 		Product updatedProduct = productRepository.save(product);
+		stockReservationEngine.track(id, updatedProduct.getQuantity());
+		listingCache.invalidate(PRODUCTS);
+		productSearchIndex.indexed(id, updatedProduct.getName());
 		log.info("Product updated successfully with id: {}", id);
-		return buildProductResponse(updatedProduct);
+		ProductDTO response = buildProductResponse(updatedProduct);
+		cacheLoader.put(PRODUCT_CACHE, id, response);
+		return response;
 	}
 
 	@Transactional
-	@CacheEvict(value = "products", key = "#id")
+	@CacheEvict(value = PRODUCT_CACHE, key = "#id")
 	public String deleteProduct(Long id) {
 		log.info("Soft deleting product with id: {}", id);
 		Product product = productRepository.findById(id)
@@ -92,17 +177,56 @@ public class ProductService {
 
 		product.setDeleted(true);
 		productRepository.save(product);
+		stockReservationEngine.forget(id);
+		listingCache.invalidate(PRODUCTS);
+		productTombstones.markDeleted(id);
+		productSearchIndex.removed(id);
 		log.info("Product soft deleted successfully with id: {}", id);
 		return "Product soft deleted successfully";
 	}
 
+	@Transactional
+	public ProductDTO restoreProduct(Long id) {
+		log.info("Restoring product with id: {}", id);
+		Product product = productRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+
+		if (product.getDeleted()) {
+			product.setDeleted(false);
+			product = productRepository.save(product);
+			stockReservationEngine.track(id, product.getQuantity());
+			listingCache.invalidate(PRODUCTS);
+			productSearchIndex.indexed(id, product.getName());
+		}
+		productTombstones.markPresent(id);
+		log.info("Product restored successfully with id: {}", id);
+		return buildProductResponse(product);
+	}
+
+	/**
+	 * Runs on the {@link ProductSearch} picked by app.search.mode: the portable
+	 * JPQL search on H2, full-text and trigram search on PostgreSQL.
+	 */
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available,
 			Pageable pageable) {
 		log.debug("Searching products with filters - name: {}, minPrice: {}, maxPrice: {}, available: {}", name,
 				minPrice, maxPrice, available);
-		return productRepository.searchProducts(name, minPrice, maxPrice, available, pageable)
-				.map(this::buildProductResponse);
+		return productSearch.search(name, minPrice, maxPrice, available, pageable);
+	}
+
+	/**
+	 * A page of {@link #searchProducts} results with the price and stock facets
+	 * of the whole match, which take one aggregate query instead of a search per
+	 * facet value.
+	 */
+	@Transactional(readOnly = true)
+	public FacetedSearchResponse searchProductsWithFacets(String name, BigDecimal minPrice, BigDecimal maxPrice,
+			Boolean available, Pageable pageable) {
+		log.debug("Faceted search with filters - name: {}, minPrice: {}, maxPrice: {}, available: {}", name, minPrice,
+				maxPrice, available);
+		return new FacetedSearchResponse(productSearch.search(name, minPrice, maxPrice, available, pageable),
+				productSearch.facets(name, minPrice, maxPrice, available));
 	}
 
 	@Transactional
@@ -111,12 +235,9 @@ public class ProductService {
 		Product product = productRepository.findById(productId)
 				.orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
 
-		if (product.getQuantity() < quantity) {
+		if (!productRepository.decrementStock(Map.of(productId, quantity)).isEmpty()) {
 			throw new IllegalStateException("Insufficient stock for product: " + product.getName());
 		}
-
-		product.setQuantity(product.getQuantity() - quantity);
-		productRepository.save(product);
 	}
 
 	private ProductDTO buildProductResponse(Product product) {
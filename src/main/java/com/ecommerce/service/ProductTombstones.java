@@ -0,0 +1,210 @@
+package com.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Negative lookups for product ids, so that reads of missing or soft-deleted
+ * products do not reach the database every time.
+ *
+ * Ids found missing or deleted are cached as tombstones with a short TTL. Ids
+ * of soft-deleted products are also kept in a bitset on each instance, which
+ * answers without a cache round trip. The bitset is rebuilt from the products
+ * table at the tombstone TTL, so on other instances it is no staler than a
+ * tombstone would be.
+ *
+ * Creating or restoring a product removes its id from both once the
+ * transaction commits, since a new product can take an id that was looked up
+ * while it did not exist yet. Lookups that raced such a commit on this
+ * instance drop their tombstone again, and bitset changes made while a rebuild
+ * runs are replayed onto the rebuilt bitset.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductTombstones {
+
+	private static final Logger log = LoggerFactory.getLogger(ProductTombstones.class);
+
+	public static final String TOMBSTONES = "productTombstones";
+
+	private final CacheManager cacheManager;
+
+	private final ProductRepository productRepository;
+
+	private static final int GENERATION_STRIPES = 64;
+
+	// Bumped for an id when it becomes present, see markAbsent
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	// Replaced rather than modified, so reads need no lock
+	private volatile BitSet deletedIds = new BitSet();
+
+	// Bitset changes seen while a rebuild runs, replayed onto the rebuilt bitset
+	private List<DeletedBit> missedUpdates;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${app.cache.tombstones.ttl-seconds:60}",
+			fixedDelayString = "${app.cache.tombstones.ttl-seconds:60}", timeUnit = TimeUnit.SECONDS)
+	public synchronized void rebuild() {
+		locked(() -> missedUpdates = new ArrayList<>());
+		try {
+			BitSet ids = new BitSet();
+			for (Long id : productRepository.findDeletedIds()) {
+				if (isTrackable(id)) {
+					ids.set(id.intValue());
+				}
+			}
+			locked(() -> {
+				missedUpdates.forEach(missed -> ids.set(missed.id(), missed.deleted()));
+				deletedIds = ids;
+			});
+			log.debug("Loaded {} deleted product ids", ids.cardinality());
+		} finally {
+			locked(() -> missedUpdates = null);
+		}
+	}
+
+	/**
+	 * Read before looking a product up, and passed to
+	 * {@link #markAbsent(Long, long)} if the lookup finds nothing.
+	 */
+	public long generation(Long id) {
+		return generations.get(stripe(id));
+	}
+
+	/**
+	 * True if the product is in this instance's set of deleted ids. Answers
+	 * without a cache round trip, so it can run in front of the product cache.
+	 */
+	public boolean isKnownDeleted(Long id) {
+		return isTrackable(id) && deletedIds.get(id.intValue());
+	}
+
+	/**
+	 * True if the product is known to be missing or deleted. Checks the shared
+	 * tombstone cache, so it belongs on the miss path only.
+	 */
+	public boolean isAbsent(Long id) {
+		if (isKnownDeleted(id)) {
+			return true;
+		}
+		Cache tombstones = cacheManager.getCache(TOMBSTONES);
+		return tombstones != null && tombstones.get(id) != null;
+	}
+
+	/**
+	 * Records that a lookup found no live product with this id. The tombstone is
+	 * dropped again if the product was created or restored since
+	 * {@code generation} was read, as the lookup may have missed it.
+	 */
+	public void markAbsent(Long id, long generation) {
+		Cache tombstones = cacheManager.getCache(TOMBSTONES);
+		if (tombstones == null) {
+			return;
+		}
+		tombstones.put(id, id);
+		if (generations.get(stripe(id)) != generation) {
+			tombstones.evict(id);
+		}
+	}
+
+	/**
+	 * Records a soft delete, once the current transaction commits.
+	 */
+	public void markDeleted(Long id) {
+		afterCommit(() -> {
+			update(id, true);
+			Cache tombstones = cacheManager.getCache(TOMBSTONES);
+			if (tombstones != null) {
+				tombstones.put(id, id);
+			}
+		});
+	}
+
+	/**
+	 * Forgets any negative entry for a created or restored product, once the
+	 * current transaction commits.
+	 */
+	public void markPresent(Long id) {
+		afterCommit(() -> {
+			// Before the eviction, so a racing markAbsent either sees it or is evicted
+			generations.incrementAndGet(stripe(id));
+			update(id, false);
+			Cache tombstones = cacheManager.getCache(TOMBSTONES);
+			if (tombstones != null) {
+				tombstones.evict(id);
+			}
+		});
+	}
+
+	private void update(Long id, boolean deleted) {
+		if (!isTrackable(id)) {
+			return;
+		}
+		locked(() -> {
+			if (missedUpdates != null) {
+				missedUpdates.add(new DeletedBit(id.intValue(), deleted));
+			}
+			if (deletedIds.get(id.intValue()) != deleted) {
+				BitSet ids = (BitSet) deletedIds.clone();
+				ids.set(id.intValue(), deleted);
+				deletedIds = ids;
+			}
+		});
+	}
+
+	private void locked(Runnable action) {
+		lock.lock();
+		try {
+			action.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static int stripe(Long id) {
+		return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+	}
+
+	// Ids beyond the int range are left to the tombstone cache
+	private static boolean isTrackable(Long id) {
+		return id != null && id >= 0 && id <= Integer.MAX_VALUE;
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private record DeletedBit(int id, boolean deleted) {
+	}
+}
@@ -0,0 +1,225 @@
+package com.ecommerce.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.dto.StockLevel;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.repository.ProductRepository;
+
+/**
+ * In-memory stock counters keyed by product id, used as an admission check in
+ * front of the guarded stock update in {@link ProductRepository#decrementStock}.
+ * Orders that cannot be satisfied are rejected with a CAS on the product's
+ * counter instead of a round trip and a row lock on the products table.
+ *
+ * The counters are rebuilt from the database on startup. They are local to this
+ * JVM and can drift from the products table when other nodes sell the same
+ * stock, so a rejection is re-checked against the database once before it is
+ * reported and the guarded update stays authoritative.
+ *
+ * A re-check reads the committed quantity in its own transaction and subtracts
+ * the reservations of transactions still in flight, which the committed
+ * quantity does not reflect yet.
+ */
+@Component
+public class StockReservationEngine {
+
+	private static final Logger log = LoggerFactory.getLogger(StockReservationEngine.class);
+
+	private final ProductRepository productRepository;
+
+	private final TransactionTemplate committedRead;
+
+	private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+
+	// Reserved by transactions that have not committed or rolled back yet
+	private final Map<Long, AtomicInteger> outstanding = new ConcurrentHashMap<>();
+
+	public StockReservationEngine(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+		this.productRepository = productRepository;
+		this.committedRead = new TransactionTemplate(transactionManager);
+		committedRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		committedRead.setReadOnly(true);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		Map<Long, AtomicInteger> levels = new HashMap<>();
+		for (StockLevel level : productRepository.findStockLevels()) {
+			levels.put(level.productId(), new AtomicInteger(level.quantity()));
+		}
+		available.clear();
+		available.putAll(levels);
+		log.info("Stock reservation engine loaded {} products", levels.size());
+	}
+
+	/**
+	 * Reserves all quantities or none. When called inside a transaction the
+	 * reservation is released again if that transaction rolls back.
+	 */
+	public StockReservation reserve(Map<Long, Integer> quantities) {
+		// Counted as outstanding before the counter is taken, so a concurrent re-check errs low
+		boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+		Map<Long, Integer> reserved = new HashMap<>();
+		for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+			Long productId = entry.getKey();
+			int requested = entry.getValue();
+			int own = inTransaction ? requested : 0;
+			if (inTransaction) {
+				adjust(outstanding, Map.of(productId, own), 1);
+			}
+
+			if (!tryReserve(counterFor(productId, own), requested)) {
+				// The local counter may be stale; re-read the product once before rejecting
+				AtomicInteger refreshed = reload(productId, own);
+				if (!tryReserve(refreshed, requested)) {
+					release(reserved);
+					if (inTransaction) {
+						adjust(outstanding, Map.of(productId, own), -1);
+						adjust(outstanding, reserved, -1);
+					}
+					throw new InsufficientStockException(productId, requested, refreshed.get());
+				}
+			}
+			reserved.put(productId, requested);
+		}
+
+		StockReservation reservation = new StockReservation(reserved, inTransaction);
+		if (inTransaction) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_ROLLED_BACK) {
+						reservation.release();
+					} else {
+						reservation.settle();
+					}
+				}
+			});
+		}
+		return reservation;
+	}
+
+	/**
+	 * Sets the counter to an authoritative quantity, e.g. after an admin update.
+	 */
+	/**
+	 * Sets a product's counter to {@code quantity} once the current transaction
+	 * commits, so a rolled back write leaves the counter as it was.
+	 */
+	public void track(Long productId, int quantity) {
+		afterCommit(() -> available.put(productId, new AtomicInteger(quantity)));
+	}
+
+	/**
+	 * Drops a product's counter once the current transaction commits.
+	 */
+	public void forget(Long productId) {
+		afterCommit(() -> available.remove(productId));
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private static void adjust(Map<Long, AtomicInteger> counters, Map<Long, Integer> quantities, int sign) {
+		quantities.forEach((productId, quantity) -> counters.computeIfAbsent(productId, id -> new AtomicInteger())
+				.addAndGet(sign * quantity));
+	}
+
+	private void release(Map<Long, Integer> quantities) {
+		quantities.forEach((productId, quantity) -> {
+			AtomicInteger counter = available.get(productId);
+			if (counter != null) {
+				counter.addAndGet(quantity);
+			}
+		});
+	}
+
+	private boolean tryReserve(AtomicInteger counter, int requested) {
+		int current;
+		do {
+			current = counter.get();
+			if (current < requested) {
+				return false;
+			}
+		} while (!counter.compareAndSet(current, current - requested));
+		return true;
+	}
+
+	private AtomicInteger counterFor(Long productId, int own) {
+		AtomicInteger counter = available.get(productId);
+		return counter != null ? counter : reload(productId, own);
+	}
+
+	/**
+	 * Resets the counter to the committed quantity less the reservations still
+	 * in flight, leaving out {@code own}, which the caller is about to take.
+	 */
+	private AtomicInteger reload(Long productId, int own) {
+		// A new transaction sees committed stock only, not this transaction's own decrements
+		int committed = committedRead.execute(status -> productRepository.findStockLevel(productId));
+		AtomicInteger inFlight = outstanding.get(productId);
+		AtomicInteger counter = available.computeIfAbsent(productId, id -> new AtomicInteger());
+		counter.set(committed - (inFlight == null ? 0 : inFlight.get() - own));
+		return counter;
+	}
+
+	/**
+	 * Handle for one order's reservation; releasing it more than once is a no-op,
+	 * so an explicit release and a rollback callback can both fire safely.
+	 */
+	public final class StockReservation {
+
+		private final Map<Long, Integer> quantities;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private final AtomicBoolean settled = new AtomicBoolean();
+
+		// Counted in outstanding until its transaction completes
+		private final boolean outstanding;
+
+		private StockReservation(Map<Long, Integer> quantities, boolean outstanding) {
+			this.quantities = quantities;
+			this.outstanding = outstanding;
+		}
+
+		public void release() {
+			if (released.compareAndSet(false, true)) {
+				StockReservationEngine.this.release(quantities);
+				settle();
+			}
+		}
+
+		private void settle() {
+			if (outstanding && settled.compareAndSet(false, true)) {
+				adjust(StockReservationEngine.this.outstanding, quantities, -1);
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.strategy;
+
+import java.math.BigDecimal;
+
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.DiscountRequest;
+import com.ecommerce.service.CouponService;
+import com.ecommerce.service.CouponService.ActiveCoupon;
+import com.ecommerce.util.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Applies the order's coupon from the in-memory {@link CouponService} index.
+ * Unknown, expired and not yet valid codes give no discount here; rejecting
+ * them is up to the order path, which validates the coupon before pricing.
+ */
+@Component("couponDiscount")
+@RequiredArgsConstructor
+public class CouponDiscount implements DiscountStrategy {
+
+	private final CouponService couponService;
+
+	@Override
+	public boolean supports(DiscountRequest discountRequest) {
+		return discountRequest.couponCode() != null && discountRequest.orderTotal() != null;
+	}
+
+	@Override
+	public BigDecimal discountAmount(DiscountRequest discountRequest) {
+		return Money.fromCents(discountCents(Money.toCents(discountRequest.orderTotal()), discountRequest));
+	}
+
+	@Override
+	public long discountCents(long orderTotalCents, DiscountRequest discountRequest) {
+		ActiveCoupon coupon = couponService.find(discountRequest.couponCode());
+		if (coupon == null || !coupon.isValidAt(System.currentTimeMillis())) {
+			return 0L;
+		}
+		return coupon.discountCents(orderTotalCents);
+	}
+}
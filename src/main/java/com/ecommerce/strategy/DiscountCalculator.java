@@ -6,6 +6,8 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 
 import com.ecommerce.dto.DiscountRequest;
+import com.ecommerce.entity.Role;
+import com.ecommerce.util.Money;
 
 import lombok.AllArgsConstructor;
 
@@ -15,9 +17,34 @@ public class DiscountCalculator {
 
 	private final List<DiscountStrategy> strategies;
 
+	/**
+	 * Sum of the discounts of all strategies that apply, capped at the order
+	 * total so stacked discounts cannot price an order below zero.
+	 */
 	public BigDecimal totalDiscount(DiscountRequest request) {
-		return strategies.stream().filter(s -> s.supports(request)).map(s -> s.discountAmount(request))
-				.reduce(new BigDecimal("0.00"), BigDecimal::add);
+		BigDecimal total = new BigDecimal("0.00");
+		for (int i = 0; i < strategies.size(); i++) {
+			DiscountStrategy strategy = strategies.get(i);
+			if (strategy.supports(request)) {
+				total = total.add(strategy.discountAmount(request));
+			}
+		}
+		return request.orderTotal() == null ? total : total.min(request.orderTotal());
+	}
+
+	/**
+	 * Same total as {@link #totalDiscount(DiscountRequest)}, in cents. Strategies
+	 * are summed in a plain loop so an order allocates one request and nothing
+	 * per strategy.
+	 */
+	public long totalDiscountCents(long orderTotalCents, String couponCode, Role customerType) {
+		DiscountRequest request = new DiscountRequest(Money.fromCents(orderTotalCents), null, null, couponCode,
+				customerType);
+		long total = 0L;
+		for (int i = 0; i < strategies.size(); i++) {
+			total = Math.addExact(total, strategies.get(i).discountCents(orderTotalCents, request));
+		}
+		return Math.min(total, orderTotalCents);
 	}
 
 }
@@ -0,0 +1,109 @@
+package com.ecommerce.strategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.ecommerce.entity.DiscountRule;
+import com.ecommerce.entity.Role;
+import com.ecommerce.util.Money;
+
+/**
+ * Immutable decision table compiled from the active discount rules. For every
+ * role, the distinct minimum order totals split the amount axis into buckets,
+ * and each bucket holds the rates of all rules that apply from that total up.
+ * Evaluating an order is a binary search over a handful of thresholds followed
+ * by one rounding per applicable rate.
+ *
+ * Each rate is rounded on its own and the results are summed, exactly as the
+ * separate discount strategies did.
+ */
+public final class DiscountRuleTable {
+
+	private static final long[] NO_THRESHOLDS = new long[0];
+
+	private static final int[][] NO_BUCKETS = new int[0][];
+
+	public static final DiscountRuleTable EMPTY = compile(List.of());
+
+	// Indexed by slot(role); slot 0 holds the rules for orders without a role
+	private final long[][] thresholdsByRole;
+
+	private final int[][][] basisPointsByRole;
+
+	private final int ruleCount;
+
+	private DiscountRuleTable(long[][] thresholdsByRole, int[][][] basisPointsByRole, int ruleCount) {
+		this.thresholdsByRole = thresholdsByRole;
+		this.basisPointsByRole = basisPointsByRole;
+		this.ruleCount = ruleCount;
+	}
+
+	public static DiscountRuleTable compile(List<DiscountRule> rules) {
+		Role[] roles = Role.values();
+		long[][] thresholdsByRole = new long[roles.length + 1][];
+		int[][][] basisPointsByRole = new int[roles.length + 1][][];
+
+		for (int slot = 0; slot <= roles.length; slot++) {
+			Role role = slot == 0 ? null : roles[slot - 1];
+			TreeSet<Long> distinct = new TreeSet<>();
+			for (DiscountRule rule : rules) {
+				if (appliesTo(rule, role)) {
+					distinct.add(Money.toCents(rule.getMinOrderTotal()));
+				}
+			}
+			if (distinct.isEmpty()) {
+				thresholdsByRole[slot] = NO_THRESHOLDS;
+				basisPointsByRole[slot] = NO_BUCKETS;
+				continue;
+			}
+
+			long[] thresholds = distinct.stream().mapToLong(Long::longValue).toArray();
+			int[][] buckets = new int[thresholds.length][];
+			for (int bucket = 0; bucket < thresholds.length; bucket++) {
+				long floor = thresholds[bucket];
+				buckets[bucket] = rules.stream()
+						.filter(rule -> appliesTo(rule, role) && Money.toCents(rule.getMinOrderTotal()) <= floor)
+						.mapToInt(DiscountRuleTable::basisPoints).filter(basisPoints -> basisPoints > 0).toArray();
+			}
+			thresholdsByRole[slot] = thresholds;
+			basisPointsByRole[slot] = buckets;
+		}
+		return new DiscountRuleTable(thresholdsByRole, basisPointsByRole, rules.size());
+	}
+
+	public long discountCents(long orderTotalCents, Role role) {
+		int slot = slot(role);
+		long[] thresholds = thresholdsByRole[slot];
+		int bucket = Arrays.binarySearch(thresholds, orderTotalCents);
+		if (bucket < 0) {
+			// Insertion point - 1 is the highest threshold below the total
+			bucket = -bucket - 2;
+		}
+		if (bucket < 0) {
+			return 0L;
+		}
+
+		long discount = 0L;
+		for (int basisPoints : basisPointsByRole[slot][bucket]) {
+			discount += Money.percentOf(orderTotalCents, basisPoints);
+		}
+		return discount;
+	}
+
+	public int ruleCount() {
+		return ruleCount;
+	}
+
+	private static int slot(Role role) {
+		return role == null ? 0 : role.ordinal() + 1;
+	}
+
+	private static boolean appliesTo(DiscountRule rule, Role role) {
+		return rule.getRole() == null || rule.getRole() == role;
+	}
+
+	private static int basisPoints(DiscountRule rule) {
+		return rule.getRate().movePointRight(4).intValueExact();
+	}
+}
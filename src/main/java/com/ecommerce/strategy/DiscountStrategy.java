@@ -3,10 +3,20 @@ package com.ecommerce.strategy;
 import java.math.BigDecimal;
 
 import com.ecommerce.dto.DiscountRequest;
+import com.ecommerce.util.Money;
 
 public interface DiscountStrategy {
     
  boolean supports(DiscountRequest request);
  
  BigDecimal discountAmount(DiscountRequest request);
+
+ /**
+  * Discount in cents for an order totalling {@code orderTotalCents}, or 0 when
+  * the strategy does not apply. {@code request.orderTotal()} holds the same
+  * total. Strategies on the order path override this to avoid BigDecimal.
+  */
+ default long discountCents(long orderTotalCents, DiscountRequest request) {
+  return supports(request) ? Money.toCents(discountAmount(request)) : 0L;
+ }
 }
@@ -0,0 +1,58 @@
+package com.ecommerce.strategy;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.dto.DiscountRequest;
+import com.ecommerce.repository.DiscountRuleRepository;
+import com.ecommerce.util.Money;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Applies the rules of the discount_rules table through a compiled
+ * {@link DiscountRuleTable}. The table is rebuilt when an admin changes a rule
+ * and periodically, so that changes made through another instance are picked
+ * up; the new table replaces the old one atomically and orders in progress
+ * keep the table they started with.
+ */
+@Component("ruleTableDiscount")
+@RequiredArgsConstructor
+public class RuleTableDiscount implements DiscountStrategy {
+
+	private static final Logger log = LoggerFactory.getLogger(RuleTableDiscount.class);
+
+	private final DiscountRuleRepository discountRuleRepository;
+
+	private final AtomicReference<DiscountRuleTable> table = new AtomicReference<>(DiscountRuleTable.EMPTY);
+
+	@PostConstruct
+	@Scheduled(initialDelayString = "${app.discounts.refresh-interval-ms:60000}",
+			fixedDelayString = "${app.discounts.refresh-interval-ms:60000}")
+	public void reload() {
+		DiscountRuleTable compiled = DiscountRuleTable.compile(discountRuleRepository.findByActiveTrue());
+		table.set(compiled);
+		log.debug("Discount rule table compiled from {} active rules", compiled.ruleCount());
+	}
+
+	@Override
+	public boolean supports(DiscountRequest discountRequest) {
+		return discountRequest.orderTotal() != null;
+	}
+
+	@Override
+	public BigDecimal discountAmount(DiscountRequest discountRequest) {
+		return Money.fromCents(discountCents(Money.toCents(discountRequest.orderTotal()), discountRequest));
+	}
+
+	@Override
+	public long discountCents(long orderTotalCents, DiscountRequest discountRequest) {
+		return table.get().discountCents(orderTotalCents, discountRequest.customerType());
+	}
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.util;
+
+/**
+ * Fixed-size Bloom filter over strings. {@link #mightContain(String)} never
+ * returns false for a key that was {@link #put(String) put}, and returns true
+ * for other keys with roughly the false-positive rate it was sized for. The bit
+ * positions come from two halves of one 64-bit hash (Kirsch-Mitzenmacher
+ * double hashing), so a lookup hashes the key once and allocates nothing.
+ *
+ * Not thread-safe while keys are being added; build it fully, then publish it.
+ */
+public final class BloomFilter {
+
+	private final long[] bits;
+
+	private final int bitCount;
+
+	private final int hashCount;
+
+	private BloomFilter(int bitCount, int hashCount) {
+		this.bits = new long[(bitCount + 63) >>> 6];
+		this.bitCount = bitCount;
+		this.hashCount = hashCount;
+	}
+
+	/**
+	 * Sizes a filter for {@code expectedKeys} keys at the given false-positive
+	 * probability.
+	 */
+	public static BloomFilter create(int expectedKeys, double falsePositiveRate) {
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+		}
+		int keys = Math.max(expectedKeys, 1);
+		double ln2 = Math.log(2);
+		int bitCount = (int) Math.max(64, Math.ceil(-keys * Math.log(falsePositiveRate) / (ln2 * ln2)));
+		int hashCount = (int) Math.max(1, Math.round((double) bitCount / keys * ln2));
+		return new BloomFilter(bitCount, hashCount);
+	}
+
+	public void put(String key) {
+		long hash = hash64(key);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+			bits[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	public boolean mightContain(String key) {
+		long hash = hash64(key);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+			if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int bitCount() {
+		return bitCount;
+	}
+
+	public int hashCount() {
+		return hashCount;
+	}
+
+	// FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 mixer
+	private static long hash64(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
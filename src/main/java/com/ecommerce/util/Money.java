@@ -0,0 +1,54 @@
+package com.ecommerce.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions and rounding for amounts held as long cents. Every rounding step
+ * is HALF_UP to two decimals, matching the BigDecimal arithmetic it replaces.
+ */
+public final class Money {
+
+	private static final long BASIS_POINTS = 10_000L;
+
+	private Money() {
+	}
+
+	public static long toCents(BigDecimal amount) {
+		// A scale-0 compact BigDecimal converts without inflating to BigInteger
+		return amount.setScale(2, RoundingMode.HALF_UP).scaleByPowerOfTen(2).longValueExact();
+	}
+
+	public static BigDecimal fromCents(long cents) {
+		return BigDecimal.valueOf(cents, 2);
+	}
+
+	/**
+	 * {@code cents * basisPoints / 10000}, i.e.
+	 * {@code amount.multiply(rate).setScale(2, HALF_UP)} for a rate given in
+	 * basis points.
+	 */
+	public static long percentOf(long cents, int basisPoints) {
+		return divideHalfUp(Math.multiplyExact(cents, basisPoints), BASIS_POINTS);
+	}
+
+	/**
+	 * Share of {@code total} proportional to {@code part / whole}, i.e.
+	 * {@code total.multiply(part).divide(whole, 2, HALF_UP)}.
+	 */
+	public static long share(long total, long part, long whole) {
+		return divideHalfUp(Math.multiplyExact(total, part), whole);
+	}
+
+	static long divideHalfUp(long dividend, long divisor) {
+		if (divisor <= 0) {
+			throw new ArithmeticException("Divisor must be positive: " + divisor);
+		}
+		if (dividend < 0) {
+			return -divideHalfUp(-dividend, divisor);
+		}
+		long quotient = dividend / divisor;
+		long remainder = dividend % divisor;
+		return remainder >= divisor - remainder ? quotient + 1 : quotient;
+	}
+}
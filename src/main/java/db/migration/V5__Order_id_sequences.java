@@ -0,0 +1,40 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Creates the sequences behind the pooled id generators of Order and OrderItem.
+ * Written in Java because the start value depends on the ids already in use and
+ * H2 and PostgreSQL do not share a syntax for restarting a sequence at a query
+ * result.
+ */
+public class V5__Order_id_sequences extends BaseJavaMigration {
+
+	static final int ALLOCATION_SIZE = 50;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		try (Statement statement = context.getConnection().createStatement()) {
+			createSequence(statement, "orders_seq", "orders");
+			createSequence(statement, "order_items_seq", "order_items");
+		}
+	}
+
+	private void createSequence(Statement statement, String sequence, String table) throws SQLException {
+		long maxId = 0;
+		try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+			if (resultSet.next()) {
+				maxId = resultSet.getLong(1);
+			}
+		}
+		// The pooled optimizer treats each sequence value as the top of a block of
+		// ALLOCATION_SIZE ids, so the first block must start above the current max id
+		statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + (maxId + ALLOCATION_SIZE)
+				+ " INCREMENT BY " + ALLOCATION_SIZE);
+	}
+}
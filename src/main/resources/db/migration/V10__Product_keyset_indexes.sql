@@ -0,0 +1,9 @@
+-- Keyset pagination seeks on created_at, so it must always be set
+UPDATE products SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE products ALTER COLUMN created_at SET NOT NULL;
+
+-- One index per catalog sort order, with the id tie-breaker, so a page is an
+-- index range scan from the cursor whichever direction it is read in
+CREATE INDEX idx_products_deleted_created_id ON products(deleted, created_at, id);
+CREATE INDEX idx_products_deleted_price_id ON products(deleted, price, id);
+CREATE INDEX idx_products_deleted_name_id ON products(deleted, name, id);
@@ -0,0 +1,17 @@
+CREATE TABLE discount_rules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    role VARCHAR(20),
+    min_order_total DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    rate DECIMAL(5, 4) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_discount_rules_rate CHECK (rate >= 0 AND rate <= 1),
+    CONSTRAINT chk_discount_rules_min_total CHECK (min_order_total >= 0)
+);
+
+-- The discounts previously hard-coded in AmountThresholdDiscount and PremiumUserDiscount
+INSERT INTO discount_rules (name, role, min_order_total, rate, active) VALUES
+('Large order', NULL, 500.00, 0.0500, TRUE),
+('Premium member', 'PREMIUM_USER', 0.00, 0.1000, TRUE);
@@ -0,0 +1,24 @@
+CREATE TABLE coupons (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code VARCHAR(20) NOT NULL,
+    rate DECIMAL(5, 4),
+    amount_off DECIMAL(10, 2),
+    min_order_total DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    max_redemptions INT,
+    redemptions INT NOT NULL DEFAULT 0,
+    valid_from TIMESTAMP,
+    valid_until TIMESTAMP,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_coupons_code UNIQUE (code),
+    CONSTRAINT chk_coupons_discount CHECK ((rate IS NULL) <> (amount_off IS NULL)),
+    CONSTRAINT chk_coupons_rate CHECK (rate IS NULL OR (rate > 0 AND rate <= 1)),
+    CONSTRAINT chk_coupons_amount_off CHECK (amount_off IS NULL OR amount_off > 0),
+    CONSTRAINT chk_coupons_redemptions CHECK (redemptions >= 0)
+);
+
+CREATE INDEX idx_coupons_active ON coupons(active);
+
+-- Orders without a coupon were rejected by the NOT NULL constraint
+ALTER TABLE orders ALTER COLUMN coupon_code DROP NOT NULL;
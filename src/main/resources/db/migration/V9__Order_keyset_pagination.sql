@@ -0,0 +1,7 @@
+-- Orders were saved without created_at; keyset pagination seeks on it
+UPDATE orders SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE orders ALTER COLUMN created_at SET NOT NULL;
+
+-- Include the id tie-breaker so (created_at, id) seeks are served in index order
+DROP INDEX idx_orders_user_created;
+CREATE INDEX idx_orders_user_created ON orders(user_id, created_at DESC, id DESC);
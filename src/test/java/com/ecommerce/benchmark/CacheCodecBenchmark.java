@@ -0,0 +1,132 @@
+package com.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.ecommerce.cache.BinaryCacheCodec;
+import com.ecommerce.config.CacheConfig;
+import com.ecommerce.dto.OrderItemDTO;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.service.ListingCache.CachedPage;
+
+/**
+ * Compares the Jackson cache serializer with {@link BinaryCacheCodec} on cached
+ * listing pages: a page of 20 products and a page of 10 orders of 3 items. The
+ * bytes stored per page are printed before the timings:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.ecommerce.benchmark.CacheCodecBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+	private static final int COMPRESSION_THRESHOLD = 1024;
+
+	@Param({ "products", "orders" })
+	private String listing;
+
+	private RedisSerializer<Object> jackson;
+
+	private BinaryCacheCodec binary;
+
+	private CachedPage<?> page;
+
+	private byte[] jacksonBytes;
+
+	private byte[] binaryBytes;
+
+	@Setup
+	public void setUp() {
+		jackson = CacheConfig.redisValueSerializer();
+		binary = new BinaryCacheCodec(jackson, COMPRESSION_THRESHOLD);
+		page = "orders".equals(listing) ? orderPage() : productPage();
+		jacksonBytes = jackson.serialize(page);
+		binaryBytes = binary.serialize(page);
+	}
+
+	@Benchmark
+	public byte[] jacksonEncode() {
+		return jackson.serialize(page);
+	}
+
+	@Benchmark
+	public Object jacksonDecode() {
+		return jackson.deserialize(jacksonBytes);
+	}
+
+	@Benchmark
+	public byte[] binaryEncode() {
+		return binary.serialize(page);
+	}
+
+	@Benchmark
+	public Object binaryDecode() {
+		return binary.deserialize(binaryBytes);
+	}
+
+	static CachedPage<ProductDTO> productPage() {
+		List<ProductDTO> products = new ArrayList<>();
+		for (long id = 1; id <= 20; id++) {
+			products.add(new ProductDTO(id, "Product " + id, "Description of product " + id + " in the catalog",
+					BigDecimal.valueOf(999 + id * 137, 2), (int) (id * 7), false));
+		}
+		return new CachedPage<>(products, 1_000);
+	}
+
+	static CachedPage<OrderResponse> orderPage() {
+		List<OrderResponse> orders = new ArrayList<>();
+		LocalDateTime placedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+		for (long id = 1; id <= 10; id++) {
+			List<OrderItemDTO> items = new ArrayList<>();
+			for (long line = 1; line <= 3; line++) {
+				BigDecimal price = BigDecimal.valueOf(999 + line * 137, 2);
+				items.add(new OrderItemDTO(id * 10 + line, line, "Product " + line, 1, price, BigDecimal.ZERO, price));
+			}
+			orders.add(new OrderResponse(id, 1L, "manoj", items, new BigDecimal("71.18"), BigDecimal.ZERO,
+					OrderStatus.PENDING, placedAt.plusMinutes(id), placedAt.plusMinutes(id)));
+		}
+		return new CachedPage<>(orders, 250);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		RedisSerializer<Object> jackson = CacheConfig.redisValueSerializer();
+		BinaryCacheCodec binary = new BinaryCacheCodec(jackson, COMPRESSION_THRESHOLD);
+		BinaryCacheCodec uncompressed = new BinaryCacheCodec(jackson, Integer.MAX_VALUE);
+		for (CachedPage<?> page : List.of(productPage(), orderPage())) {
+			String name = page.content().get(0) instanceof OrderResponse ? "orders" : "products";
+			System.out.printf("%s page: jackson=%d bytes, binary=%d bytes, binary+lz4=%d bytes%n", name,
+					jackson.serialize(page).length, uncompressed.serialize(page).length,
+					binary.serialize(page).length);
+		}
+		new Runner(new OptionsBuilder().include(CacheCodecBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+
+/**
+ * Compares page-1 and page-1000 latency of the offset catalog query with the
+ * cursor listing, for each supported sort:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.ecommerce.benchmark.CatalogPaginationBenchmark [dev|prod] [products] [page size]
+ * </pre>
+ *
+ * The dev profile runs against an in-memory H2 database migrated by Flyway and
+ * seeds it with the given number of products. The prod profile uses
+ * DATABASE_URL/DATABASE_USERNAME/DATABASE_PASSWORD and benchmarks the products
+ * already there.
+ */
+public class CatalogPaginationBenchmark {
+
+	private static final int DEEP_PAGE = 1000;
+
+	private static final int ITERATIONS = 50;
+
+	public static void main(String[] args) {
+		String profile = args.length > 0 ? args[0] : "dev";
+		int products = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+		int pageSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(EcommerceApplication.class).profiles(profile)
+				.web(WebApplicationType.NONE);
+		List<String> overrides = new ArrayList<>(List.of("--app.cache.enabled=false", "--spring.cache.type=none",
+				"--app.warmup.enabled=false", "--logging.level.org.hibernate.SQL=WARN"));
+		if ("dev".equals(profile)) {
+			overrides.add("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+		}
+
+		try (ConfigurableApplicationContext context = builder.run(overrides.toArray(String[]::new))) {
+			ProductRepository productRepository = context.getBean(ProductRepository.class);
+			ProductService productService = context.getBean(ProductService.class);
+			if ("dev".equals(profile)) {
+				seed(context.getBean(JdbcTemplate.class), products);
+			}
+
+			System.out.printf("profile=%s products=%d page size=%d, median of %d runs in ms%n", profile,
+					productRepository.count(), pageSize, ITERATIONS);
+			System.out.printf("%-10s %-6s %10s %10s %10s %10s%n", "sort", "dir", "offset p1", "offset p" + DEEP_PAGE,
+					"cursor p1", "cursor p" + DEEP_PAGE);
+			for (String sort : List.of("createdAt", "price", "name")) {
+				for (Sort.Direction direction : Sort.Direction.values()) {
+					String dir = direction.name().toLowerCase();
+					String deepCursor = cursorBefore(productService, sort, dir, pageSize);
+					// The uncached query behind getAllProducts: a count and an OFFSET scan
+					double offsetFirst = median(
+							() -> productRepository.findListedProducts(PageRequest.of(0, pageSize, direction, sort)));
+					double offsetDeep = median(() -> productRepository
+							.findListedProducts(PageRequest.of(DEEP_PAGE - 1, pageSize, direction, sort)));
+					double cursorFirst = median(() -> productService.getProducts(sort, dir, null, pageSize));
+					double cursorDeep = median(() -> productService.getProducts(sort, dir, deepCursor, pageSize));
+					System.out.printf("%-10s %-6s %10.3f %10.3f %10.3f %10.3f%n", sort, dir, offsetFirst, offsetDeep,
+							cursorFirst, cursorDeep);
+				}
+			}
+		}
+	}
+
+	private static void seed(JdbcTemplate jdbcTemplate, int products) {
+		LocalDateTime start = LocalDateTime.now().minusDays(365);
+		List<Object[]> rows = new ArrayList<>(products);
+		for (int i = 0; i < products; i++) {
+			rows.add(new Object[] { "Bench product " + (i * 7919L) % products,
+					BigDecimal.valueOf((i * 104_729L) % 100_000, 2), 100, Timestamp.valueOf(start.plusSeconds(i * 13L)) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO products (name, price, quantity, deleted, created_at) "
+				+ "VALUES (?, ?, ?, FALSE, ?)", rows);
+	}
+
+	// Walks the cursor listing to the start of the deep page
+	private static String cursorBefore(ProductService productService, String sort, String dir, int pageSize) {
+		String after = null;
+		for (int page = 1; page < DEEP_PAGE; page++) {
+			CursorPage<ProductDTO> result = productService.getProducts(sort, dir, after, pageSize);
+			after = result.nextCursor();
+		}
+		return after;
+	}
+
+	private static double median(Supplier<?> call) {
+		for (int i = 0; i < ITERATIONS; i++) {
+			call.get();
+		}
+		long[] nanos = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			call.get();
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		return nanos[ITERATIONS / 2] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.entity.DiscountRule;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.repository.DiscountRuleRepository;
+import com.ecommerce.service.OrderPricer;
+import com.ecommerce.service.OrderPricer.PricedOrder;
+import com.ecommerce.strategy.DiscountCalculator;
+import com.ecommerce.strategy.RuleTableDiscount;
+
+/**
+ * Compares BigDecimal order pricing with the long-cents {@link OrderPricer}.
+ * Run with the GC profiler to see bytes allocated per priced order
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.ecommerce.benchmark.OrderPricingBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+	private static final BigDecimal AMOUNT_THRESHOLD = new BigDecimal("500.00");
+
+	private static final BigDecimal LARGE_ORDER_DISCOUNT_RATE = new BigDecimal("0.05");
+
+	private static final BigDecimal PREMIUM_DISCOUNT_RATE = new BigDecimal("0.10");
+
+	@Param({ "5", "50" })
+	private int lines;
+
+	private List<OrderItemRequest> items;
+
+	private Map<Long, Product> products;
+
+	private OrderPricer orderPricer;
+
+	@Setup
+	public void setUp() {
+		items = new ArrayList<>(lines);
+		products = new HashMap<>();
+		for (long id = 1; id <= lines; id++) {
+			products.put(id, Product.builder().id(id).name("Product " + id)
+					.price(BigDecimal.valueOf(999 + id * 137, 2)).quantity(1_000).deleted(false).build());
+			items.add(new OrderItemRequest(id, 1 + (int) (id % 3)));
+		}
+		List<DiscountRule> rules = List.of(
+				DiscountRule.builder().name("Large order").minOrderTotal(AMOUNT_THRESHOLD)
+						.rate(LARGE_ORDER_DISCOUNT_RATE).active(true).build(),
+				DiscountRule.builder().name("Premium member").role(Role.PREMIUM_USER).minOrderTotal(BigDecimal.ZERO)
+						.rate(PREMIUM_DISCOUNT_RATE).active(true).build());
+		DiscountRuleRepository discountRuleRepository = Mockito.mock(DiscountRuleRepository.class);
+		Mockito.when(discountRuleRepository.findByActiveTrue()).thenReturn(rules);
+		RuleTableDiscount ruleTableDiscount = new RuleTableDiscount(discountRuleRepository);
+		ruleTableDiscount.reload();
+		orderPricer = new OrderPricer(new DiscountCalculator(List.of(ruleTableDiscount)));
+	}
+
+	/**
+	 * The BigDecimal pricing previously done in OrderWriter.buildOrder and the
+	 * hard-coded discount strategies, without their stdout logging.
+	 */
+	@Benchmark
+	public BigDecimal[] bigDecimal() {
+		BigDecimal[] lineTotals = new BigDecimal[lines];
+		BigDecimal subtotal = BigDecimal.ZERO;
+		for (int i = 0; i < lines; i++) {
+			OrderItemRequest item = items.get(i);
+			BigDecimal itemTotal = products.get(item.productId()).getPrice()
+					.multiply(BigDecimal.valueOf(item.quantity()));
+			lineTotals[i] = itemTotal;
+			subtotal = subtotal.add(itemTotal);
+		}
+
+		BigDecimal discount = new BigDecimal("0.00");
+		if (subtotal.compareTo(AMOUNT_THRESHOLD) >= 0) {
+			discount = discount.add(subtotal.multiply(LARGE_ORDER_DISCOUNT_RATE).setScale(2, RoundingMode.HALF_UP));
+		}
+		discount = discount.add(subtotal.multiply(PREMIUM_DISCOUNT_RATE).setScale(2, RoundingMode.HALF_UP));
+		discount = discount.add(BigDecimal.ZERO);
+
+		if (discount.compareTo(BigDecimal.ZERO) > 0) {
+			for (int i = 0; i < lines; i++) {
+				BigDecimal itemDiscount = discount.multiply(lineTotals[i]).divide(subtotal, 2, RoundingMode.HALF_UP);
+				lineTotals[i] = lineTotals[i].subtract(itemDiscount);
+			}
+		}
+		lineTotals[0] = subtotal.subtract(discount);
+		return lineTotals;
+	}
+
+	@Benchmark
+	public PricedOrder longCents() {
+		return orderPricer.price(items, products, null, Role.PREMIUM_USER);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OrderPricingBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.service.OrderWriter;
+import com.ecommerce.service.OrderWriter.PendingOrder;
+
+/**
+ * Measures database round trips per placed order.
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.ecommerce.benchmark.OrderRoundTripBenchmark [dev|prod] [lines] [orders]
+ * </pre>
+ *
+ * The dev profile runs against an in-memory H2 database migrated by Flyway. The
+ * prod profile uses DATABASE_URL/DATABASE_USERNAME/DATABASE_PASSWORD and
+ * migrates that database as production does.
+ *
+ * Measured on the dev profile only (statement executions per order, one commit
+ * each):
+ *
+ * <pre>
+ * lines/order   IDENTITY ids   pooled sequences + batching
+ * 50            53.0           5.0
+ * 5             8.0            4.1
+ * </pre>
+ *
+ * No PostgreSQL numbers have been recorded, so nothing here claims a result for
+ * the prod profile. Comparing PostgreSQL before and after was left out of the
+ * change that introduced pooled ids.
+ */
+public class OrderRoundTripBenchmark {
+
+	public static void main(String[] args) {
+		String profile = args.length > 0 ? args[0] : "dev";
+		int lines = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		int orders = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+		RoundTripCounter counter = new RoundTripCounter();
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(EcommerceApplication.class).profiles(profile)
+				.web(WebApplicationType.NONE)
+				.initializers(context -> context.getBeanFactory().addBeanPostProcessor(counter));
+		List<String> overrides = new ArrayList<>(List.of("--app.cache.enabled=false", "--spring.cache.type=none",
+				"--app.orders.group-commit.enabled=false", "--logging.level.org.hibernate.SQL=WARN"));
+		if ("dev".equals(profile)) {
+			overrides.add("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+		}
+
+		try (ConfigurableApplicationContext context = builder.run(overrides.toArray(String[]::new))) {
+			ProductRepository productRepository = context.getBean(ProductRepository.class);
+			UserRepository userRepository = context.getBean(UserRepository.class);
+			OrderWriter orderWriter = context.getBean(OrderWriter.class);
+
+			User user = userRepository.save(User.builder().username("bench-" + System.nanoTime())
+					.email(System.nanoTime() + "@bench.test").password("x").role(Role.USER).build());
+			List<OrderItemRequest> items = new ArrayList<>(lines);
+			for (int i = 0; i < lines; i++) {
+				Product product = productRepository.save(Product.builder().name("Bench product " + i)
+						.price(new BigDecimal("9.99")).quantity(1_000_000).deleted(false).build());
+				items.add(new OrderItemRequest(product.getId(), 1));
+			}
+			OrderRequest request = new OrderRequest(items, null);
+
+			// Warm up id blocks and statement caches before measuring
+			orderWriter.write(new PendingOrder(user, request));
+			counter.reset();
+
+			for (int i = 0; i < orders; i++) {
+				orderWriter.write(new PendingOrder(user, request));
+			}
+
+			System.out.printf("profile=%s lines/order=%d orders=%d round trips/order=%.1f commits/order=%.1f%n",
+					profile, lines, orders, (double) counter.executions() / orders, (double) counter.commits() / orders);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ecommerce.search.TrigramIndex;
+
+/**
+ * Name searches over synthetic product names with {@link TrigramIndex} versus
+ * scanning every lower-cased name, which is what a LIKE '%name%' query does in
+ * the database. Queries range from one matching product to a few thousand:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx2g -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.ecommerce.benchmark.ProductNameIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductNameIndexBenchmark {
+
+	private static final int MAX_CANDIDATES = 2_000;
+
+	private static final String[] BRANDS = { "Acme", "Globex", "Initech", "Umbrella", "Hooli", "Vandelay", "Stark",
+			"Wayne", "Wonka", "Tyrell" };
+
+	private static final String[] ADJECTIVES = { "Wireless", "Ergonomic", "Compact", "Premium", "Portable",
+			"Rugged", "Slim", "Smart", "Classic", "Pro" };
+
+	private static final String[] NOUNS = { "Mouse", "Keyboard", "Monitor", "Headset", "Webcam", "Speaker", "Charger",
+			"Router", "Tablet", "Lamp", "Backpack", "Cable", "Adapter", "Microphone", "Dock", "Stand" };
+
+	@Param({ "1000000" })
+	private int products;
+
+	/**
+	 * "sku-0424242" matches one product, "stark premium router" about 625 and
+	 * "wonka slim" about 10000, more than the index returns.
+	 */
+	@Param({ "sku-0424242", "stark premium router", "wonka slim" })
+	private String query;
+
+	private TrigramIndex index;
+
+	private String[] names;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		index = new TrigramIndex(products);
+		names = new String[products];
+		for (int id = 0; id < products; id++) {
+			String name = BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+					+ " " + NOUNS[random.nextInt(NOUNS.length)] + " SKU-" + String.format("%07d", id);
+			index.put(id, name);
+			names[id] = name.toLowerCase(Locale.ROOT);
+		}
+	}
+
+	@Benchmark
+	public long[] trigramIndex() {
+		return index.search(query, MAX_CANDIDATES);
+	}
+
+	@Benchmark
+	public List<Long> scan() {
+		List<Long> matches = new ArrayList<>();
+		String normalized = query.toLowerCase(Locale.ROOT);
+		for (int id = 0; id < names.length; id++) {
+			if (names[id].contains(normalized)) {
+				matches.add((long) id);
+			}
+		}
+		return matches;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ProductNameIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
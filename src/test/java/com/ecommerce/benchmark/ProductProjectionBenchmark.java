@@ -0,0 +1,123 @@
+package com.ecommerce.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.h2.tools.Server;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.repository.ProductRepository;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Heap allocated and time taken per catalog page, loading managed Product
+ * entities and mapping them to DTOs (the previous read path) versus the
+ * ProductDTO projection query. Both run in a read-only transaction, as in
+ * ProductService:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.ecommerce.benchmark.ProductProjectionBenchmark [dev|prod] [products] [page size]
+ * </pre>
+ *
+ * The dev profile runs against an in-memory H2 database migrated by Flyway and
+ * seeds it with the given number of products. H2 is served over TCP from its
+ * own threads so that only the application side of each read is counted. The prod profile uses
+ * DATABASE_URL/DATABASE_USERNAME/DATABASE_PASSWORD and benchmarks the products
+ * already there.
+ */
+public class ProductProjectionBenchmark {
+
+	private static final int WARMUP_PAGES = 2_000;
+
+	private static final int MEASURED_PAGES = 2_000;
+
+	private static final Sort LISTING_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+	public static void main(String[] args) throws SQLException {
+		String profile = args.length > 0 ? args[0] : "dev";
+		int products = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+		int pageSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(EcommerceApplication.class).profiles(profile)
+				.web(WebApplicationType.NONE);
+		List<String> overrides = new ArrayList<>(List.of("--app.cache.enabled=false", "--spring.cache.type=none",
+				"--app.warmup.enabled=false", "--logging.level.org.hibernate.SQL=WARN"));
+		Server h2 = null;
+		if ("dev".equals(profile)) {
+			h2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+			overrides.add("--spring.datasource.url=jdbc:h2:tcp://localhost:" + h2.getPort()
+					+ "/mem:benchmark;DB_CLOSE_DELAY=-1");
+		}
+
+		try (ConfigurableApplicationContext context = builder.run(overrides.toArray(String[]::new))) {
+			ProductRepository productRepository = context.getBean(ProductRepository.class);
+			TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+			readOnly.setReadOnly(true);
+			if ("dev".equals(profile)) {
+				seed(context.getBean(JdbcTemplate.class), products);
+			}
+			int pages = (int) Math.max(1, Math.min(productRepository.count() / pageSize, 100));
+
+			IntFunction<Object> entities = page -> readOnly
+					.execute(status -> productRepository.findByDeletedFalse(PageRequest.of(page, pageSize, LISTING_SORT))
+							.map(product -> new ProductDTO(product.getId(), product.getName(), product.getDescription(),
+									product.getPrice(), product.getQuantity(), product.getDeleted())));
+			IntFunction<Object> projection = page -> readOnly.execute(
+					status -> productRepository.findListedProducts(PageRequest.of(page, pageSize, LISTING_SORT)));
+
+			System.out.printf("profile=%s products=%d page size=%d, mean over %d pages%n", profile,
+					productRepository.count(), pageSize, MEASURED_PAGES);
+			System.out.printf("%-12s %14s %12s%n", "read path", "bytes/page", "us/page");
+			measure("entities", entities, pages);
+			measure("projection", projection, pages);
+		} finally {
+			if (h2 != null) {
+				h2.stop();
+			}
+		}
+	}
+
+	private static void seed(JdbcTemplate jdbcTemplate, int products) {
+		LocalDateTime start = LocalDateTime.now().minusDays(365);
+		String description = "A product description of a typical length for the catalog. ".repeat(4);
+		List<Object[]> rows = new ArrayList<>(products);
+		for (int i = 0; i < products; i++) {
+			rows.add(new Object[] { "Bench product " + i, description, BigDecimal.valueOf(i % 10_000, 2), 100,
+					Timestamp.valueOf(start.plusSeconds(i * 13L)) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, quantity, deleted, created_at) "
+				+ "VALUES (?, ?, ?, ?, FALSE, ?)", rows);
+	}
+
+	private static void measure(String name, IntFunction<Object> readPage, int pages) {
+		for (int i = 0; i < WARMUP_PAGES; i++) {
+			readPage.apply(i % pages);
+		}
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_PAGES; i++) {
+			readPage.apply(i % pages);
+		}
+		long nanos = System.nanoTime() - start;
+		long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+		System.out.printf("%-12s %14d %12.1f%n", name, bytes / MEASURED_PAGES, nanos / 1_000.0 / MEASURED_PAGES);
+	}
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the application DataSource and counts statement executions and
+ * commits, i.e. database round trips. A JDBC batch counts once.
+ */
+class RoundTripCounter implements BeanPostProcessor {
+
+	private final AtomicLong executions = new AtomicLong();
+
+	private final AtomicLong commits = new AtomicLong();
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource) {
+			return proxy(DataSource.class, dataSource);
+		}
+		return bean;
+	}
+
+	long executions() {
+		return executions.get();
+	}
+
+	long commits() {
+		return commits.get();
+	}
+
+	void reset() {
+		executions.set(0);
+		commits.set(0);
+	}
+
+	private <T> T proxy(Class<T> type, T target) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			count(method);
+			Object result = invoke(method, target, args);
+			return wrap(result);
+		};
+		return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler));
+	}
+
+	private Object wrap(Object result) {
+		if (result instanceof CallableStatement statement) {
+			return proxy(CallableStatement.class, statement);
+		}
+		if (result instanceof PreparedStatement statement) {
+			return proxy(PreparedStatement.class, statement);
+		}
+		if (result instanceof Statement statement) {
+			return proxy(Statement.class, statement);
+		}
+		if (result instanceof Connection connection) {
+			return proxy(Connection.class, connection);
+		}
+		return result;
+	}
+
+	private void count(Method method) {
+		String name = method.getName();
+		if (name.startsWith("execute")) {
+			executions.incrementAndGet();
+		} else if (name.equals("commit")) {
+			commits.incrementAndGet();
+		}
+	}
+
+	private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException ex) {
+			throw ex.getCause();
+		}
+	}
+}
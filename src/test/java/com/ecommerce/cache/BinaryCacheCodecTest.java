@@ -0,0 +1,120 @@
+package com.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.ecommerce.dto.OrderItemDTO;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.service.ListingCache.CachedPage;
+
+class BinaryCacheCodecTest {
+
+	private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+	private final BinaryCacheCodec codec = new BinaryCacheCodec(json, 1024);
+
+	@Test
+	void roundTripsProduct() {
+		ProductDTO product = new ProductDTO(1L, "Laptop", "Gaming laptop", new BigDecimal("999.99"), 10, false);
+		ProductDTO sparse = new ProductDTO(2L, "Mouse", null, new BigDecimal("-0.50"), null, null);
+
+		assertEquals(product, codec.deserialize(codec.serialize(product)));
+		assertEquals(sparse, codec.deserialize(codec.serialize(sparse)));
+	}
+
+	@Test
+	void roundTripsOrderAndPages() {
+		OrderResponse order = order(1L);
+		CachedPage<OrderResponse> orders = new CachedPage<>(List.of(order, order(2L)), 42);
+		CachedPage<ProductDTO> products = new CachedPage<>(
+				List.of(new ProductDTO(1L, "Laptop", null, new BigDecimal("999.99"), 10, true)), 1);
+
+		assertEquals(order, codec.deserialize(codec.serialize(order)));
+		assertEquals(orders, codec.deserialize(codec.serialize(orders)));
+		assertEquals(products, codec.deserialize(codec.serialize(products)));
+	}
+
+	@Test
+	void roundTripsRefreshableValue() {
+		RefreshableValue product = new RefreshableValue(
+				new ProductDTO(1L, "Laptop", null, new BigDecimal("999.99"), 10, false), 1_735_732_800_000L, 12L);
+		RefreshableValue page = new RefreshableValue(new CachedPage<>(List.of(order(1L)), 1), 1_735_732_800_000L, 3L);
+
+		assertEquals(product, codec.deserialize(codec.serialize(product)));
+		assertEquals(page, codec.deserialize(codec.serialize(page)));
+	}
+
+	@Test
+	void roundTripsGenerationToken() {
+		assertEquals(Long.MIN_VALUE, codec.deserialize(codec.serialize(Long.MIN_VALUE)));
+		assertEquals(-42L, codec.deserialize(codec.serialize(-42L)));
+	}
+
+	@Test
+	void compressesAboveThreshold() {
+		List<ProductDTO> content = new ArrayList<>();
+		for (long id = 1; id <= 50; id++) {
+			content.add(new ProductDTO(id, "Product " + id, "The same long description for every product",
+					new BigDecimal("19.99"), 100, false));
+		}
+		CachedPage<ProductDTO> page = new CachedPage<>(content, 500);
+
+		byte[] compressed = codec.serialize(page);
+		byte[] uncompressed = new BinaryCacheCodec(json, Integer.MAX_VALUE).serialize(page);
+
+		assertEquals(BinaryCacheCodec.FORMAT_VERSION, compressed[0]);
+		assertEquals(1, compressed[1]);
+		assertEquals(0, uncompressed[1]);
+		assertTrue(compressed.length < uncompressed.length);
+		assertEquals(page, codec.deserialize(compressed));
+	}
+
+	@Test
+	void delegatesOtherTypesToFallback() {
+		assertEquals("plain", codec.deserialize(codec.serialize("plain")));
+	}
+
+	@Test
+	void readsJsonWrittenBeforeCodec() {
+		assertEquals("legacy", codec.deserialize(json.serialize("legacy")));
+		assertEquals(-42_000_000_000L, codec.deserialize(json.serialize(-42_000_000_000L)));
+		assertEquals(new ArrayList<>(List.of("a", "b")), codec.deserialize(json.serialize(new ArrayList<>(List.of("a", "b")))));
+	}
+
+	@Test
+	void unknownVersionOrCorruptValue_readAsMiss() {
+		byte[] bytes = codec.serialize(order(1L));
+
+		byte[] newerVersion = bytes.clone();
+		newerVersion[0] = BinaryCacheCodec.FORMAT_VERSION + 1;
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+		assertNull(codec.deserialize(newerVersion));
+		assertNull(codec.deserialize(truncated));
+		assertNull(codec.deserialize(null));
+		assertNull(codec.deserialize(new byte[0]));
+		assertNull(codec.serialize(null));
+	}
+
+	private static OrderResponse order(Long id) {
+		OrderItemDTO laptop = new OrderItemDTO(1L, 2L, "Laptop", 1, new BigDecimal("999.99"), new BigDecimal("50.00"),
+				new BigDecimal("949.99"));
+		OrderItemDTO mouse = new OrderItemDTO(2L, 3L, "Mouse", 2, new BigDecimal("25.50"), BigDecimal.ZERO,
+				new BigDecimal("51.00"));
+		return new OrderResponse(id, 1L, "manoj", List.of(laptop, mouse), new BigDecimal("1000.99"),
+				new BigDecimal("50.00"), OrderStatus.PENDING, LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_000_000),
+				null);
+	}
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.cache.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(10), clock::get);
+
+	@Test
+	void opensAfterConsecutiveFailures() {
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		assertEquals(State.CLOSED, circuitBreaker.state());
+
+		circuitBreaker.onFailure();
+
+		assertEquals(State.OPEN, circuitBreaker.state());
+		assertFalse(circuitBreaker.tryAcquire());
+	}
+
+	@Test
+	void halfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+		List<State> transitions = new ArrayList<>();
+		circuitBreaker.addListener(transitions::add);
+		open();
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+		assertTrue(circuitBreaker.tryAcquire());
+		assertEquals(State.HALF_OPEN, circuitBreaker.state());
+		assertFalse(circuitBreaker.tryAcquire());
+
+		circuitBreaker.onSuccess();
+
+		assertEquals(State.CLOSED, circuitBreaker.state());
+		assertTrue(circuitBreaker.tryAcquire());
+		assertEquals(List.of(State.OPEN, State.HALF_OPEN, State.CLOSED), transitions);
+	}
+
+	@Test
+	void failedProbeOpensAgain() {
+		open();
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertTrue(circuitBreaker.tryAcquire());
+
+		circuitBreaker.onFailure();
+
+		assertEquals(State.OPEN, circuitBreaker.state());
+		assertFalse(circuitBreaker.tryAcquire());
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertTrue(circuitBreaker.tryAcquire());
+	}
+
+	@Test
+	void lostProbeIsReplacedAfterOpenDuration() {
+		open();
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertTrue(circuitBreaker.tryAcquire());
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+		assertTrue(circuitBreaker.tryAcquire());
+		assertEquals(State.HALF_OPEN, circuitBreaker.state());
+	}
+
+	private void open() {
+		for (int i = 0; i < 3; i++) {
+			circuitBreaker.onFailure();
+		}
+		assertEquals(State.OPEN, circuitBreaker.state());
+	}
+}
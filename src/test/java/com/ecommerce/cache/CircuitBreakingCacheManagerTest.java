@@ -0,0 +1,162 @@
+package com.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import com.ecommerce.cache.CircuitBreaker.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CircuitBreakingCacheManagerTest {
+
+	private static final Duration OPEN = Duration.ofSeconds(10);
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RedisStandIn redis = new RedisStandIn();
+
+	private CircuitBreaker circuitBreaker;
+
+	private Cache products;
+
+	@BeforeEach
+	void setUp() {
+		circuitBreaker = new CircuitBreaker(3, OPEN, clock::get);
+		CircuitBreakingCacheManager cacheManager = new CircuitBreakingCacheManager(redis, circuitBreaker, 100,
+				Duration.ofMinutes(1), 10, meterRegistry);
+		products = cacheManager.getCache("products");
+	}
+
+	@Test
+	void redisKilledMidTest_failsFastToLocalFallbackAndRecovers() {
+		products.put(1L, "Laptop");
+		products.put(2L, "Mouse");
+		assertEquals("Laptop", products.get(1L, String.class));
+
+		redis.kill();
+
+		// Failing calls fall back to the empty local cache, i.e. the caller reads the database
+		for (int i = 0; i < 3; i++) {
+			assertNull(products.get(1L));
+		}
+		assertEquals(State.OPEN, circuitBreaker.state());
+		assertEquals(1.0, meterRegistry.get("cache.circuit.state").tag("state", "open").gauge().value());
+
+		// Open: Redis is no longer called and the local cache serves what was loaded meanwhile
+		int callsWhenOpened = redis.calls.get();
+		products.put(1L, "Gaming laptop");
+		products.evict(2L);
+		assertEquals("Gaming laptop", products.get(1L, String.class));
+		assertEquals(callsWhenOpened, redis.calls.get());
+
+		redis.revive();
+		clock.addAndGet(OPEN.toNanos());
+
+		// The probe closes the circuit and the missed write and eviction are replayed as evictions
+		assertNull(products.get(1L));
+		assertEquals(State.CLOSED, circuitBreaker.state());
+		assertNull(redis.getCache("products").get(1L));
+		assertNull(redis.getCache("products").get(2L));
+		assertEquals(1.0, meterRegistry.get("cache.circuit.transitions").tag("state", "closed").counter().count());
+	}
+
+	@Test
+	void tooManyMissedEvictions_clearTheCacheOnRecovery() {
+		products.put(100L, "Keyboard");
+		redis.kill();
+		for (long id = 0; id <= 10; id++) {
+			products.evict(id);
+		}
+
+		redis.revive();
+		clock.addAndGet(OPEN.toNanos());
+		products.get(1L);
+
+		assertNull(redis.getCache("products").get(100L));
+	}
+
+	@Test
+	void missedEvictionWhileClosed_replayedOnNextSuccess() {
+		products.put(1L, "Laptop");
+		redis.kill();
+
+		// One failure leaves the circuit closed, so no state change replays the eviction
+		products.put(1L, "Gaming laptop");
+		assertEquals(State.CLOSED, circuitBreaker.state());
+
+		redis.revive();
+		assertNull(products.get(2L));
+		assertNull(redis.getCache("products").get(1L));
+
+		products.put(1L, "Gaming laptop");
+		assertEquals("Gaming laptop", products.get(1L, String.class));
+	}
+
+	/**
+	 * Stands in for Redis: an in-memory cache manager whose caches fail like an
+	 * unreachable Redis while it is killed.
+	 */
+	private static class RedisStandIn extends ConcurrentMapCacheManager {
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private volatile boolean killed;
+
+		void kill() {
+			killed = true;
+		}
+
+		void revive() {
+			killed = false;
+		}
+
+		@Override
+		protected Cache createConcurrentMapCache(String name) {
+			return new ConcurrentMapCache(name) {
+				@Override
+				protected Object lookup(Object key) {
+					check();
+					return super.lookup(key);
+				}
+
+				@Override
+				public void put(Object key, Object value) {
+					check();
+					super.put(key, value);
+				}
+
+				@Override
+				public void evict(Object key) {
+					check();
+					super.evict(key);
+				}
+
+				@Override
+				public void clear() {
+					check();
+					super.clear();
+				}
+			};
+		}
+
+		private void check() {
+			calls.incrementAndGet();
+			if (killed) {
+				throw new RedisConnectionFailureException("Unable to connect to Redis");
+			}
+		}
+	}
+}
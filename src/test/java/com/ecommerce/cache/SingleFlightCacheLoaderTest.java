@@ -0,0 +1,157 @@
+package com.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightCacheLoaderTest {
+
+	private static final Duration TTL = Duration.ofMinutes(10);
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	private SingleFlightCacheLoader cacheLoader;
+
+	@BeforeEach
+	void setUp() {
+		cacheLoader = new SingleFlightCacheLoader(cacheManager, meterRegistry, TTL, 1.0);
+	}
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void get_concurrentMissesLoadOnce() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> leader = executor.submit(() -> cacheLoader.get("products", 1L, () -> {
+			loads.incrementAndGet();
+			await(release);
+			return "Laptop";
+		}));
+		awaitCount("miss", 1);
+
+		List<Future<String>> followers = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			followers.add(executor.submit(() -> cacheLoader.get("products", 1L, () -> {
+				loads.incrementAndGet();
+				return "Other";
+			})));
+		}
+		awaitCount("coalesced", 7);
+		release.countDown();
+
+		assertEquals("Laptop", leader.get(5, TimeUnit.SECONDS));
+		for (Future<String> follower : followers) {
+			assertEquals("Laptop", follower.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+		assertEquals("Laptop", cacheLoader.get("products", 1L, () -> "Other"));
+	}
+
+	@Test
+	void get_loaderFailureIsNotCached() {
+		IllegalStateException failure = new IllegalStateException("database down");
+
+		assertSame(failure, assertThrows(IllegalStateException.class, () -> cacheLoader.get("products", 1L, () -> {
+			throw failure;
+		})));
+		assertEquals("Laptop", cacheLoader.get("products", 1L, () -> "Laptop"));
+	}
+
+	@Test
+	void get_freshEntryIsServedFromCache() {
+		cacheLoader.get("products", 1L, () -> "Laptop");
+
+		assertEquals("Laptop", cacheLoader.get("products", 1L, () -> "Reloaded"));
+	}
+
+	@Test
+	void get_entryAtItsTtlIsRefreshed() {
+		long loadedAt = System.currentTimeMillis() - TTL.toMillis();
+		cacheManager.getCache("products").put(1L, new RefreshableValue("Laptop", loadedAt, 5L));
+
+		assertEquals("Gaming laptop", cacheLoader.get("products", 1L, () -> "Gaming laptop"));
+		assertEquals("Gaming laptop",
+				((RefreshableValue) cacheManager.getCache("products").get(1L).get()).value());
+	}
+
+	@Test
+	void get_servesCurrentValueWhileAnotherCallerRefreshes() throws Exception {
+		long loadedAt = System.currentTimeMillis() - TTL.toMillis();
+		cacheManager.getCache("products").put(1L, new RefreshableValue("Laptop", loadedAt, 5L));
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> refresher = executor.submit(() -> cacheLoader.get("products", 1L, () -> {
+			await(release);
+			return "Gaming laptop";
+		}));
+		awaitCount("refresh", 1);
+
+		assertEquals("Laptop", cacheLoader.get("products", 1L, () -> "Other"));
+
+		release.countDown();
+		assertEquals("Gaming laptop", refresher.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void shouldRefresh_earlierForSlowLoadsAndLuckyDraws() {
+		long ttl = TTL.toMillis();
+		RefreshableValue fast = new RefreshableValue("a", 0L, 1L);
+		RefreshableValue slow = new RefreshableValue("a", 0L, 2_000L);
+
+		// One second before expiry
+		assertFalse(SingleFlightCacheLoader.shouldRefresh(ttl - 1_000L, fast, ttl, 1.0, 0.5));
+		assertFalse(SingleFlightCacheLoader.shouldRefresh(ttl - 1_000L, slow, ttl, 1.0, 0.1));
+		assertTrue(SingleFlightCacheLoader.shouldRefresh(ttl - 1_000L, slow, ttl, 1.0, 0.5));
+		// At expiry every draw refreshes
+		assertTrue(SingleFlightCacheLoader.shouldRefresh(ttl, fast, ttl, 1.0, 0.0));
+	}
+
+	private void awaitCount(String result, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count(result) < expected && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(expected, count(result));
+	}
+
+	private int count(String result) {
+		Counter counter = meterRegistry.find("cache.loads").tag("result", result).counter();
+		return counter == null ? 0 : (int) counter.count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoLevelCacheManagerTest {
+
+	// Stands in for Redis: one shared cache manager and one transport for both nodes
+	private ConcurrentMapCacheManager redis;
+
+	private TwoLevelCacheManager nodeA;
+
+	private TwoLevelCacheManager nodeB;
+
+	@BeforeEach
+	void setUp() {
+		redis = new ConcurrentMapCacheManager();
+		InMemoryCacheInvalidationTransport transport = new InMemoryCacheInvalidationTransport();
+		nodeA = new TwoLevelCacheManager(redis, Set.of("products"), transport, 100, Duration.ofMinutes(1));
+		nodeB = new TwoLevelCacheManager(redis, Set.of("products"), transport, 100, Duration.ofMinutes(1));
+	}
+
+	@Test
+	void get_servedFromNearCacheAfterFirstRead() {
+		nodeA.getCache("products").put(1L, "Laptop");
+		assertEquals("Laptop", nodeB.getCache("products").get(1L, String.class));
+
+		// Changed behind the near caches' back: both nodes keep serving their L1 copy
+		redis.getCache("products").put(1L, "Changed");
+		assertEquals("Laptop", nodeA.getCache("products").get(1L, String.class));
+		assertEquals("Laptop", nodeB.getCache("products").get(1L, String.class));
+	}
+
+	@Test
+	void put_invalidatesOtherNodes() {
+		nodeA.getCache("products").put(1L, "Laptop");
+		nodeB.getCache("products").get(1L);
+
+		nodeA.getCache("products").put(1L, "Gaming laptop");
+
+		assertEquals("Gaming laptop", nodeB.getCache("products").get(1L, String.class));
+	}
+
+	@Test
+	void evict_invalidatesOtherNodes() {
+		nodeA.getCache("products").put(1L, "Laptop");
+		nodeB.getCache("products").get(1L);
+
+		nodeA.getCache("products").evict(1L);
+
+		assertNull(nodeB.getCache("products").get(1L));
+		assertNull(redis.getCache("products").get(1L));
+	}
+
+	@Test
+	void clear_invalidatesOtherNodes() {
+		nodeA.getCache("products").put(1L, "Laptop");
+		nodeB.getCache("products").get(1L);
+
+		nodeA.getCache("products").clear();
+
+		assertNull(nodeB.getCache("products").get(1L));
+	}
+
+	@Test
+	void load_doesNotInvalidateOtherNodes() {
+		redis.getCache("products").put(1L, "Laptop");
+		assertEquals("Laptop", nodeB.getCache("products").get(1L, String.class));
+		redis.getCache("products").evict(1L);
+
+		SingleFlightCacheLoader loaderA = new SingleFlightCacheLoader(nodeA, new SimpleMeterRegistry(),
+				Duration.ofMinutes(10), 1.0);
+		assertEquals("Laptop", loaderA.get("products", 1L, () -> "Laptop"));
+
+		// Node B keeps its L1 copy instead of being sent back to Redis
+		assertInstanceOf(RefreshableValue.class, redis.getCache("products").get(1L).get());
+		assertEquals("Laptop", nodeB.getCache("products").get(1L, String.class));
+	}
+
+	@Test
+	void getWithLoader_fillsBothLevels() {
+		assertEquals("Mouse", nodeA.getCache("products").get(2L, () -> "Mouse"));
+
+		assertEquals("Mouse", redis.getCache("products").get(2L, String.class));
+		assertEquals("Mouse", nodeA.getCache("products").get(2L, () -> "Reloaded"));
+	}
+
+	@Test
+	void getCache_otherCachesAreNotWrapped() {
+		Cache cache = nodeA.getCache("productPages");
+
+		assertSame(redis.getCache("productPages"), cache);
+		assertInstanceOf(TwoLevelCache.class, nodeA.getCache("products"));
+	}
+
+	@Test
+	void invalidation_roundTripsThroughWireForm() {
+		CacheInvalidation evict = new CacheInvalidation("node", "products", "42");
+		CacheInvalidation clear = CacheInvalidation.clear("node", "products");
+
+		assertEquals(evict, CacheInvalidation.decode(evict.encode()));
+		assertEquals(clear, CacheInvalidation.decode(clear.encode()));
+	}
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.ecommerce.dto.OrderItemDTO;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.service.ListingCache.CachedPage;
+
+class CacheConfigTest {
+
+	private final GenericJackson2JsonRedisSerializer serializer = CacheConfig.redisValueSerializer();
+
+	@Test
+	void redisValueSerializer_roundTripsOrderPage() {
+		OrderItemDTO item = new OrderItemDTO(1L, 2L, "Laptop", 1, new BigDecimal("999.99"), BigDecimal.ZERO,
+				new BigDecimal("999.99"));
+		OrderResponse order = new OrderResponse(1L, 1L, "manoj", List.of(item), new BigDecimal("999.99"),
+				BigDecimal.ZERO, OrderStatus.PENDING, LocalDateTime.of(2025, 1, 1, 12, 0), null);
+		CachedPage<OrderResponse> page = new CachedPage<>(List.of(order), 7);
+
+		assertEquals(page, serializer.deserialize(serializer.serialize(page)));
+		assertEquals(order, serializer.deserialize(serializer.serialize(order)));
+	}
+
+	@Test
+	void redisValueSerializer_roundTripsVersionToken() {
+		assertEquals(-42L, serializer.deserialize(serializer.serialize(-42L)));
+	}
+}
@@ -67,7 +67,7 @@ class SecurityConfigTest {
         assertEquals(List.of("*"), config.getAllowedOriginPatterns());
         assertFalse(config.getAllowCredentials());
         assertEquals(List.of("GET","POST","PUT","DELETE","OPTIONS"), config.getAllowedMethods());
-        assertEquals(List.of("Authorization","Content-Type"), config.getAllowedHeaders());
+        assertEquals(List.of("Authorization","Content-Type","Idempotency-Key"), config.getAllowedHeaders());
     }
 
     @Test
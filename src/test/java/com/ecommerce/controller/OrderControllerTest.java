@@ -2,6 +2,8 @@ package com.ecommerce.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -22,12 +24,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.ecommerce.dto.BatchOrderRequest;
+import com.ecommerce.dto.BatchOrderResponse;
+import com.ecommerce.dto.BatchOrderResult;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.dto.OrderItemDTO;
 import com.ecommerce.dto.OrderItemRequest;
 import com.ecommerce.dto.OrderRequest;
 import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.OrderTicketResponse;
 import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.service.AsyncOrderService;
+import com.ecommerce.service.IdempotencyService;
 import com.ecommerce.service.OrderService;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +49,12 @@ class OrderControllerUnitTest {
 	@Mock
 	private OrderService orderService;
 
+	@Mock
+	private AsyncOrderService asyncOrderService;
+
+	@Mock
+	private IdempotencyService idempotencyService;
+
 	@InjectMocks
 	private OrderController orderController;
 
@@ -67,7 +85,7 @@ class OrderControllerUnitTest {
     void createOrder_Success() {
         when(orderService.placeOrder(any(OrderRequest.class))).thenReturn(orderResponse);
 
-        ResponseEntity<OrderResponse> response = orderController.createOrder(validOrderRequest);
+        ResponseEntity<OrderResponse> response = orderController.createOrder(validOrderRequest, null);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(OrderStatus.PENDING, response.getBody().status());
@@ -84,11 +102,66 @@ class OrderControllerUnitTest {
 		// You must mock service to not throw exception
 		when(orderService.placeOrder(any(OrderRequest.class))).thenReturn(orderResponse);
 
-		ResponseEntity<OrderResponse> response = orderController.createOrder(request);
+		ResponseEntity<OrderResponse> response = orderController.createOrder(request, null);
 
 		assertEquals(HttpStatus.CREATED, response.getStatusCode()); // 201
 	}
 
+	@Test
+	void createOrder_WithIdempotencyKey_PlacesOnce() {
+		when(idempotencyService.placeOnce(eq("key-1"), eq(validOrderRequest), any())).thenReturn(orderResponse);
+
+		ResponseEntity<OrderResponse> response = orderController.createOrder(validOrderRequest, "key-1");
+
+		assertEquals(HttpStatus.CREATED, response.getStatusCode());
+		assertEquals(1L, response.getBody().id());
+		verify(orderService, never()).placeOrder(any(OrderRequest.class));
+	}
+
+	@Test
+	void createOrders_ReturnsPerOrderResults() {
+		BatchOrderRequest request = new BatchOrderRequest(List.of(validOrderRequest, validOrderRequest));
+		BatchOrderResponse batch = new BatchOrderResponse(1, 1, List.of(new BatchOrderResult(0, true, orderResponse,
+				null), new BatchOrderResult(1, false, null, "Insufficient stock")));
+		when(orderService.placeOrders(request)).thenReturn(batch);
+
+		ResponseEntity<BatchOrderResponse> response = orderController.createOrders(request);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(1, response.getBody().succeeded());
+		assertEquals("Insufficient stock", response.getBody().results().get(1).error());
+	}
+
+	@Test
+	void createOrderAsync_ReturnsAcceptedWithTicketLocation() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		OrderTicketResponse ticket = new OrderTicketResponse("t-1", OrderTicketResponse.Status.QUEUED, null, null,
+				LocalDateTime.now(), null);
+		when(asyncOrderService.submit(validOrderRequest)).thenReturn(ticket);
+
+		try {
+			ResponseEntity<OrderTicketResponse> response = orderController.createOrderAsync(validOrderRequest);
+
+			assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+			assertEquals("t-1", response.getBody().ticketId());
+			assertEquals("/api/orders/tickets/t-1", response.getHeaders().getLocation().getPath());
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void getOrderTicket_Success() {
+		OrderTicketResponse ticket = new OrderTicketResponse("t-1", OrderTicketResponse.Status.COMPLETED,
+				orderResponse, null, LocalDateTime.now(), LocalDateTime.now());
+		when(asyncOrderService.getTicket("t-1")).thenReturn(ticket);
+
+		ResponseEntity<OrderTicketResponse> response = orderController.getOrderTicket("t-1");
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(1L, response.getBody().order().id());
+	}
+
 	@Test
     void getOrderById_Success() {
         when(orderService.getOrderById(1L)).thenReturn(orderResponse);
@@ -118,6 +191,19 @@ class OrderControllerUnitTest {
 		verify(orderService).getMyOrders(pageable);
 	}
 
+	@Test
+	void getMyOrdersByCursor_Success() {
+		CursorPage<OrderResponse> page = new CursorPage<>(List.of(orderResponse), 10, true, "next");
+
+		when(orderService.getMyOrders("after", 10)).thenReturn(page);
+
+		ResponseEntity<CursorPage<OrderResponse>> response = orderController.getMyOrdersByCursor("after", 10);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(1, response.getBody().content().size());
+		assertEquals("next", response.getBody().nextCursor());
+	}
+
 	@Test
 	void getAllOrders_Success_WhenAdmin() {
 		Pageable pageable = PageRequest.of(0, 10);
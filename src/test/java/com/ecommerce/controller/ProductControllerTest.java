@@ -23,7 +23,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedSearchResponse;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
 import com.ecommerce.service.ProductService;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,6 +62,18 @@ class ProductControllerUnitTest {
 		verify(productService).getAllProducts(any(Pageable.class));
 	}
 
+	@Test
+	void getProductsByCursor_Success() {
+		CursorPage<ProductDTO> page = new CursorPage<>(List.of(sampleProduct), 10, false, null);
+
+		when(productService.getProducts("price", "asc", null, 10)).thenReturn(page);
+
+		ResponseEntity<CursorPage<ProductDTO>> response = productController.getProductsByCursor("price", "asc", null, 10);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("Laptop", response.getBody().content().get(0).name());
+	}
+
 	@Test
     void getProductById_Success() {
         when(productService.getProductById(1L)).thenReturn(sampleProduct);
@@ -88,6 +103,22 @@ class ProductControllerUnitTest {
 		verify(productService).searchProducts(any(), any(), any(), any(), any());
 	}
 
+	@Test
+	void searchProductsWithFacets_returnsPageAndFacets() {
+		Pageable pageable = PageRequest.of(0, 10);
+		ProductFacets facets = new ProductFacets(
+				List.of(new ProductFacets.PriceBucket(BigDecimal.ZERO, null, 1)), 1, 0);
+		when(productService.searchProductsWithFacets("Laptop", null, null, true, pageable)).thenReturn(
+				new FacetedSearchResponse(new PageImpl<>(List.of(sampleProduct), pageable, 1), facets));
+
+		ResponseEntity<FacetedSearchResponse> response = productController.searchProductsWithFacets("Laptop", null,
+				null, true, pageable);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("Laptop", response.getBody().products().getContent().get(0).name());
+		assertEquals(facets, response.getBody().facets());
+	}
+
 	@Test
 	void createProduct_Success() {
 		ProductDTO request = new ProductDTO(null, "New Product", "Description", new BigDecimal("99.99"), 100, false);
@@ -127,4 +158,16 @@ class ProductControllerUnitTest {
 
 		verify(productService).deleteProduct(1L);
 	}
+
+	@Test
+	void restoreProduct_Success() {
+		when(productService.restoreProduct(1L)).thenReturn(sampleProduct);
+
+		ResponseEntity<ProductDTO> response = productController.restoreProduct(1L);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("Laptop", response.getBody().name());
+
+		verify(productService).restoreProduct(1L);
+	}
 }
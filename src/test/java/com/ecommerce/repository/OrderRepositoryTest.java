@@ -0,0 +1,139 @@
+package com.ecommerce.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.config.AuditConfig;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.entity.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the statements behind a page of order responses, walking each order
+ * the way the order mapper does: user, items and each item's product.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(AuditConfig.class)
+class OrderRepositoryTest {
+
+	private static final int USERS = 3;
+
+	private static final int ORDERS_PER_USER = 8;
+
+	private static final int ITEMS_PER_ORDER = 5;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < ITEMS_PER_ORDER * 2; i++) {
+			products.add(entityManager.persist(Product.builder().name("Product " + i).description("")
+					.price(new BigDecimal("9.99")).quantity(100).deleted(false).build()));
+		}
+		for (int u = 0; u < USERS; u++) {
+			User user = entityManager.persist(User.builder().username("reader" + u).email("reader" + u + "@test.io")
+					.password("x").role(Role.USER).build());
+			userId = user.getId();
+			for (int o = 0; o < ORDERS_PER_USER; o++) {
+				Order order = Order.builder().user(user).items(new ArrayList<>()).orderTotal(new BigDecimal("49.95"))
+						.discountApplied(BigDecimal.ZERO).status(OrderStatus.PENDING).build();
+				for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+					order.addItem(OrderItem.builder().product(products.get((o + i) % products.size())).quantity(1)
+							.unitPrice(new BigDecimal("9.99")).discountApplied(BigDecimal.ZERO)
+							.totalPrice(new BigDecimal("9.99")).build());
+				}
+				entityManager.persist(order);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void pageOfAllOrders_loadsInIdCountAndFetchStatements() {
+		Page<Long> ids = orderRepository.findAllIds(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")));
+		List<Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent());
+
+		assertEquals(20 * ITEMS_PER_ORDER, walk(orders));
+		assertEquals(USERS * ORDERS_PER_USER, ids.getTotalElements());
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void pageOfUserOrders_loadsInIdCountAndFetchStatements() {
+		Page<Long> ids = orderRepository.findIdsByUserId(userId, PageRequest.of(0, 5));
+		List<Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent());
+
+		assertEquals(5 * ITEMS_PER_ORDER, walk(orders));
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void sliceOfUserOrders_loadsWithoutCount() {
+		Slice<Long> ids = orderRepository.findNewestIdsByUserId(userId, Pageable.ofSize(ORDERS_PER_USER));
+		List<Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent());
+
+		assertEquals(ORDERS_PER_USER * ITEMS_PER_ORDER, walk(orders));
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void singleOrder_loadsInOneStatement() {
+		Long id = orderRepository.findNewestIdsByUserId(userId, Pageable.ofSize(1)).getContent().get(0);
+		statistics.clear();
+
+		Order order = orderRepository.findWithItemsById(id).orElseThrow();
+
+		assertEquals(ITEMS_PER_ORDER, walk(List.of(order)));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	private static int walk(List<Order> orders) {
+		int items = 0;
+		for (Order order : orders) {
+			order.getUser().getUsername();
+			for (OrderItem item : order.getItems()) {
+				item.getProduct().getName();
+				items++;
+			}
+		}
+		return items;
+	}
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.config.AuditConfig;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Product;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(AuditConfig.class)
+class ProductRepositoryTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		// The Flyway sample data ships its own products
+		entityManager.getEntityManager().createQuery("UPDATE Product p SET p.deleted = true").executeUpdate();
+		persist("Projection mouse", "19.90", 5, false);
+		persist("Projection keyboard", "49.00", 0, false);
+		persist("Projection monitor", "199.00", 2, false);
+		persist("Projection cable", "4.50", 9, true);
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void listedProducts_areProjectedWithoutLoadingEntities() {
+		Page<ProductDTO> page = productRepository.findListedProducts(PageRequest.of(0, 2, Sort.by("price")));
+
+		assertEquals(List.of("Projection mouse", "Projection keyboard"),
+				page.getContent().stream().map(ProductDTO::name).toList());
+		assertEquals(3, page.getTotalElements());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void searchProducts_appliesFiltersToProjectionAndCount() {
+		Page<ProductDTO> page = productRepository.searchProducts("projection", new BigDecimal("10.00"), null, true,
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+		assertEquals(List.of("Projection monitor", "Projection mouse"),
+				page.getContent().stream().map(ProductDTO::name).toList());
+		assertEquals(2, page.getTotalElements());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void searchProductsByIds_appliesPriceAndStockFiltersToGivenIds() {
+		List<Long> ids = productRepository.findActiveNames().stream().map(row -> (Long) row[0]).toList();
+
+		Page<ProductDTO> page = productRepository.searchProductsByIds(ids, null, new BigDecimal("100.00"), true,
+				PageRequest.of(0, 10, Sort.by("price")));
+
+		assertEquals(List.of("Projection mouse"), page.getContent().stream().map(ProductDTO::name).toList());
+		assertEquals(1, page.getTotalElements());
+		assertEquals(3, ids.size());
+	}
+
+	private void persist(String name, String price, int quantity, boolean deleted) {
+		entityManager.persist(Product.builder().name(name).description("Description of " + name)
+				.price(new BigDecimal(price)).quantity(quantity).deleted(deleted).build());
+	}
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class JpqlProductSearchTest {
+
+	private static final ProductDTO MOUSE = new ProductDTO(3L, "Wireless mouse", "Mouse", new BigDecimal("19.90"), 5,
+			false);
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private ProductSearchIndex productSearchIndex;
+
+	@Mock
+	private ProductFacetQuery productFacetQuery;
+
+	@InjectMocks
+	private JpqlProductSearch productSearch;
+
+	@Test
+	void search_filtersIndexMatchesById() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		when(productSearchIndex.search("mouse")).thenReturn(List.of(3L, 7L));
+		when(productRepository.searchProductsByIds(List.of(3L, 7L), null, new BigDecimal("50"), true, pageable))
+				.thenReturn(new PageImpl<>(List.of(MOUSE)));
+
+		assertEquals(1, productSearch.search("mouse", null, new BigDecimal("50"), true, pageable).getTotalElements());
+		verify(productRepository, never()).searchProducts(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void search_noIndexMatchesSkipsDatabase() {
+		when(productSearchIndex.search("zzz")).thenReturn(List.of());
+
+		assertTrue(productSearch.search("zzz", null, null, null, PageRequest.of(0, 10)).isEmpty());
+		verifyNoInteractions(productRepository);
+	}
+
+	@Test
+	void search_fallsBackToLikeWhenIndexCannotAnswer() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		when(productSearchIndex.search("a")).thenReturn(null);
+		when(productRepository.searchProducts("a", null, null, null, pageable))
+				.thenReturn(new PageImpl<>(List.of(MOUSE)));
+
+		assertEquals(1, productSearch.search("a", null, null, null, pageable).getTotalElements());
+	}
+
+	@Test
+	void search_withoutNameSkipsIndex() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		when(productRepository.searchProducts(null, new BigDecimal("10"), null, null, pageable))
+				.thenReturn(new PageImpl<>(List.of(MOUSE)));
+
+		assertEquals(1, productSearch.search(null, new BigDecimal("10"), null, null, pageable).getTotalElements());
+		verifyNoInteractions(productSearchIndex);
+	}
+
+	@Test
+	void facets_countOverIndexMatches() {
+		ProductFacets facets = new ProductFacets(List.of(), 2, 0);
+		when(productSearchIndex.search("mouse")).thenReturn(List.of(3L, 7L));
+		when(productFacetQuery.count(eq("FROM products p WHERE p.deleted = FALSE AND p.id IN (:ids)"),
+				any(MapSqlParameterSource.class), isNull(), eq(new BigDecimal("50")), eq(true))).thenReturn(facets);
+
+		assertEquals(facets, productSearch.facets("mouse", null, new BigDecimal("50"), true));
+	}
+
+	@Test
+	void facets_noIndexMatchesSkipDatabase() {
+		ProductFacets empty = new ProductFacets(List.of(), 0, 0);
+		when(productSearchIndex.search("zzz")).thenReturn(List.of());
+		when(productFacetQuery.empty()).thenReturn(empty);
+
+		assertEquals(empty, productSearch.facets("zzz", null, null, null));
+		verify(productFacetQuery, never()).count(any(), any(), any(), any(), any());
+	}
+}
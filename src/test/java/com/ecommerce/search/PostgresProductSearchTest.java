@@ -0,0 +1,95 @@
+package com.ecommerce.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresProductSearchTest {
+
+	private static final ProductDTO MOUSE = new ProductDTO(3L, "Wireless mouse", "Mouse", new BigDecimal("19.90"), 5,
+			false);
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@InjectMocks
+	private PostgresProductSearch productSearch;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void search_ranksMatchesThenAppliesRequestedSortAndFilters() {
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+		when(jdbcTemplate.query(sql.capture(), params.capture(), any(RowMapper.class))).thenReturn(List.of(MOUSE));
+
+		Page<ProductDTO> page = productSearch.search(" Mouse ", new BigDecimal("10"), null, true,
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price").and(Sort.by("unknown"))));
+
+		assertEquals(List.of(MOUSE), page.getContent());
+		// A short first page is counted without a count query
+		assertEquals(1, page.getTotalElements());
+		verify(jdbcTemplate, never()).queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class));
+		String query = sql.getValue();
+		assertTrue(query.contains("p.search_vector @@ q"));
+		assertTrue(query.contains("AND p.price >= :minPrice AND p.quantity > 0"));
+		assertFalse(query.contains(":maxPrice"));
+		assertTrue(query.endsWith("ORDER BY relevance DESC, p.price DESC, p.id LIMIT :limit OFFSET :offset"));
+		MapSqlParameterSource values = (MapSqlParameterSource) params.getValue();
+		assertEquals("Mouse", values.getValue("name"));
+		assertEquals("%mouse%", values.getValue("pattern"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void search_countsMatchesWhenPageIsFull() {
+		when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+				.thenReturn(List.of(MOUSE));
+		when(jdbcTemplate.queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenReturn(7L);
+
+		Page<ProductDTO> page = productSearch.search("mouse", null, null, null, PageRequest.of(0, 1));
+
+		assertEquals(7, page.getTotalElements());
+	}
+
+	@Test
+	void search_withoutNameUsesFilterQuery() {
+		PageRequest pageable = PageRequest.of(0, 10, Sort.by("name"));
+		when(productRepository.searchProducts(null, null, new BigDecimal("50"), null, pageable))
+				.thenReturn(new PageImpl<>(List.of(MOUSE)));
+
+		assertEquals(1, productSearch.search(" ", null, new BigDecimal("50"), null, pageable).getTotalElements());
+		verifyNoInteractions(jdbcTemplate);
+	}
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.ecommerce.config.AuditConfig;
+import com.ecommerce.dto.ProductFacets;
+import com.ecommerce.dto.ProductFacets.PriceBucket;
+import com.ecommerce.entity.Product;
+
+@DataJpaTest
+@Import(AuditConfig.class)
+class ProductFacetQueryTest {
+
+	private static final String ALL = "FROM products p WHERE p.deleted = FALSE";
+
+	private static final String NAMED = ALL + " AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))";
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private ProductFacetQuery facetQuery;
+
+	@BeforeEach
+	void setUp() {
+		// The Flyway sample data ships its own products
+		entityManager.getEntityManager().createQuery("UPDATE Product p SET p.deleted = true").executeUpdate();
+		persist("Facet mouse", "19.90", 5, false);
+		persist("Facet keyboard", "49.00", 0, false);
+		persist("Facet headset", "80.00", 3, false);
+		persist("Facet monitor", "199.00", 2, false);
+		persist("Facet cable", "4.50", 9, true);
+		persist("Desk lamp", "30.00", 1, false);
+		entityManager.flush();
+
+		facetQuery = new ProductFacetQuery(new NamedParameterJdbcTemplate(dataSource),
+				List.of(new BigDecimal("100"), new BigDecimal("25")));
+	}
+
+	@Test
+	void count_bucketsPricesAndCountsStock() {
+		ProductFacets facets = facetQuery.count(NAMED, new MapSqlParameterSource("name", "facet"), null, null, null);
+
+		assertEquals(List.of(bucket("0", "25", 1), bucket("25", "100", 2), bucket("100", null, 1)),
+				facets.priceBuckets());
+		assertEquals(3, facets.inStock());
+		assertEquals(1, facets.outOfStock());
+	}
+
+	@Test
+	void count_eachFacetIgnoresItsOwnFilter() {
+		ProductFacets facets = facetQuery.count(NAMED, new MapSqlParameterSource("name", "facet"),
+				new BigDecimal("20"), new BigDecimal("100"), true);
+
+		// Price buckets apply availability only: the keyboard is out of stock
+		assertEquals(List.of(bucket("0", "25", 1), bucket("25", "100", 1), bucket("100", null, 1)),
+				facets.priceBuckets());
+		// Stock counts apply the price range only: keyboard and headset
+		assertEquals(1, facets.inStock());
+		assertEquals(1, facets.outOfStock());
+	}
+
+	@Test
+	void count_withoutMatchesIsAllZeros() {
+		assertEquals(facetQuery.empty(),
+				facetQuery.count(NAMED, new MapSqlParameterSource("name", "nothing"), null, null, null));
+		assertEquals(5, facetQuery.count(ALL, new MapSqlParameterSource(), null, null, null).priceBuckets().stream()
+				.mapToLong(PriceBucket::count).sum());
+	}
+
+	private static PriceBucket bucket(String from, String to, long count) {
+		return new PriceBucket(new BigDecimal(from), to == null ? null : new BigDecimal(to), count);
+	}
+
+	private void persist(String name, String price, int quantity, boolean deleted) {
+		entityManager.persist(Product.builder().name(name).description("Description of " + name)
+				.price(new BigDecimal(price)).quantity(quantity).deleted(deleted).build());
+	}
+}
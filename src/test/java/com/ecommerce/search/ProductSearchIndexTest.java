@@ -0,0 +1,66 @@
+package com.ecommerce.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Test
+	void search_returnsNullUntilBuilt() {
+		ProductSearchIndex index = new ProductSearchIndex(productRepository, true, 100);
+		index.indexed(1L, "Wireless mouse");
+
+		assertNull(index.search("mouse"));
+	}
+
+	@Test
+	void rebuild_indexesActiveNamesAndAppliesLaterWrites() {
+		when(productRepository.findActiveNames())
+				.thenReturn(List.of(new Object[] { 1L, "Wireless mouse" }, new Object[] { 2L, "Mouse pad" }));
+		ProductSearchIndex index = new ProductSearchIndex(productRepository, true, 100);
+
+		index.rebuild();
+		index.indexed(3L, "Gaming mouse");
+		index.removed(2L);
+
+		assertEquals(List.of(1L, 3L), index.search("mouse"));
+	}
+
+	@Test
+	void search_returnsNullWhenTooBroad() {
+		when(productRepository.findActiveNames())
+				.thenReturn(List.of(new Object[] { 1L, "Cable one" }, new Object[] { 2L, "Cable two" }));
+		ProductSearchIndex index = new ProductSearchIndex(productRepository, true, 1);
+
+		index.rebuild();
+
+		assertNull(index.search("cable"));
+		assertEquals(List.of(2L), index.search("two"));
+	}
+
+	@Test
+	void disabledIndexIsNeverBuilt() {
+		ProductSearchIndex index = new ProductSearchIndex(productRepository, false, 100);
+
+		index.rebuild();
+
+		assertNull(index.search("mouse"));
+		verify(productRepository, never()).findActiveNames();
+	}
+}
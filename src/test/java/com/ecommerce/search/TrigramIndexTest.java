@@ -0,0 +1,77 @@
+package com.ecommerce.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+	private final TrigramIndex index = new TrigramIndex();
+
+	@Test
+	void search_matchesSubstringsIgnoringCase() {
+		index.put(1, "Wireless Mouse");
+		index.put(2, "Mouse Pad");
+		index.put(3, "Mechanical Keyboard");
+
+		assertArrayEquals(new long[] { 1, 2 }, index.search("MOUSE", 10));
+		assertArrayEquals(new long[] { 1 }, index.search("less mo", 10));
+		assertArrayEquals(new long[0], index.search("monitor", 10));
+	}
+
+	@Test
+	void search_requiresWholeSubstringNotJustItsTrigrams() {
+		// Contains "abc" and "bcd" but not "abcd"
+		index.put(1, "abc-bcd");
+
+		assertArrayEquals(new long[0], index.search("abcd", 10));
+	}
+
+	@Test
+	void search_scansForQueriesShorterThanATrigram() {
+		index.put(1, "Desk");
+		index.put(2, "Lamp");
+
+		assertArrayEquals(new long[] { 1 }, index.search("sk", 10));
+		assertArrayEquals(new long[] { 1, 2 }, index.search("", 10));
+	}
+
+	@Test
+	void search_returnsNullWhenTooManyMatch() {
+		for (long id = 1; id <= 5; id++) {
+			index.put(id, "Cable " + id);
+		}
+
+		assertNull(index.search("cable", 4));
+		assertEquals(5, index.search("cable", 5).length);
+	}
+
+	@Test
+	void put_replacesAndRemoveDropsText() {
+		index.put(1, "Old name");
+		index.put(1, "New name");
+		index.put(2, "Other name");
+		index.remove(2);
+
+		assertArrayEquals(new long[0], index.search("old", 10));
+		assertArrayEquals(new long[] { 1 }, index.search("name", 10));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void compaction_keepsLiveTextsSearchable() {
+		for (long id = 0; id < 5_000; id++) {
+			index.put(id, "Product " + id);
+		}
+		for (long id = 0; id < 4_000; id++) {
+			index.remove(id);
+		}
+
+		assertEquals(1_000, index.size());
+		assertArrayEquals(new long[] { 4_321 }, index.search("product 4321", 10));
+		assertArrayEquals(new long[0], index.search("product 1234", 10));
+		assertEquals(1_000, index.search("product", 2_000).length);
+	}
+}
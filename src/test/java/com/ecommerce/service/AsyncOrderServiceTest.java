@@ -0,0 +1,173 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.OrderTicketResponse;
+import com.ecommerce.dto.OrderTicketResponse.Status;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.OrderQueueFullException;
+import com.ecommerce.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderServiceTest {
+
+	@Mock
+	private OrderService orderService;
+
+	private AsyncOrderService asyncOrderService;
+
+	private final OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), null);
+
+	@BeforeEach
+	void setUp() {
+		authenticateAs("alice", "ROLE_USER");
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		asyncOrderService.stop();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void submit_placesOrderAsSubmittingUser() throws InterruptedException {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 10, 5, 15);
+		when(orderService.placeOrder(request)).thenAnswer(invocation -> {
+			assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+			return response(7L);
+		});
+
+		OrderTicketResponse ticket = asyncOrderService.submit(request);
+		OrderTicketResponse finished = awaitFinished(ticket.ticketId());
+
+		assertEquals(Status.COMPLETED, finished.status());
+		assertEquals(7L, finished.order().id());
+	}
+
+	@Test
+	void submit_recordsFailure() throws InterruptedException {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 10, 5, 15);
+		when(orderService.placeOrder(any())).thenThrow(new InsufficientStockException("Out of stock"));
+
+		OrderTicketResponse finished = awaitFinished(asyncOrderService.submit(request).ticketId());
+
+		assertEquals(Status.FAILED, finished.status());
+		assertEquals("Out of stock", finished.error());
+	}
+
+	@Test
+	void submit_hidesUnexpectedFailureDetails() throws InterruptedException {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 10, 5, 15);
+		when(orderService.placeOrder(any()))
+				.thenThrow(new IllegalStateException("could not execute statement [insert into orders ...]"));
+
+		OrderTicketResponse finished = awaitFinished(asyncOrderService.submit(request).ticketId());
+
+		assertEquals(Status.FAILED, finished.status());
+		assertEquals("An unexpected error occurred", finished.error());
+	}
+
+	@Test
+	void submit_errorStillFailsTicket() throws InterruptedException {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 10, 5, 15);
+		when(orderService.placeOrder(any())).thenThrow(new StackOverflowError());
+
+		OrderTicketResponse finished = awaitFinished(asyncOrderService.submit(request).ticketId());
+
+		assertEquals(Status.FAILED, finished.status());
+		assertEquals("An unexpected error occurred", finished.error());
+	}
+
+	@Test
+	void submit_queueFull_rejectsWithRetryAfter() throws InterruptedException {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 1, 3, 15);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(orderService.placeOrder(any())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return response(1L);
+		});
+
+		asyncOrderService.submit(request);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		asyncOrderService.submit(request);
+
+		OrderQueueFullException ex = assertThrows(OrderQueueFullException.class,
+				() -> asyncOrderService.submit(request));
+		assertEquals(3, ex.getRetryAfterSeconds());
+		release.countDown();
+	}
+
+	@Test
+	void getTicket_otherUser_notFound() {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 10, 5, 15);
+		when(orderService.placeOrder(any())).thenReturn(response(1L));
+		String ticketId = asyncOrderService.submit(request).ticketId();
+
+		authenticateAs("bob", "ROLE_USER");
+		assertThrows(ResourceNotFoundException.class, () -> asyncOrderService.getTicket(ticketId));
+
+		authenticateAs("admin", "ROLE_ADMIN");
+		assertEquals(ticketId, asyncOrderService.getTicket(ticketId).ticketId());
+	}
+
+	@Test
+	void evictExpiredTickets_dropsFinishedTickets() throws InterruptedException {
+		asyncOrderService = new AsyncOrderService(orderService, new SimpleMeterRegistry(), 1, 10, 5, 0);
+		when(orderService.placeOrder(any())).thenReturn(response(1L));
+		String ticketId = awaitFinished(asyncOrderService.submit(request).ticketId()).ticketId();
+
+		asyncOrderService.evictExpiredTickets();
+
+		assertThrows(ResourceNotFoundException.class, () -> asyncOrderService.getTicket(ticketId));
+	}
+
+	private OrderTicketResponse awaitFinished(String ticketId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			OrderTicketResponse ticket = asyncOrderService.getTicket(ticketId);
+			if (ticket.status() == Status.COMPLETED || ticket.status() == Status.FAILED) {
+				return ticket;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("Ticket " + ticketId + " did not finish");
+	}
+
+	private void authenticateAs(String username, String authority) {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+				List.of(new SimpleGrantedAuthority(authority))));
+	}
+
+	private OrderResponse response(Long id) {
+		return new OrderResponse(id, 1L, "alice", List.of(), new BigDecimal("10.00"), BigDecimal.ZERO,
+				OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
+	}
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogWarmupTest {
+
+	private static final Sort LISTING_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+	@Mock
+	private ProductService productService;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private CatalogWarmup catalogWarmup;
+
+	@BeforeEach
+	void setUp() {
+		catalogWarmup = new CatalogWarmup(productService, productRepository, new ObjectMapper(), meterRegistry, 10, 7,
+				2, 5, 60);
+	}
+
+	@Test
+	void run_preloadsBestSellersAndListingPages() {
+		when(productRepository.findTopSellingProductIds(any(LocalDateTime.class), any(Pageable.class)))
+				.thenReturn(List.of(3L, 1L, 2L));
+		when(productService.getProductById(anyLong())).thenAnswer(invocation -> product(invocation.getArgument(0)));
+		when(productService.getProductById(2L)).thenThrow(new InsufficientStockException("Product not found"));
+		when(productService.getAllProducts(any(Pageable.class))).thenAnswer(
+				invocation -> new PageImpl<>(List.of(product(1L)), invocation.getArgument(0), 25));
+
+		catalogWarmup.run(null);
+
+		verify(productRepository).findTopSellingProductIds(any(LocalDateTime.class), any(Pageable.class));
+		verify(productService, atLeastOnce()).getAllProducts(PageRequest.of(0, 10, LISTING_SORT));
+		verify(productService, atLeastOnce()).getAllProducts(PageRequest.of(1, 10, LISTING_SORT));
+		verify(productService, never()).getAllProducts(PageRequest.of(2, 10, LISTING_SORT));
+		assertEquals(1.0, meterRegistry.get("warmup.progress").gauge().value());
+		assertEquals(1, meterRegistry.get("warmup.duration").tag("step", "total").timer().count());
+	}
+
+	@Test
+	void run_failingStepIsSkipped() {
+		when(productRepository.findTopSellingProductIds(any(LocalDateTime.class), any(Pageable.class)))
+				.thenThrow(new IllegalStateException("database down"));
+		when(productService.getAllProducts(any(Pageable.class))).thenAnswer(
+				invocation -> new PageImpl<>(List.of(product(1L)), invocation.getArgument(0), 1));
+
+		catalogWarmup.run(null);
+
+		verify(productService, never()).getProductById(anyLong());
+		verify(productService, atLeastOnce()).getAllProducts(PageRequest.of(0, 10, LISTING_SORT));
+		assertEquals(1.0, meterRegistry.get("warmup.progress").gauge().value());
+	}
+
+	private static ProductDTO product(Long id) {
+		return new ProductDTO(id, "Product " + id, null, new BigDecimal("9.99"), 10, false);
+	}
+}
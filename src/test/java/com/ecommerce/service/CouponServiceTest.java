@@ -0,0 +1,194 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.entity.Coupon;
+import com.ecommerce.exception.InvalidCouponException;
+import com.ecommerce.repository.CouponRepository;
+import com.ecommerce.service.CouponService.ActiveCoupon;
+import com.ecommerce.service.CouponService.CouponRedemption;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+	@Mock
+	private CouponRepository couponRepository;
+
+	private CouponService couponService;
+
+	@BeforeEach
+	void setUp() {
+		when(couponRepository.findByActiveTrue()).thenReturn(List.of(
+				coupon(1L, "SAVE10", null, 0, null), coupon(2L, "LIMITED", 3, 1, null),
+				coupon(3L, "EXPIRED", null, 0, LocalDateTime.now().minusDays(1))));
+		couponService = new CouponService(couponRepository);
+		couponService.reload();
+	}
+
+	@Test
+	void validate_knownCode_ignoresCaseAndWhitespace() {
+		ActiveCoupon coupon = couponService.validate(" save10 ");
+
+		assertNotNull(coupon);
+		assertEquals("SAVE10", coupon.getCode());
+		assertEquals(1_000L, coupon.discountCents(10_000L));
+	}
+
+	@Test
+	void validate_noCoupon_returnsNull() {
+		assertNull(couponService.validate(null));
+		assertNull(couponService.validate(""));
+	}
+
+	@Test
+	void validate_unknownOrExpiredCode_rejectedWithoutQuery() {
+		assertThrows(InvalidCouponException.class, () -> couponService.validate("NOPE"));
+		assertThrows(InvalidCouponException.class, () -> couponService.validate("EXPIRED"));
+
+		verify(couponRepository, times(1)).findByActiveTrue();
+	}
+
+	@Test
+	void redeem_enforcesRemainingRedemptions() {
+		ActiveCoupon limited = couponService.validate("LIMITED");
+
+		couponService.redeem(limited);
+		couponService.redeem(limited);
+
+		assertThrows(InvalidCouponException.class, () -> couponService.redeem(limited));
+	}
+
+	@Test
+	void release_givesRedemptionBack() {
+		ActiveCoupon limited = couponService.validate("LIMITED");
+		couponService.redeem(limited);
+		CouponRedemption redemption = couponService.redeem(limited);
+
+		redemption.release();
+		redemption.release();
+
+		couponService.redeem(limited);
+		assertThrows(InvalidCouponException.class, () -> couponService.redeem(limited));
+		couponService.flush();
+		verify(couponRepository).addRedemptions(Map.of(2L, 2));
+	}
+
+	@Test
+	void flush_batchesCountsAndKeepsThemOnFailure() {
+		couponService.redeem(couponService.validate("SAVE10"));
+		couponService.redeem(couponService.validate("SAVE10"));
+		couponService.redeem(couponService.validate("LIMITED"));
+		doThrow(new DataAccessResourceFailureException("down")).when(couponRepository)
+				.addRedemptions(Map.of(1L, 2, 2L, 1));
+
+		couponService.flush();
+		couponService.flush();
+
+		verify(couponRepository, times(2)).addRedemptions(Map.of(1L, 2, 2L, 1));
+	}
+
+	@Test
+	void flush_nothingRedeemed_noUpdate() {
+		couponService.flush();
+
+		verify(couponRepository, never()).addRedemptions(anyMap());
+	}
+
+	@Test
+	void reload_countsUnflushedRedemptionsAgainstLimit() {
+		ActiveCoupon limited = couponService.validate("LIMITED");
+		couponService.redeem(limited);
+		doThrow(new DataAccessResourceFailureException("down")).when(couponRepository).addRedemptions(anyMap());
+
+		// The database still says 1 of 3 redeemed; the unflushed redemption leaves 1
+		couponService.reload();
+		ActiveCoupon reloaded = couponService.validate("LIMITED");
+		couponService.redeem(reloaded);
+		assertThrows(InvalidCouponException.class, () -> couponService.redeem(reloaded));
+	}
+
+	@Test
+	void redeem_inTransaction_flushedOnlyAfterCommit() {
+		ActiveCoupon limited = couponService.validate("LIMITED");
+		TransactionSynchronizationManager.initSynchronization();
+		List<TransactionSynchronization> committed;
+		try {
+			couponService.redeem(limited);
+			committed = TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		// A flush while the order is still open must not write its redemption
+		couponService.flush();
+		verify(couponRepository, never()).addRedemptions(anyMap());
+
+		committed.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		couponService.flush();
+		verify(couponRepository).addRedemptions(Map.of(2L, 1));
+	}
+
+	@Test
+	void redeem_rolledBack_neverFlushed() {
+		ActiveCoupon limited = couponService.validate("LIMITED");
+		TransactionSynchronizationManager.initSynchronization();
+		List<TransactionSynchronization> rolledBack;
+		try {
+			couponService.redeem(limited);
+			couponService.redeem(limited);
+			rolledBack = TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		couponService.flush();
+		verify(couponRepository, never()).addRedemptions(anyMap());
+		couponService.redeem(limited);
+		couponService.redeem(limited);
+	}
+
+	@Test
+	void reload_countsUncommittedRedemptionsAgainstLimit() {
+		ActiveCoupon limited = couponService.validate("LIMITED");
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			couponService.redeem(limited);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		couponService.reload();
+		ActiveCoupon reloaded = couponService.validate("LIMITED");
+		couponService.redeem(reloaded);
+		assertThrows(InvalidCouponException.class, () -> couponService.redeem(reloaded));
+	}
+
+	private Coupon coupon(Long id, String code, Integer maxRedemptions, int redemptions, LocalDateTime validUntil) {
+		return Coupon.builder().id(id).code(code).rate(new BigDecimal("0.1000")).minOrderTotal(BigDecimal.ZERO)
+				.maxRedemptions(maxRedemptions).redemptions(redemptions).validUntil(validUntil).active(true).build();
+	}
+}
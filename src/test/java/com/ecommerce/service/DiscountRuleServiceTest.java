@@ -0,0 +1,78 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.dto.DiscountRuleDTO;
+import com.ecommerce.entity.DiscountRule;
+import com.ecommerce.entity.Role;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.DiscountRuleRepository;
+import com.ecommerce.strategy.RuleTableDiscount;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountRuleServiceTest {
+
+	@Mock
+	private DiscountRuleRepository discountRuleRepository;
+
+	@Mock
+	private RuleTableDiscount ruleTableDiscount;
+
+	@InjectMocks
+	private DiscountRuleService discountRuleService;
+
+	@Test
+	void createRule_defaultsToActiveAndReloads() {
+		DiscountRuleDTO request = new DiscountRuleDTO(null, "Premium member", Role.PREMIUM_USER,
+				new BigDecimal("0.00"), new BigDecimal("0.1000"), null);
+		when(discountRuleRepository.save(any(DiscountRule.class))).thenAnswer(invocation -> {
+			DiscountRule rule = invocation.getArgument(0);
+			rule.setId(3L);
+			return rule;
+		});
+
+		DiscountRuleDTO created = discountRuleService.createRule(request);
+
+		assertEquals(3L, created.id());
+		assertEquals(true, created.active());
+		verify(ruleTableDiscount).reload();
+	}
+
+	@Test
+	void updateRule_changesRateAndReloads() {
+		DiscountRule rule = DiscountRule.builder().id(1L).name("Large order").minOrderTotal(new BigDecimal("500.00"))
+				.rate(new BigDecimal("0.0500")).active(true).build();
+		when(discountRuleRepository.findById(1L)).thenReturn(Optional.of(rule));
+		when(discountRuleRepository.save(rule)).thenReturn(rule);
+
+		DiscountRuleDTO updated = discountRuleService.updateRule(1L, new DiscountRuleDTO(null, "Large order", null,
+				new BigDecimal("400.00"), new BigDecimal("0.0750"), null));
+
+		assertEquals(new BigDecimal("0.0750"), updated.rate());
+		assertEquals(new BigDecimal("400.00"), updated.minOrderTotal());
+		assertEquals(true, updated.active());
+		verify(ruleTableDiscount).reload();
+	}
+
+	@Test
+	void deleteRule_notFound() {
+		when(discountRuleRepository.findById(9L)).thenReturn(Optional.empty());
+
+		assertThrows(ResourceNotFoundException.class, () -> discountRuleService.deleteRule(9L));
+		verify(ruleTableDiscount, never()).reload();
+	}
+}
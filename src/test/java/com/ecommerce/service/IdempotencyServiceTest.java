@@ -0,0 +1,247 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.IdempotencyKey;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.exception.IdempotencyKeyConflictException;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidIdempotencyKeyException;
+import com.ecommerce.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+	@Mock
+	private IdempotencyKeyRepository idempotencyKeyRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	private IdempotencyService idempotencyService;
+
+	private final OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 2)), null);
+
+	@BeforeEach
+	void setUp() {
+		idempotencyService = new IdempotencyService(idempotencyKeyRepository, objectMapper, 100, 24, 120);
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken("manoj", null, List.of()));
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void placeOnce_repeatedKey_replaysFirstResponse() {
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.empty());
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(idempotencyKeyRepository.storeResponse(any(), any())).thenReturn(1);
+		AtomicInteger placed = new AtomicInteger();
+
+		OrderResponse first = idempotencyService.placeOnce("k1", request, placing(placed::incrementAndGet));
+		OrderResponse second = idempotencyService.placeOnce("k1", request, placing(placed::incrementAndGet));
+
+		assertEquals(1, placed.get());
+		assertEquals(first, second);
+		verify(idempotencyKeyRepository).storeResponse(any(), any());
+	}
+
+	@Test
+	void placeOnce_storedInDatabase_replaysWithoutPlacing() throws Exception {
+		IdempotencyKey row = IdempotencyKey.builder().username("manoj").key("k1").requestHash(hashOf(request))
+				.responseBody(objectMapper.writeValueAsString(response(5))).build();
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.of(row));
+
+		OrderResponse response = idempotencyService.placeOnce("k1", request, recordResponse -> {
+			throw new AssertionError("Order must not be placed again");
+		});
+
+		assertEquals(5L, response.id());
+		verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void placeOnce_stillProcessingElsewhere_conflict() throws Exception {
+		IdempotencyKey row = IdempotencyKey.builder().username("manoj").key("k1").requestHash(hashOf(request))
+				.build();
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.of(row));
+
+		assertThrows(IdempotencyKeyConflictException.class,
+				() -> idempotencyService.placeOnce("k1", request, placing(() -> 1)));
+	}
+
+	@Test
+	void placeOnce_sameKeyDifferentRequest_conflict() {
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.empty());
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(idempotencyKeyRepository.storeResponse(any(), any())).thenReturn(1);
+		idempotencyService.placeOnce("k1", request, placing(() -> 1));
+
+		OrderRequest other = new OrderRequest(List.of(new OrderItemRequest(2L, 1)), null);
+		assertThrows(IdempotencyKeyConflictException.class,
+				() -> idempotencyService.placeOnce("k1", other, placing(() -> 2)));
+	}
+
+	@Test
+	void placeOnce_failure_releasesKeyForRetry() {
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.empty());
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		when(idempotencyKeyRepository.storeResponse(any(), any())).thenReturn(1);
+		when(idempotencyKeyRepository.deleteUnanswered(any())).thenReturn(1);
+
+		assertThrows(InsufficientStockException.class,
+				() -> idempotencyService.placeOnce("k1", request, recordResponse -> {
+					throw new InsufficientStockException(1L, 2, 0);
+				}));
+		verify(idempotencyKeyRepository).deleteUnanswered(any());
+
+		assertEquals(3L, idempotencyService.placeOnce("k1", request, placing(() -> 3)).id());
+	}
+
+	@Test
+	void placeOnce_concurrentDuplicate_waitsForFirst() throws Exception {
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.empty());
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(idempotencyKeyRepository.storeResponse(any(), any())).thenReturn(1);
+		CountDownLatch placing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger placed = new AtomicInteger();
+		SecurityContext context = SecurityContextHolder.getContext();
+
+		CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() -> {
+			SecurityContextHolder.setContext(context);
+			return idempotencyService.placeOnce("k1", request, recordResponse -> {
+				placing.countDown();
+				await(release);
+				return placing(placed::incrementAndGet).apply(recordResponse);
+			});
+		});
+		assertTrue(placing.await(5, TimeUnit.SECONDS));
+
+		CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(() -> {
+			SecurityContextHolder.setContext(context);
+			return idempotencyService.placeOnce("k1", request, placing(placed::incrementAndGet));
+		});
+		Thread.sleep(50);
+		release.countDown();
+
+		assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+		assertEquals(1, placed.get());
+	}
+
+	@Test
+	void placeOnce_failureAfterOrderCommitted_replaysStoredResponse() throws Exception {
+		IdempotencyKey stored = IdempotencyKey.builder().id(7L).username("manoj").key("k1")
+				.requestHash(hashOf(request)).responseBody(objectMapper.writeValueAsString(response(4))).build();
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.empty(),
+				Optional.of(stored));
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+			IdempotencyKey claim = invocation.getArgument(0);
+			claim.setId(7L);
+			return claim;
+		});
+		when(idempotencyKeyRepository.storeResponse(eq(7L), any())).thenReturn(1);
+		when(idempotencyKeyRepository.deleteUnanswered(7L)).thenReturn(0);
+
+		OrderResponse response = idempotencyService.placeOnce("k1", request, recordResponse -> {
+			recordResponse.accept(response(4));
+			throw new IllegalStateException("Cache unavailable");
+		});
+
+		assertEquals(4L, response.id());
+	}
+
+	@Test
+	void placeOnce_claimReleased_orderRejected() {
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.empty());
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(idempotencyKeyRepository.storeResponse(any(), any())).thenReturn(0);
+		when(idempotencyKeyRepository.deleteUnanswered(any())).thenReturn(0);
+
+		assertThrows(IdempotencyKeyConflictException.class,
+				() -> idempotencyService.placeOnce("k1", request, placing(() -> 1)));
+	}
+
+	@Test
+	void placeOnce_abandonedClaim_takenOver() throws Exception {
+		IdempotencyKey abandoned = IdempotencyKey.builder().id(3L).username("manoj").key("k1")
+				.requestHash(hashOf(request)).createdAt(LocalDateTime.now().minusMinutes(10)).build();
+		when(idempotencyKeyRepository.findByUsernameAndKey("manoj", "k1")).thenReturn(Optional.of(abandoned));
+		when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(idempotencyKeyRepository.storeResponse(any(), any())).thenReturn(1);
+
+		assertEquals(8L, idempotencyService.placeOnce("k1", request, placing(() -> 8)).id());
+		verify(idempotencyKeyRepository).deleteUnanswered(3L);
+	}
+
+	@Test
+	void placeOnce_blankKey_rejected() {
+		assertThrows(InvalidIdempotencyKeyException.class,
+				() -> idempotencyService.placeOnce(" ", request, placing(() -> 1)));
+	}
+
+	private String hashOf(OrderRequest orderRequest) throws Exception {
+		return HexFormat.of()
+				.formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderRequest)));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Places an order the way OrderService does, recording its response on the way
+	private Function<Consumer<OrderResponse>, OrderResponse> placing(LongSupplier id) {
+		return recordResponse -> {
+			OrderResponse placed = response(id.getAsLong());
+			recordResponse.accept(placed);
+			return placed;
+		};
+	}
+
+	private OrderResponse response(long id) {
+		return new OrderResponse(id, 1L, "manoj", List.of(), new BigDecimal("20.00"), BigDecimal.ZERO,
+				OrderStatus.PENDING, LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 1, 12, 0));
+	}
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.cache.SingleFlightCacheLoader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ListingCacheTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private ListingCache listingCache;
+
+	@BeforeEach
+	void setUp() {
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+		listingCache = new ListingCache(cacheManager,
+				new SingleFlightCacheLoader(cacheManager, meterRegistry, Duration.ofMinutes(5), 1.0), meterRegistry, 2, 50,
+				5);
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void getPage_onlyFirstPagesAreCached() {
+		for (int i = 0; i < 2; i++) {
+			load(PageRequest.of(0, 10));
+			load(PageRequest.of(1, 10));
+			load(PageRequest.of(2, 10));
+			load(PageRequest.of(0, 51));
+			load(Pageable.unpaged());
+		}
+
+		// Pages 0 and 1 once each; page 2, the oversized page and unpaged every time
+		assertEquals(8, loads.get());
+		assertEquals(2.0, meterRegistry.get("listings.cache.gets").tag("result", "hit").counter().count());
+	}
+
+	@Test
+	void invalidate_replacesGenerationForThatListingOnly() {
+		load(PageRequest.of(0, 10));
+		listingCache.getPage("pages", "other", PageRequest.of(0, 10), this::page);
+
+		listingCache.invalidate("products");
+		load(PageRequest.of(0, 10));
+		listingCache.getPage("pages", "other", PageRequest.of(0, 10), this::page);
+
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	void invalidate_insideTransaction_waitsForCommit() {
+		load(PageRequest.of(0, 10));
+		TransactionSynchronizationManager.initSynchronization();
+
+		listingCache.invalidate("products");
+		load(PageRequest.of(0, 10));
+		assertEquals(1, loads.get());
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+		load(PageRequest.of(0, 10));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void isCacheable_boundsPageNumberAndSize() {
+		assertTrue(listingCache.isCacheable(PageRequest.of(1, 50)));
+		assertFalse(listingCache.isCacheable(PageRequest.of(2, 10)));
+		assertFalse(listingCache.isCacheable(PageRequest.of(0, 51)));
+	}
+
+	private void load(Pageable pageable) {
+		listingCache.getPage("pages", "products", pageable, this::page);
+	}
+
+	private Page<String> page() {
+		loads.incrementAndGet();
+		return new PageImpl<>(List.of("a", "b"));
+	}
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.cache.SingleFlightCacheLoader;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.OrderStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderCacheTest {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OrderCache orderCache;
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		SingleFlightCacheLoader cacheLoader = new SingleFlightCacheLoader(cacheManager, meterRegistry,
+				Duration.ofMinutes(10), 1.0);
+		orderCache = new OrderCache(cacheManager,
+				new ListingCache(cacheManager, cacheLoader, meterRegistry, 5, 100, 5), meterRegistry);
+	}
+
+	@Test
+	void getOrder_loadsOnceAndCountsHitsAndMisses() {
+		orderCache.getOrder(1L, () -> order(loads.incrementAndGet(), "manoj"));
+		orderCache.getOrder(1L, () -> order(loads.incrementAndGet(), "manoj"));
+		orderCache.getOrder(1L, () -> order(loads.incrementAndGet(), "manoj"));
+
+		assertEquals(1, loads.get());
+		assertEquals(2.0, gets(OrderCache.ORDERS, "hit"));
+		assertEquals(1.0, gets(OrderCache.ORDERS, "miss"));
+	}
+
+	@Test
+	void getUserOrders_keyedByPageAndSort() {
+		PageRequest first = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+		orderCache.getUserOrders("manoj", first, () -> page(first));
+		orderCache.getUserOrders("manoj", first, () -> page(first));
+		orderCache.getUserOrders("manoj", PageRequest.of(1, 10), () -> page(PageRequest.of(1, 10)));
+		orderCache.getUserOrders("manoj", PageRequest.of(0, 10, Sort.by("createdAt")),
+				() -> page(PageRequest.of(0, 10)));
+
+		assertEquals(3, loads.get());
+		assertEquals(1.0, gets(OrderCache.USER_ORDER_PAGES, "hit"));
+	}
+
+	@Test
+	void invalidateUser_onlyAffectsThatUser() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		orderCache.getUserOrders("manoj", pageable, () -> page(pageable));
+		orderCache.getUserOrders("other", pageable, () -> page(pageable));
+
+		orderCache.getAllOrders(pageable, () -> page(pageable));
+
+		orderCache.invalidateUser("manoj");
+		Page<OrderResponse> reloaded = orderCache.getUserOrders("manoj", pageable, () -> page(pageable));
+		orderCache.getUserOrders("other", pageable, () -> page(pageable));
+		orderCache.getAllOrders(pageable, () -> page(pageable));
+
+		assertEquals(5, loads.get());
+		assertEquals(pageable, reloaded.getPageable());
+	}
+
+	@Test
+	void getUserOrders_cachedPageRebuiltWithRequestedPageable() {
+		PageRequest pageable = PageRequest.of(2, 5);
+		orderCache.getUserOrders("manoj", pageable, () -> page(pageable));
+
+		Page<OrderResponse> cached = orderCache.getUserOrders("manoj", pageable, () -> page(pageable));
+
+		assertEquals(1, loads.get());
+		assertEquals(2, cached.getNumber());
+		assertEquals(100, cached.getTotalElements());
+		assertNotNull(cached.getContent().get(0));
+	}
+
+	private double gets(String cache, String result) {
+		return meterRegistry.get(OrderCache.ORDERS.equals(cache) ? "orders.cache.gets" : "listings.cache.gets").tag("cache", cache).tag("result", result).counter().count();
+	}
+
+	private Page<OrderResponse> page(PageRequest pageable) {
+		loads.incrementAndGet();
+		// One order shown from a listing of 100
+		return new PageImpl<>(List.of(order(1, "manoj")), pageable, 100);
+	}
+
+	private OrderResponse order(long id, String username) {
+		return new OrderResponse(id, 1L, username, List.of(), new BigDecimal("10.00"), BigDecimal.ZERO,
+				OrderStatus.PENDING, LocalDateTime.of(2025, 1, 1, 12, 0), null);
+	}
+}
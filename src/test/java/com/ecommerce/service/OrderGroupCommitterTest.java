@@ -0,0 +1,137 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.User;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.OrderTimeoutException;
+import com.ecommerce.service.OrderWriter.OrderOutcome;
+import com.ecommerce.service.OrderWriter.PendingOrder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OrderGroupCommitterTest {
+
+	@Mock
+	private OrderWriter orderWriter;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OrderGroupCommitter committer;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		committer.stop();
+	}
+
+	@Test
+	void place_disabled_writesDirectly() {
+		committer = new OrderGroupCommitter(orderWriter, meterRegistry, false, 32, 5, 1, 1000);
+		committer.start();
+		PendingOrder pendingOrder = pendingOrder(1L);
+		when(orderWriter.write(pendingOrder)).thenReturn(response(1L));
+
+		assertEquals(1L, committer.place(pendingOrder).id());
+		verify(orderWriter).write(pendingOrder);
+	}
+
+	@Test
+	void place_coalescesConcurrentOrdersAndIsolatesFailures() {
+		committer = new OrderGroupCommitter(orderWriter, meterRegistry, true, 3, 2000, 1, 10_000);
+		committer.start();
+		when(orderWriter.writeAll(anyList())).thenAnswer(invocation -> {
+			List<PendingOrder> batch = invocation.getArgument(0);
+			List<OrderOutcome> outcomes = new ArrayList<>();
+			for (PendingOrder pendingOrder : batch) {
+				Long productId = pendingOrder.request().items().get(0).productId();
+				outcomes.add(productId == 2L ? new OrderOutcome(null, new InsufficientStockException(2L, 1, 0))
+						: new OrderOutcome(response(productId), null));
+			}
+			return outcomes;
+		});
+
+		CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() -> committer.place(pendingOrder(1L)));
+		CompletableFuture<OrderResponse> second = CompletableFuture
+				.supplyAsync(() -> committer.place(pendingOrder(2L)));
+		CompletableFuture<OrderResponse> third = CompletableFuture.supplyAsync(() -> committer.place(pendingOrder(3L)));
+
+		assertEquals(1L, first.join().id());
+		assertEquals(3L, third.join().id());
+		assertThrows(InsufficientStockException.class, () -> {
+			try {
+				second.join();
+			} catch (RuntimeException ex) {
+				throw ex.getCause();
+			}
+		});
+		verify(orderWriter).writeAll(anyList());
+		assertEquals(3.0, meterRegistry.get("orders.group_commit.batch.size").summary().max());
+	}
+
+	@Test
+	void place_errorInBatchFailsItsOrdersAndWriterKeepsGoing() {
+		committer = new OrderGroupCommitter(orderWriter, meterRegistry, true, 1, 0, 1, 5_000);
+		committer.start();
+		when(orderWriter.writeAll(anyList())).thenThrow(new StackOverflowError())
+				.thenReturn(List.of(new OrderOutcome(response(2L), null)));
+
+		IllegalStateException failure = assertThrows(IllegalStateException.class,
+				() -> committer.place(pendingOrder(1L)));
+		assertInstanceOf(StackOverflowError.class, failure.getCause());
+		assertEquals(2L, committer.place(pendingOrder(2L)).id());
+	}
+
+	@Test
+	void place_timesOutWhenBatchIsNotWritten() throws InterruptedException {
+		committer = new OrderGroupCommitter(orderWriter, meterRegistry, true, 1, 0, 1, 100);
+		committer.start();
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(orderWriter.writeAll(anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await();
+			return List.of(new OrderOutcome(response(1L), null));
+		});
+
+		try {
+			assertThrows(OrderTimeoutException.class, () -> committer.place(pendingOrder(1L)));
+			assertTrue(writing.await(1, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private PendingOrder pendingOrder(Long productId) {
+		return new PendingOrder(User.builder().id(1L).username("manoj").build(),
+				new OrderRequest(List.of(new OrderItemRequest(productId, 1)), null));
+	}
+
+	private OrderResponse response(Long id) {
+		return new OrderResponse(id, 1L, "manoj", List.of(), BigDecimal.TEN, BigDecimal.ZERO, OrderStatus.PENDING,
+				null, null);
+	}
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.entity.DiscountRule;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.repository.DiscountRuleRepository;
+import com.ecommerce.service.OrderPricer.PricedOrder;
+import com.ecommerce.strategy.DiscountCalculator;
+import com.ecommerce.strategy.RuleTableDiscount;
+import com.ecommerce.util.Money;
+
+class OrderPricerTest {
+
+	private static final BigDecimal AMOUNT_THRESHOLD = new BigDecimal("500.00");
+
+	private OrderPricer orderPricer;
+
+	@BeforeEach
+	void setUp() {
+		// The rules seeded by V7__Create_discount_rules_table.sql
+		DiscountRuleRepository discountRuleRepository = mock(DiscountRuleRepository.class);
+		when(discountRuleRepository.findByActiveTrue()).thenReturn(List.of(
+				rule("Large order", null, "500.00", "0.0500"), rule("Premium member", Role.PREMIUM_USER, "0.00", "0.1000")));
+		RuleTableDiscount ruleTableDiscount = new RuleTableDiscount(discountRuleRepository);
+		ruleTableDiscount.reload();
+
+		orderPricer = new OrderPricer(new DiscountCalculator(List.of(ruleTableDiscount)));
+	}
+
+	@Test
+	void price_splitsDiscountAcrossLines() {
+		Map<Long, Product> products = Map.of(1L, product(1L, "333.33"), 2L, product(2L, "100.00"));
+		List<OrderItemRequest> items = List.of(new OrderItemRequest(1L, 2), new OrderItemRequest(2L, 1));
+
+		PricedOrder priced = orderPricer.price(items, products, null, Role.PREMIUM_USER);
+
+		// 766.66 subtotal: 10% premium (76.67) + 5% large order (38.33)
+		assertEquals(76_666L, priced.subtotalCents());
+		assertEquals(11_500L, priced.discountCents());
+		assertEquals(65_166L, priced.totalCents());
+		assertEquals(10_000L, priced.lineDiscountCents()[0]);
+		assertEquals(1_500L, priced.lineDiscountCents()[1]);
+	}
+
+	@Test
+	void price_matchesBigDecimalRounding() {
+		Random random = new Random(42);
+		Role[] roles = Role.values();
+		for (int order = 0; order < 2_000; order++) {
+			Map<Long, Product> products = new HashMap<>();
+			List<OrderItemRequest> items = new ArrayList<>();
+			int lines = 1 + random.nextInt(8);
+			for (long id = 1; id <= lines; id++) {
+				products.put(id, product(id, BigDecimal.valueOf(1 + random.nextInt(100_000), 2).toPlainString()));
+				items.add(new OrderItemRequest(id, 1 + random.nextInt(5)));
+			}
+			Role role = roles[random.nextInt(roles.length)];
+
+			PricedOrder priced = orderPricer.price(items, products, null, role);
+			assertMatchesReference(items, products, role, priced);
+		}
+	}
+
+	// The BigDecimal pricing and hard-coded discount strategies this kernel replaced
+	private void assertMatchesReference(List<OrderItemRequest> items, Map<Long, Product> products, Role role,
+			PricedOrder priced) {
+		BigDecimal subtotal = BigDecimal.ZERO;
+		List<BigDecimal> lineTotals = new ArrayList<>();
+		for (OrderItemRequest item : items) {
+			BigDecimal lineTotal = products.get(item.productId()).getPrice()
+					.multiply(BigDecimal.valueOf(item.quantity()));
+			lineTotals.add(lineTotal);
+			subtotal = subtotal.add(lineTotal);
+		}
+		BigDecimal discount = new BigDecimal("0.00");
+		if (subtotal.compareTo(AMOUNT_THRESHOLD) >= 0) {
+			discount = discount.add(subtotal.multiply(new BigDecimal("0.05")).setScale(2, RoundingMode.HALF_UP));
+		}
+		if (role == Role.PREMIUM_USER) {
+			discount = discount.add(subtotal.multiply(new BigDecimal("0.10")).setScale(2, RoundingMode.HALF_UP));
+		}
+
+		assertEquals(Money.toCents(subtotal), priced.subtotalCents());
+		assertEquals(Money.toCents(discount), priced.discountCents());
+		for (int i = 0; i < items.size(); i++) {
+			BigDecimal lineDiscount = discount.compareTo(BigDecimal.ZERO) > 0
+					? discount.multiply(lineTotals.get(i)).divide(subtotal, 2, RoundingMode.HALF_UP)
+					: BigDecimal.ZERO;
+			assertEquals(Money.toCents(lineDiscount), priced.lineDiscountCents()[i]);
+		}
+	}
+
+	private DiscountRule rule(String name, Role role, String minOrderTotal, String rate) {
+		return DiscountRule.builder().name(name).role(role).minOrderTotal(new BigDecimal(minOrderTotal))
+				.rate(new BigDecimal(rate)).active(true).build();
+	}
+
+	private Product product(Long id, String price) {
+		return Product.builder().id(id).name("Product " + id).price(new BigDecimal(price)).quantity(100)
+				.deleted(false).build();
+	}
+}
@@ -1,14 +1,22 @@
 package com.ecommerce.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,30 +26,38 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
-import com.ecommerce.dto.DiscountRequest;
+import com.ecommerce.cache.SingleFlightCacheLoader;
+import com.ecommerce.dto.BatchOrderRequest;
+import com.ecommerce.dto.BatchOrderResponse;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.dto.OrderItemRequest;
 import com.ecommerce.dto.OrderRequest;
 import com.ecommerce.dto.OrderResponse;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.OrderStatus;
-import com.ecommerce.entity.Product;
 import com.ecommerce.entity.Role;
 import com.ecommerce.entity.User;
 import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidCursorException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.repository.OrderRepository;
-import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
-import com.ecommerce.strategy.DiscountCalculator;
+import com.ecommerce.service.OrderWriter.OrderOutcome;
+import com.ecommerce.service.OrderWriter.PendingOrder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -50,28 +66,31 @@ class OrderServiceTest {
 	private OrderRepository orderRepository;
 
 	@Mock
-	private ProductRepository productRepository;
+	private UserRepository userRepository;
 
 	@Mock
-	private UserRepository userRepository;
+	private OrderGroupCommitter orderGroupCommitter;
 
 	@Mock
-	private DiscountCalculator discountCalculator;
+	private OrderWriter orderWriter;
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	@Spy
+	private OrderCache orderCache = new OrderCache(cacheManager,
+			new ListingCache(cacheManager,
+					new SingleFlightCacheLoader(cacheManager, new SimpleMeterRegistry(), Duration.ofMinutes(10), 1.0),
+					new SimpleMeterRegistry(), 5, 100, 5), new SimpleMeterRegistry());
 
 	@InjectMocks
 	private OrderService orderService;
 
 	private User user;
 
-	private Product product;
-
 	@BeforeEach
 	void setupSecurity() {
 		user = User.builder().id(1L).username("manoj").role(Role.USER).build();
 
-		product = Product.builder().id(1L).name("Laptop").price(new BigDecimal("1000")).quantity(10).deleted(false)
-				.build();
-
 		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("manoj", null,
 				List.of(new SimpleGrantedAuthority("ROLE_USER"))));
 	}
@@ -85,49 +104,77 @@ class OrderServiceTest {
 
 	@Test
 	void placeOrder_success() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 2)), "COUPON10");
+		OrderResponse placed = new OrderResponse(1L, 1L, "manoj", List.of(), new BigDecimal("1900.00"),
+				new BigDecimal("100.00"), OrderStatus.PENDING, null, null);
 
-		OrderItemRequest itemRequest = new OrderItemRequest(1L, 2);
-		OrderRequest request = new OrderRequest(List.of(itemRequest), "COUPON10");
+		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
+		when(orderGroupCommitter.place(new PendingOrder(user, request))).thenReturn(placed);
 
-		User user = User.builder().id(1L).username("manoj").role(Role.USER).build();
+		OrderResponse response = orderService.placeOrder(request);
 
-		Product product = Product.builder().id(1L).name("Laptop").price(new BigDecimal("1000")).quantity(10)
-				.deleted(false).build();
+		assertEquals(1L, response.id());
+		verify(userRepository).findByUsername("manoj");
+		verify(orderGroupCommitter).place(new PendingOrder(user, request));
+		verify(orderCache).invalidateUser("manoj");
+	}
 
+	@Test
+	void placeOrder_insufficientStock() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 5)), null);
 		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
+		when(orderGroupCommitter.place(any(PendingOrder.class)))
+				.thenThrow(new InsufficientStockException(1L, 5, 1));
+
+		assertThrows(InsufficientStockException.class, () -> orderService.placeOrder(request));
+		verify(orderCache, never()).invalidateUser(any());
+	}
 
-		when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+	// ---------- PLACE ORDERS (BATCH) ----------
 
-		when(discountCalculator.totalDiscount(any(DiscountRequest.class))).thenReturn(new BigDecimal("100"));
+	@Test
+	void placeOrders_reportsEachOrderAcrossChunks() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), null);
+		BatchOrderRequest batch = new BatchOrderRequest(Collections.nCopies(60, request));
+		OrderResponse placed = new OrderResponse(1L, 1L, "manoj", List.of(), new BigDecimal("10.00"),
+				BigDecimal.ZERO, OrderStatus.PENDING, null, null);
 
-		when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
-			Order order = invocation.getArgument(0);
-			order.setId(1L);
-			return order;
+		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
+		when(orderWriter.writeAll(anyList())).thenAnswer(invocation -> {
+			List<PendingOrder> chunk = invocation.getArgument(0);
+			List<OrderOutcome> outcomes = new ArrayList<>();
+			for (int i = 0; i < chunk.size(); i++) {
+				outcomes.add(i == 0 ? OrderOutcome.failed(new InsufficientStockException(1L, 1, 0))
+						: OrderOutcome.placed(placed));
+			}
+			return outcomes;
 		});
 
-		// ---------- WHEN ----------
-		OrderResponse response = orderService.placeOrder(request);
-
-		// ---------- THEN ----------
-		assertNotNull(response);
-		assertEquals(1L, response.id());
-		assertEquals(0, response.orderTotal().compareTo(new BigDecimal("1900.00")));
-		assertEquals(OrderStatus.PENDING, response.status());
+		BatchOrderResponse response = orderService.placeOrders(batch);
 
-		verify(userRepository).findByUsername("manoj");
-		verify(productRepository).save(product);
-		verify(orderRepository).save(any(Order.class));
+		verify(orderWriter, times(2)).writeAll(anyList());
+		assertEquals(58, response.succeeded());
+		assertEquals(2, response.failed());
+		assertEquals(60, response.results().size());
+		assertEquals(false, response.results().get(50).success());
+		assertEquals(50, response.results().get(50).index());
+		assertEquals(1L, response.results().get(51).order().id());
 	}
 
 	@Test
-	void placeOrder_insufficientStock() {
-		product.setQuantity(1);
-		product.setDeleted(true);
-		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 5)), null);
+	void placeOrders_reportsSafeErrorsPerFailure() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), null);
+		BatchOrderRequest batch = new BatchOrderRequest(List.of(request, request));
+
 		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
-		when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
-		assertThrows(InsufficientStockException.class, () -> orderService.placeOrder(request));
+		when(orderWriter.writeAll(anyList())).thenReturn(List.of(
+				OrderOutcome.failed(new InsufficientStockException("Insufficient stock for products: [1]")),
+				OrderOutcome.failed(new IllegalStateException("could not execute statement [insert into orders]"))));
+
+		BatchOrderResponse response = orderService.placeOrders(batch);
+
+		assertEquals("Insufficient stock for products: [1]", response.results().get(0).error());
+		assertEquals("An unexpected error occurred", response.results().get(1).error());
 	}
 
 	// ---------- GET ORDER ----------
@@ -136,7 +183,7 @@ class OrderServiceTest {
 	void getOrderById_success_owner() {
 		Order order = Order.builder().id(1L).user(user).items(List.of()).build();
 
-		when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+		when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
 		var response = orderService.getOrderById(1L);
 
@@ -149,9 +196,25 @@ class OrderServiceTest {
 
 		Order order = Order.builder().id(1L).user(otherUser).items(List.of()).build();
 
-		when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+		when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+
+		assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(1L));
+	}
+
+	@Test
+	void getOrderById_cached_stillChecksOwner() {
+		User otherUser = User.builder().id(2L).username("other").build();
+		Order order = Order.builder().id(1L).user(otherUser).items(List.of()).build();
+		when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("other", null,
+				List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+		assertEquals(1L, orderService.getOrderById(1L).id());
 
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("manoj", null,
+				List.of(new SimpleGrantedAuthority("ROLE_USER"))));
 		assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(1L));
+		verify(orderRepository, times(1)).findWithItemsById(1L);
 	}
 
 	// ---------- GET MY ORDERS ----------
@@ -162,20 +225,87 @@ class OrderServiceTest {
 
 		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
 
-		when(orderRepository.findByUser(eq(user), any())).thenReturn(new PageImpl<>(List.of(order)));
+		when(orderRepository.findIdsByUserId(eq(1L), any())).thenReturn(new PageImpl<>(List.of(1L)));
+		when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
 
 		Page<?> page = orderService.getMyOrders(PageRequest.of(0, 10));
 
 		assertEquals(1, page.getTotalElements());
 	}
 
+	@Test
+	void getMyOrders_cachedUntilUserPlacesOrder() {
+		Order order = Order.builder().id(1L).user(user).items(List.of()).build();
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), null);
+		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
+		when(orderRepository.findIdsByUserId(eq(1L), any())).thenReturn(new PageImpl<>(List.of(1L)));
+		when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+
+		orderService.getMyOrders(PageRequest.of(0, 10));
+		orderService.getMyOrders(PageRequest.of(0, 10));
+		verify(orderRepository, times(1)).findIdsByUserId(eq(1L), any());
+
+		// Another user's order leaves this user's pages alone
+		orderCache.invalidateUser("other");
+		orderService.getMyOrders(PageRequest.of(0, 10));
+		verify(orderRepository, times(1)).findIdsByUserId(eq(1L), any());
+
+		orderService.placeOrder(request);
+		Page<?> page = orderService.getMyOrders(PageRequest.of(0, 10));
+		verify(orderRepository, times(2)).findIdsByUserId(eq(1L), any());
+		assertEquals(1, page.getTotalElements());
+	}
+
+	@Test
+	void getMyOrdersByCursor_seeksFromLastOrderOfPreviousPage() {
+		LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123456000);
+		Order newest = Order.builder().id(7L).user(user).items(List.of()).createdAt(now).build();
+		Order older = Order.builder().id(5L).user(user).items(List.of()).createdAt(now.minusHours(1)).build();
+		Order oldest = Order.builder().id(3L).user(user).items(List.of()).createdAt(now.minusHours(2)).build();
+		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
+		when(orderRepository.findNewestIdsByUserId(1L, Pageable.ofSize(2)))
+				.thenReturn(new SliceImpl<>(List.of(7L, 5L), Pageable.ofSize(2), true));
+		when(orderRepository.findIdsByUserIdBefore(1L, now.minusHours(1), 5L, Pageable.ofSize(2)))
+				.thenReturn(new SliceImpl<>(List.of(3L), Pageable.ofSize(2), false));
+		// Loaded in any order, returned in id order
+		when(orderRepository.findWithItemsByIdIn(List.of(7L, 5L))).thenReturn(List.of(older, newest));
+		when(orderRepository.findWithItemsByIdIn(List.of(3L))).thenReturn(List.of(oldest));
+
+		CursorPage<OrderResponse> first = orderService.getMyOrders(null, 2);
+		CursorPage<OrderResponse> second = orderService.getMyOrders(first.nextCursor(), 2);
+
+		assertEquals(List.of(7L, 5L), first.content().stream().map(OrderResponse::id).toList());
+		assertEquals(List.of(3L), second.content().stream().map(OrderResponse::id).toList());
+		assertFalse(second.hasNext());
+		assertNull(second.nextCursor());
+		verify(orderRepository, never()).findIdsByUserId(any(), any());
+	}
+
+	@Test
+	void getMyOrdersByCursor_capsPageSize() {
+		when(userRepository.findByUsername("manoj")).thenReturn(Optional.of(user));
+		when(orderRepository.findNewestIdsByUserId(eq(1L), any())).thenReturn(new SliceImpl<>(List.of()));
+
+		CursorPage<OrderResponse> page = orderService.getMyOrders("", 10_000);
+
+		assertEquals(OrderService.MAX_CURSOR_PAGE_SIZE, page.size());
+		verify(orderRepository).findNewestIdsByUserId(1L, Pageable.ofSize(OrderService.MAX_CURSOR_PAGE_SIZE));
+		verify(orderRepository, never()).findWithItemsByIdIn(any());
+	}
+
+	@Test
+	void getMyOrdersByCursor_rejectsMalformedCursor() {
+		assertThrows(InvalidCursorException.class, () -> orderService.getMyOrders("not-a-cursor", 10));
+	}
+
 	// ---------- GET ALL ORDERS ----------
 
 	@Test
 	void getAllOrders_success() {
 		Order order = Order.builder().id(1L).user(user).items(List.of()).build();
 
-		when(orderRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(order)));
+		when(orderRepository.findAllIds(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(1L)));
+		when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
 
 		Page<?> page = orderService.getAllOrders(PageRequest.of(0, 10));
 
@@ -0,0 +1,216 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.OrderRequest;
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.entity.Coupon;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.entity.User;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidCouponException;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CouponService.ActiveCoupon;
+import com.ecommerce.service.CouponService.CouponRedemption;
+import com.ecommerce.service.OrderWriter.OrderOutcome;
+import com.ecommerce.service.OrderWriter.PendingOrder;
+import com.ecommerce.strategy.DiscountCalculator;
+
+@ExtendWith(MockitoExtension.class)
+class OrderWriterTest {
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private DiscountCalculator discountCalculator;
+
+	@Mock
+	private StockReservationEngine stockReservationEngine;
+
+	@Mock
+	private CouponService couponService;
+
+	private OrderWriter orderWriter;
+
+	private User user;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		orderWriter = new OrderWriter(orderRepository, productRepository, new OrderPricer(discountCalculator),
+				stockReservationEngine, couponService, mock(PlatformTransactionManager.class));
+
+		user = User.builder().id(1L).username("manoj").role(Role.USER).build();
+
+		product = Product.builder().id(1L).name("Laptop").price(new BigDecimal("1000")).quantity(10).deleted(false)
+				.build();
+	}
+
+	@Test
+	void write_success() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 2)), "COUPON10");
+
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(couponService.validate("COUPON10")).thenReturn(coupon("COUPON10", "0.00"));
+		when(discountCalculator.totalDiscountCents(anyLong(), any(), any())).thenReturn(10_000L);
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Order> orders = invocation.getArgument(0);
+			orders.get(0).setId(1L);
+			return orders;
+		});
+
+		OrderResponse response = orderWriter.write(new PendingOrder(user, request));
+
+		assertNotNull(response);
+		assertEquals(1L, response.id());
+		assertEquals(0, response.orderTotal().compareTo(new BigDecimal("1900.00")));
+		assertEquals(OrderStatus.PENDING, response.status());
+
+		verify(couponService).redeem(any(ActiveCoupon.class));
+		verify(stockReservationEngine).reserve(Map.of(1L, 2));
+		verify(productRepository).decrementStock(Map.of(1L, 2));
+	}
+
+	@Test
+	void write_onPlacedFails_orderFails() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 2)), null);
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		assertThrows(IllegalStateException.class, () -> orderWriter.write(new PendingOrder(user, request, placed -> {
+			throw new IllegalStateException("Cannot store response");
+		})));
+	}
+
+	@Test
+	void write_insufficientStock() {
+		product.setQuantity(1);
+		product.setDeleted(true);
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 5)), null);
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+
+		assertThrows(InsufficientStockException.class, () -> orderWriter.write(new PendingOrder(user, request)));
+		verify(productRepository, never()).decrementStock(anyMap());
+	}
+
+	@Test
+	void write_stockGuardRejected() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 2)), null);
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(discountCalculator.totalDiscountCents(anyLong(), any(), any())).thenReturn(0L);
+		when(stockReservationEngine.reserve(Map.of(1L, 2))).thenReturn(mock(StockReservationEngine.StockReservation.class));
+		when(productRepository.decrementStock(Map.of(1L, 2))).thenReturn(List.of(1L));
+
+		assertThrows(InsufficientStockException.class, () -> orderWriter.write(new PendingOrder(user, request)));
+		verify(productRepository).restoreStock(Map.of());
+	}
+
+	@Test
+	void write_couponBelowMinimumTotal() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), "BIGSPENDER");
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(couponService.validate("BIGSPENDER")).thenReturn(coupon("BIGSPENDER", "1500.00"));
+
+		assertThrows(InvalidCouponException.class, () -> orderWriter.write(new PendingOrder(user, request)));
+		verify(couponService, never()).redeem(any());
+		verify(productRepository, never()).decrementStock(anyMap());
+	}
+
+	@Test
+	void write_stockGuardRejected_releasesCoupon() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 2)), "COUPON10");
+		CouponRedemption redemption = mock(CouponRedemption.class);
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(couponService.validate("COUPON10")).thenReturn(coupon("COUPON10", "0.00"));
+		when(couponService.redeem(any(ActiveCoupon.class))).thenReturn(redemption);
+		when(stockReservationEngine.reserve(Map.of(1L, 2))).thenReturn(mock(StockReservationEngine.StockReservation.class));
+		when(productRepository.decrementStock(Map.of(1L, 2))).thenReturn(List.of(1L));
+
+		assertThrows(InsufficientStockException.class, () -> orderWriter.write(new PendingOrder(user, request)));
+		verify(redemption).release();
+	}
+
+	@Test
+	void writeAll_failedOrderDoesNotPoisonBatch() {
+		Product mouse = Product.builder().id(2L).name("Mouse").price(new BigDecimal("20")).quantity(0).deleted(false)
+				.build();
+		OrderRequest laptopOrder = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), null);
+		OrderRequest mouseOrder = new OrderRequest(List.of(new OrderItemRequest(2L, 1)), null);
+
+		when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(product, mouse));
+		when(discountCalculator.totalDiscountCents(anyLong(), any(), any())).thenReturn(0L);
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		List<OrderOutcome> outcomes = orderWriter
+				.writeAll(List.of(new PendingOrder(user, mouseOrder), new PendingOrder(user, laptopOrder)));
+
+		assertEquals(2, outcomes.size());
+		assertFalse(outcomes.get(0).succeeded());
+		assertInstanceOf(InsufficientStockException.class, outcomes.get(0).failure());
+		assertTrue(outcomes.get(1).succeeded());
+		assertEquals(0, outcomes.get(1).order().orderTotal().compareTo(new BigDecimal("1000")));
+	}
+
+	@Test
+	void writeAll_failingOnPlacedOnlyFailsItsOwnOrder() {
+		OrderRequest request = new OrderRequest(List.of(new OrderItemRequest(1L, 1)), null);
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(discountCalculator.totalDiscountCents(anyLong(), any(), any())).thenReturn(0L);
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		List<OrderResponse> stored = new ArrayList<>();
+
+		List<OrderOutcome> outcomes = orderWriter.writeAll(List.of(new PendingOrder(user, request, placed -> {
+			throw new IllegalStateException("Cannot store response");
+		}), new PendingOrder(user, request, stored::add)));
+
+		assertEquals(2, outcomes.size());
+		assertFalse(outcomes.get(0).succeeded());
+		assertInstanceOf(IllegalStateException.class, outcomes.get(0).failure());
+		assertTrue(outcomes.get(1).succeeded());
+		// The batch rolled back, so the healthy order was written again on its own
+		verify(orderRepository, times(3)).saveAll(anyList());
+		assertEquals(outcomes.get(1).order(), stored.get(stored.size() - 1));
+	}
+
+	private ActiveCoupon coupon(String code, String minOrderTotal) {
+		return new ActiveCoupon(Coupon.builder().id(1L).code(code).rate(new BigDecimal("0.0500"))
+				.minOrderTotal(new BigDecimal(minOrderTotal)).redemptions(0).active(true).build(), 0);
+	}
+}
@@ -1,15 +1,21 @@
 package com.ecommerce.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,12 +23,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import com.ecommerce.cache.SingleFlightCacheLoader;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedSearchResponse;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductFacets;
 import com.ecommerce.entity.Product;
 import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidCursorException;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearch;
+import com.ecommerce.search.ProductSearchIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -30,6 +53,28 @@ class ProductServiceTest {
 	@Mock
 	private ProductRepository productRepository;
 
+	@Mock
+	private StockReservationEngine stockReservationEngine;
+
+	@Mock
+	private ProductTombstones productTombstones;
+
+	@Mock
+	private ProductSearchIndex productSearchIndex;
+
+	@Mock
+	private ProductSearch productSearch;
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	@Spy
+	private SingleFlightCacheLoader cacheLoader = new SingleFlightCacheLoader(cacheManager, new SimpleMeterRegistry(),
+			Duration.ofMinutes(10), 1.0);
+
+	@Spy
+	private ListingCache listingCache = new ListingCache(cacheManager, cacheLoader, new SimpleMeterRegistry(), 5, 100,
+			5);
+
 	@InjectMocks
 	private ProductService productService;
 
@@ -67,8 +112,45 @@ class ProductServiceTest {
         // Act & Assert
         assertThrows(InsufficientStockException.class, () -> productService.getProductById(1L));
         verify(productRepository, times(1)).findById(1L);
+        verify(productTombstones).markAbsent(1L, 0L);
     }
 
+	@Test
+	void getProductById_tombstonedIdSkipsDatabase() {
+		when(productTombstones.isAbsent(1L)).thenReturn(true);
+
+		assertThrows(InsufficientStockException.class, () -> productService.getProductById(1L));
+		verify(productRepository, never()).findById(any());
+	}
+
+	@Test
+	void getProductById_knownDeletedIdSkipsCache() {
+		when(productTombstones.isKnownDeleted(1L)).thenReturn(true);
+
+		assertThrows(InsufficientStockException.class, () -> productService.getProductById(1L));
+		verify(productTombstones, never()).isAbsent(any());
+		verify(productRepository, never()).findById(any());
+	}
+
+	@Test
+	void getProductById_cachedProductSkipsTombstoneCache() {
+		cacheLoader.put(ProductService.PRODUCT_CACHE, 1L,
+				new ProductDTO(1L, "New Product", "New Description", new BigDecimal("109.99"), 10, false));
+
+		assertEquals("New Product", productService.getProductById(1L).name());
+		verify(productTombstones, never()).isAbsent(any());
+		verify(productRepository, never()).findById(any());
+	}
+
+	@Test
+	void getProductById_deletedProductIsTombstoned() {
+		testProduct.setDeleted(true);
+		when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+		assertThrows(InsufficientStockException.class, () -> productService.getProductById(1L));
+		verify(productTombstones).markAbsent(1L, 0L);
+	}
+
 	@Test
     void createProduct_Success() {
         // Arrange
@@ -111,5 +193,117 @@ class ProductServiceTest {
         assertTrue(testProduct.getDeleted());
         verify(productRepository, times(1)).findById(1L);
         verify(productRepository, times(1)).save(testProduct);
+        verify(listingCache).invalidate("products");
+        verify(productTombstones).markDeleted(1L);
+        verify(productSearchIndex).removed(1L);
     }
+
+	@Test
+	void restoreProduct_clearsDeletedFlagAndTombstone() {
+		testProduct.setDeleted(true);
+		when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+		when(productRepository.save(testProduct)).thenReturn(testProduct);
+
+		ProductDTO result = productService.restoreProduct(1L);
+
+		assertFalse(result.deleted());
+		verify(stockReservationEngine).track(1L, 10);
+		verify(listingCache).invalidate("products");
+		verify(productTombstones).markPresent(1L);
+	}
+
+	@Test
+	void createProduct_clearsTombstoneForNewId() {
+		when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+
+		productService.createProduct(testProductDTO);
+
+		verify(productTombstones).markPresent(1L);
+		verify(productSearchIndex).indexed(1L, "New Product");
+	}
+
+	@Test
+	void getAllProducts_cachedPerPageAndSort() {
+		when(productRepository.findListedProducts(any())).thenReturn(new PageImpl<>(List.of(testProductDTO)));
+		PageRequest byPrice = PageRequest.of(2, 10, Sort.by("price"));
+		PageRequest byName = PageRequest.of(2, 10, Sort.by("name"));
+
+		productService.getAllProducts(byPrice);
+		productService.getAllProducts(byPrice);
+		productService.getAllProducts(byName);
+
+		verify(productRepository, times(1)).findListedProducts(byPrice);
+		verify(productRepository, times(1)).findListedProducts(byName);
+	}
+
+	@Test
+	void getAllProducts_reloadedAfterUpdate() {
+		when(productRepository.findListedProducts(any())).thenReturn(new PageImpl<>(List.of(testProductDTO)));
+		when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+		when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+		PageRequest pageable = PageRequest.of(0, 10);
+
+		productService.getAllProducts(pageable);
+		productService.updateProduct(1L, testProductDTO);
+		productService.getAllProducts(pageable);
+
+		verify(productRepository, times(2)).findListedProducts(eq(pageable));
+	}
+
+	@Test
+	void getProductsByCursor_seeksFromLastProductOfPreviousPage() {
+		Product cheap = Product.builder().id(4L).name("Mouse").price(new BigDecimal("19.90")).quantity(1)
+				.deleted(false).build();
+		Product cheaper = Product.builder().id(9L).name("Cable").price(new BigDecimal("4.50")).quantity(1)
+				.deleted(false).build();
+		Sort byPriceDesc = Sort.by(Sort.Direction.DESC, "price", "id");
+		when(productRepository.findByDeletedFalse(ScrollPosition.keyset(), byPriceDesc, Limit.of(2)))
+				.thenReturn(Window.from(List.of(testProduct, cheap), ScrollPosition::offset, true));
+		when(productRepository.findByDeletedFalse(
+				ScrollPosition.forward(Map.of("price", new BigDecimal("19.90"), "id", 4L)), byPriceDesc, Limit.of(2)))
+				.thenReturn(Window.from(List.of(cheaper), ScrollPosition::offset, false));
+
+		CursorPage<ProductDTO> first = productService.getProducts("price", "desc", null, 2);
+		CursorPage<ProductDTO> second = productService.getProducts("price", "desc", first.nextCursor(), 2);
+
+		assertEquals(List.of(1L, 4L), first.content().stream().map(ProductDTO::id).toList());
+		assertTrue(first.hasNext());
+		assertEquals(List.of(9L), second.content().stream().map(ProductDTO::id).toList());
+		assertFalse(second.hasNext());
+	}
+
+	@Test
+	void getProductsByCursor_rejectsCursorOfAnotherSortAndUnknownSorts() {
+		Product product = Product.builder().id(4L).name("Mouse").price(new BigDecimal("19.90")).build();
+		String byName = ProductCursor.of(ProductCursor.SortKey.NAME, Sort.Direction.ASC, product).encode();
+
+		assertThrows(InvalidCursorException.class, () -> productService.getProducts("price", "asc", byName, 10));
+		assertThrows(InvalidCursorException.class, () -> productService.getProducts("name", "desc", byName, 10));
+		assertThrows(InvalidCursorException.class, () -> productService.getProducts("quantity", "asc", null, 10));
+		verify(productRepository, never()).findByDeletedFalse(any(), any(), any());
+	}
+
+	@Test
+	void searchProducts_delegatesToConfiguredSearch() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		when(productSearch.search("mouse", null, new BigDecimal("50"), true, pageable))
+				.thenReturn(new PageImpl<>(List.of(testProductDTO)));
+
+		assertEquals(1, productService.searchProducts("mouse", null, new BigDecimal("50"), true, pageable)
+				.getTotalElements());
+	}
+
+	@Test
+	void searchProductsWithFacets_combinesPageAndFacetsOfSameFilters() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		ProductFacets facets = new ProductFacets(List.of(), 1, 0);
+		when(productSearch.search("mouse", null, null, true, pageable))
+				.thenReturn(new PageImpl<>(List.of(testProductDTO)));
+		when(productSearch.facets("mouse", null, null, true)).thenReturn(facets);
+
+		FacetedSearchResponse response = productService.searchProductsWithFacets("mouse", null, null, true, pageable);
+
+		assertEquals(1, response.products().getTotalElements());
+		assertEquals(facets, response.facets());
+	}
 }
@@ -0,0 +1,119 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductTombstonesTest {
+
+	@Mock
+	private ProductRepository productRepository;
+
+	private ProductTombstones productTombstones;
+
+	@BeforeEach
+	void setUp() {
+		productTombstones = new ProductTombstones(new ConcurrentMapCacheManager(), productRepository);
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rebuild_loadsDeletedIds() {
+		when(productRepository.findDeletedIds()).thenReturn(List.of(3L, 7L, 5_000_000_000L));
+
+		productTombstones.rebuild();
+
+		assertTrue(productTombstones.isAbsent(3L));
+		assertTrue(productTombstones.isAbsent(7L));
+		assertFalse(productTombstones.isAbsent(4L));
+		// Beyond the bitset's range: only the tombstone cache can answer
+		assertFalse(productTombstones.isAbsent(5_000_000_000L));
+	}
+
+	@Test
+	void markAbsent_remembersMissingId() {
+		productTombstones.markAbsent(42L, productTombstones.generation(42L));
+
+		assertTrue(productTombstones.isAbsent(42L));
+		assertFalse(productTombstones.isAbsent(43L));
+	}
+
+	@Test
+	void markPresent_clearsTombstoneAndDeletedBit() {
+		when(productRepository.findDeletedIds()).thenReturn(List.of(3L));
+		productTombstones.rebuild();
+		productTombstones.markAbsent(3L, productTombstones.generation(3L));
+		productTombstones.markAbsent(42L, productTombstones.generation(42L));
+
+		productTombstones.markPresent(3L);
+		productTombstones.markPresent(42L);
+
+		assertFalse(productTombstones.isAbsent(3L));
+		assertFalse(productTombstones.isAbsent(42L));
+	}
+
+	@Test
+	void markAbsent_racingCreate_dropsTombstone() {
+		long generation = productTombstones.generation(42L);
+
+		// The product is created after the lookup missed it, before the tombstone is written
+		productTombstones.markPresent(42L);
+		productTombstones.markAbsent(42L, generation);
+
+		assertFalse(productTombstones.isAbsent(42L));
+	}
+
+	@Test
+	void rebuild_replaysRestoreDuringLoad() {
+		when(productRepository.findDeletedIds()).thenAnswer(invocation -> {
+			// Restored after the query read the deleted ids
+			productTombstones.markPresent(3L);
+			return List.of(3L, 7L);
+		});
+
+		productTombstones.rebuild();
+
+		assertFalse(productTombstones.isAbsent(3L));
+		assertTrue(productTombstones.isAbsent(7L));
+	}
+
+	@Test
+	void markDeletedAndPresent_waitForCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		productTombstones.markDeleted(3L);
+		assertFalse(productTombstones.isAbsent(3L));
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		TransactionSynchronizationManager.clearSynchronization();
+		assertTrue(productTombstones.isAbsent(3L));
+
+		TransactionSynchronizationManager.initSynchronization();
+		productTombstones.markPresent(3L);
+		assertTrue(productTombstones.isAbsent(3L));
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		assertFalse(productTombstones.isAbsent(3L));
+	}
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.dto.StockLevel;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationEngineTest {
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private StockReservationEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		when(productRepository.findStockLevels()).thenReturn(List.of(new StockLevel(1L, 10), new StockLevel(2L, 3)));
+		engine.rebuild();
+	}
+
+	@Test
+	void reserve_withinStock_doesNotTouchDatabase() {
+		engine.reserve(Map.of(1L, 4, 2L, 3));
+
+		verify(productRepository, never()).findStockLevel(1L);
+		verify(productRepository, never()).findStockLevel(2L);
+	}
+
+	@Test
+	void reserve_isAllOrNothing() {
+		when(productRepository.findStockLevel(2L)).thenReturn(3);
+		Map<Long, Integer> quantities = new LinkedHashMap<>();
+		quantities.put(1L, 5);
+		quantities.put(2L, 4);
+
+		assertThrows(InsufficientStockException.class, () -> engine.reserve(quantities));
+
+		// product 1 was released again, so the full 10 can still be reserved
+		engine.reserve(Map.of(1L, 10));
+	}
+
+	@Test
+	void reserve_rechecksDatabaseBeforeRejecting() {
+		when(productRepository.findStockLevel(2L)).thenReturn(20);
+
+		engine.reserve(Map.of(2L, 15));
+
+		verify(productRepository).findStockLevel(2L);
+	}
+
+	@Test
+	void release_returnsStock() {
+		engine.reserve(Map.of(2L, 3)).release();
+
+		engine.reserve(Map.of(2L, 3));
+	}
+
+	@Test
+	void reserve_neverOversellsUnderContention() throws InterruptedException {
+		when(productRepository.findStockLevel(1L)).thenReturn(0);
+		AtomicInteger succeeded = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 100; i++) {
+			pool.submit(() -> {
+				try {
+					engine.reserve(Map.of(1L, 1));
+					succeeded.incrementAndGet();
+				} catch (InsufficientStockException ex) {
+					// expected once stock runs out
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertEquals(10, succeeded.get());
+	}
+
+	@Test
+	void recheck_subtractsReservationsOfUncommittedTransactions() {
+		TransactionSynchronizationManager.initSynchronization();
+		List<TransactionSynchronization> inFlight;
+		try {
+			engine.reserve(Map.of(1L, 6));
+			inFlight = TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		// The committed row still shows 10 while that order's transaction is open
+		when(productRepository.findStockLevel(1L)).thenReturn(10);
+
+		assertThrows(InsufficientStockException.class, () -> engine.reserve(Map.of(1L, 5)));
+
+		// Once it commits the counter keeps its 4 units, without another re-check
+		inFlight.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		engine.reserve(Map.of(1L, 4));
+		verify(productRepository).findStockLevel(1L);
+	}
+
+	@Test
+	void track_appliesOnlyOnCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		List<TransactionSynchronization> rolledBack;
+		try {
+			engine.track(2L, 50);
+			rolledBack = TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		when(productRepository.findStockLevel(2L)).thenReturn(3);
+
+		// The update never committed, so the counter still holds the 3 units
+		assertThrows(InsufficientStockException.class, () -> engine.reserve(Map.of(2L, 4)));
+
+		engine.track(2L, 50);
+		engine.reserve(Map.of(2L, 40));
+	}
+}
@@ -1,6 +1,8 @@
 package com.ecommerce.strategy;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -10,19 +12,47 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.ecommerce.dto.DiscountRequest;
+import com.ecommerce.entity.Coupon;
+import com.ecommerce.entity.DiscountRule;
 import com.ecommerce.entity.Role;
+import com.ecommerce.repository.CouponRepository;
+import com.ecommerce.repository.DiscountRuleRepository;
+import com.ecommerce.service.CouponService;
 
 class DiscountCalculatorTest {
 
 	private DiscountCalculator discountCalculator;
 
+	private DiscountRuleRepository discountRuleRepository;
+
+	private RuleTableDiscount ruleTableDiscount;
+
+	private CouponRepository couponRepository;
+
+	private CouponService couponService;
+
 	@BeforeEach
 	void setUp() {
 
+		// The rules seeded by V7__Create_discount_rules_table.sql
+		discountRuleRepository = mock(DiscountRuleRepository.class);
+		when(discountRuleRepository.findByActiveTrue()).thenReturn(List.of(
+				rule("Large order", null, "500.00", "0.0500"), rule("Premium member", Role.PREMIUM_USER, "0.00", "0.1000")));
+		ruleTableDiscount = new RuleTableDiscount(discountRuleRepository);
+		ruleTableDiscount.reload();
+
+		couponRepository = mock(CouponRepository.class);
+		when(couponRepository.findByActiveTrue()).thenReturn(List.of(
+				Coupon.builder().id(1L).code("SAVE10").rate(new BigDecimal("0.1000")).minOrderTotal(BigDecimal.ZERO)
+						.redemptions(0).active(true).build(),
+				Coupon.builder().id(2L).code("FIVER").amountOff(new BigDecimal("5.00"))
+						.minOrderTotal(new BigDecimal("20.00")).redemptions(0).active(true).build()));
+		couponService = new CouponService(couponRepository);
+		couponService.reload();
+
 		List<DiscountStrategy> strategies = new ArrayList<>();
-		strategies.add(new AmountThresholdDiscount());
-		strategies.add(new PremiumUserDiscount());
-		strategies.add(new UserDiscount());
+		strategies.add(ruleTableDiscount);
+		strategies.add(new CouponDiscount(couponService));
 
 		discountCalculator = new DiscountCalculator(strategies);
 	}
@@ -79,4 +109,83 @@ class DiscountCalculatorTest {
 		System.out.println("testAdminDiscount" + discount);
 		assertEquals(new BigDecimal("0.00"), discount);
 	}
+
+	@Test
+	void testTotalDiscountCents_MatchesTotalDiscount() {
+		for (Role role : Role.values()) {
+			for (String amount : new String[] { "0.00", "499.99", "500.00", "600.00", "1234.57" }) {
+				BigDecimal orderTotal = new BigDecimal(amount);
+				BigDecimal expected = discountCalculator
+						.totalDiscount(new DiscountRequest(orderTotal, null, null, null, role));
+
+				long cents = discountCalculator.totalDiscountCents(orderTotal.movePointRight(2).longValueExact(), null,
+						role);
+
+				assertEquals(expected, BigDecimal.valueOf(cents, 2));
+			}
+		}
+	}
+
+	@Test
+	void testThresholdBuckets_RoleSpecificRule() {
+		when(discountRuleRepository.findByActiveTrue())
+				.thenReturn(List.of(rule("Large order", null, "500.00", "0.0500"),
+						rule("Very large order", null, "1000.00", "0.0200"),
+						rule("Employee", Role.EMPLOYEE, "100.00", "0.2000")));
+		ruleTableDiscount.reload();
+
+		assertEquals(0L, discountCalculator.totalDiscountCents(49_999L, null, Role.USER));
+		assertEquals(2_500L, discountCalculator.totalDiscountCents(50_000L, null, Role.USER));
+		// 5% + 2% of 1000.00
+		assertEquals(7_000L, discountCalculator.totalDiscountCents(100_000L, null, Role.USER));
+		assertEquals(2_000L, discountCalculator.totalDiscountCents(10_000L, null, Role.EMPLOYEE));
+		assertEquals(0L, discountCalculator.totalDiscountCents(10_000L, null, Role.PREMIUM_USER));
+		assertEquals(2_500L, discountCalculator.totalDiscountCents(50_000L, null, null));
+	}
+
+	@Test
+	void testReload_SwapsRates() {
+		when(discountRuleRepository.findByActiveTrue())
+				.thenReturn(List.of(rule("Premium member", Role.PREMIUM_USER, "0.00", "0.1500")));
+		ruleTableDiscount.reload();
+
+		DiscountRequest request = new DiscountRequest(new BigDecimal("300.00"), null, null, null, Role.PREMIUM_USER);
+		assertEquals(new BigDecimal("45.00"), discountCalculator.totalDiscount(request));
+	}
+
+	@Test
+	void testCouponDiscount_StacksWithRules() {
+		// Premium user with SAVE10 on 300.00: 10% premium + 10% coupon
+		DiscountRequest request = new DiscountRequest(new BigDecimal("300.00"), null, null, "save10", Role.PREMIUM_USER);
+		assertEquals(new BigDecimal("60.00"), discountCalculator.totalDiscount(request));
+		assertEquals(6_000L, discountCalculator.totalDiscountCents(30_000L, "SAVE10", Role.PREMIUM_USER));
+	}
+
+	@Test
+	void testCouponDiscount_AmountOffRespectsMinimumTotal() {
+		assertEquals(500L, discountCalculator.totalDiscountCents(2_000L, "FIVER", Role.USER));
+		assertEquals(0L, discountCalculator.totalDiscountCents(1_999L, "FIVER", Role.USER));
+	}
+
+	@Test
+	void testCouponDiscount_UnknownCodeGivesNoDiscount() {
+		assertEquals(0L, discountCalculator.totalDiscountCents(30_000L, "NOPE", Role.USER));
+	}
+
+	@Test
+	void testTotalDiscount_CappedAtOrderTotal() {
+		when(couponRepository.findByActiveTrue()).thenReturn(List.of(Coupon.builder().id(3L).code("BIG")
+				.amountOff(new BigDecimal("50.00")).minOrderTotal(BigDecimal.ZERO).redemptions(0).active(true).build()));
+		couponService.reload();
+
+		// 10% premium discount plus 50.00 off a 40.00 order
+		assertEquals(4_000L, discountCalculator.totalDiscountCents(4_000L, "BIG", Role.PREMIUM_USER));
+		assertEquals(new BigDecimal("40.00"), discountCalculator
+				.totalDiscount(new DiscountRequest(new BigDecimal("40.00"), null, null, "BIG", Role.PREMIUM_USER)));
+	}
+
+	private DiscountRule rule(String name, Role role, String minOrderTotal, String rate) {
+		return DiscountRule.builder().name(name).role(role).minOrderTotal(new BigDecimal(minOrderTotal))
+				.rate(new BigDecimal(rate)).active(true).build();
+	}
 }
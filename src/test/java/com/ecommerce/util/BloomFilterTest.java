@@ -0,0 +1,43 @@
+package com.ecommerce.util;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void mightContain_neverMissesAddedKeys() {
+		BloomFilter filter = BloomFilter.create(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("CODE" + i);
+		}
+
+		for (int i = 0; i < 1_000; i++) {
+			assertTrue(filter.mightContain("CODE" + i));
+		}
+	}
+
+	@Test
+	void mightContain_falsePositiveRateNearTarget() {
+		BloomFilter filter = BloomFilter.create(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("CODE" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("OTHER" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+	}
+
+	@Test
+	void create_rejectsInvalidRate() {
+		assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 0));
+		assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 1));
+	}
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+	@Test
+	void toCents_roundsHalfUp() {
+		assertEquals(1999L, Money.toCents(new BigDecimal("19.99")));
+		assertEquals(1000L, Money.toCents(new BigDecimal("10")));
+		assertEquals(1001L, Money.toCents(new BigDecimal("10.005")));
+	}
+
+	@Test
+	void fromCents_hasTwoDecimals() {
+		assertEquals(new BigDecimal("12.30"), Money.fromCents(1230L));
+		assertEquals(new BigDecimal("0.00"), Money.fromCents(0L));
+	}
+
+	@Test
+	void percentOf_roundsHalfUp() {
+		// 5% of 0.10 = 0.005 -> 0.01, 5% of 0.09 = 0.0045 -> 0.00
+		assertEquals(1L, Money.percentOf(10L, 500));
+		assertEquals(0L, Money.percentOf(9L, 500));
+		assertEquals(6_000L, Money.percentOf(60_000L, 1_000));
+	}
+
+	@Test
+	void share_roundsHalfUpAwayFromZero() {
+		assertEquals(50L, Money.share(100L, 1L, 2L));
+		assertEquals(33L, Money.share(100L, 1L, 3L));
+		assertEquals(67L, Money.share(100L, 2L, 3L));
+		assertEquals(-1L, Money.share(-1L, 1L, 2L));
+	}
+
+	@Test
+	void share_overflowFails() {
+		assertThrows(ArithmeticException.class, () -> Money.share(Long.MAX_VALUE, 2L, 3L));
+	}
+}